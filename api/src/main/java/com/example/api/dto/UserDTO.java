@@ -31,4 +31,9 @@ public class UserDTO {
     private String phone;
     
     private Integer status;
+    
+    /**
+     * 期望的版本号；更新时非null则仅在数据库中的版本一致时更新
+     */
+    private Integer version;
 } 
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.api.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * 用户资料部分更新对象，字段为null表示不修改
+ */
+@Data
+public class UserProfileDTO {
+
+    @Size(max = 50, message = "昵称长度不能超过50个字符")
+    private String nickname;
+
+    @Size(max = 20, message = "手机号长度不能超过20个字符")
+    private String phone;
+}
@@ -0,0 +1,34 @@
+package com.example.api.vo;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageVO<T> {
+
+    /**
+     * 当前页数据
+     */
+    private List<T> items;
+
+    /**
+     * 下一页游标，作为下次请求的after参数；没有更多数据时为null；与用户ID一样按字符串输出
+     */
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long nextCursor;
+
+    /**
+     * 是否还有更多数据
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,39 @@
+package com.example.api.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量创建单条结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchItemVO {
+
+    /**
+     * 在请求列表中的下标
+     */
+    private int index;
+
+    private boolean success;
+
+    /**
+     * 失败原因，成功时为null
+     */
+    private String message;
+
+    /**
+     * 创建成功的用户，失败时为null
+     */
+    private UserVO user;
+
+    public static UserBatchItemVO success(int index, UserVO user) {
+        return new UserBatchItemVO(index, true, null, user);
+    }
+
+    public static UserBatchItemVO failure(int index, String message) {
+        return new UserBatchItemVO(index, false, message, null);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.api.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量创建结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchResultVO {
+
+    private int total;
+
+    private int succeeded;
+
+    private int failed;
+
+    /**
+     * 按请求顺序排列的逐条结果
+     */
+    private List<UserBatchItemVO> items;
+}
@@ -0,0 +1,26 @@
+package com.example.api.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 用户统计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatsVO {
+
+    /**
+     * 用户总数
+     */
+    private long total;
+
+    /**
+     * 各状态的用户数，键为状态值
+     */
+    private Map<Integer, Long> byStatus;
+}
@@ -0,0 +1,27 @@
+package com.example.api.vo;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户名/邮箱自动补全候选项
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSuggestionVO {
+
+    /**
+     * 用户ID，按字符串输出
+     */
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long id;
+
+    /**
+     * 补全字段的值
+     */
+    private String value;
+}
@@ -1,5 +1,7 @@
 package com.example.api.vo;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -10,6 +12,10 @@ import java.time.LocalDateTime;
 @Data
 public class UserVO {
     
+    /**
+     * 用户ID；雪花ID超过JavaScript安全整数范围，按字符串输出
+     */
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
     
     private String username;
@@ -25,4 +31,9 @@ public class UserVO {
     private LocalDateTime createTime;
     
     private LocalDateTime updateTime;
+    
+    /**
+     * 版本号，更新时回传以启用乐观锁
+     */
+    private Integer version;
 } 
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.benchmarks;
+
+import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 基准测试用的非Web应用上下文，只装配service层
+ */
+@SpringBootApplication(scanBasePackages = "com.example.service")
+@MapperScan("com.example.service.repository")
+public class BenchmarkApplication {
+
+    /**
+     * 启动上下文，args为额外的配置项，例如 --user.loader.enabled=false
+     */
+    public static ConfigurableApplicationContext start(String... args) {
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.benchmarks;
+
+import com.baomidou.mybatisplus.core.incrementer.DefaultIdentifierGenerator;
+import com.example.service.id.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ID生成吞吐量基准：无锁的 {@link SnowflakeIdGenerator} 与MyBatis-Plus默认的synchronized实现对比，
+ * 分别在单线程和4线程下测量。单个工作节点每毫秒最多4096个ID，吞吐量上限约为每秒409.6万。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private SnowflakeIdGenerator snowflake;
+
+    private DefaultIdentifierGenerator mybatisPlus;
+
+    @Setup
+    public void setUp() {
+        snowflake = new SnowflakeIdGenerator(1, Instant.parse("2024-01-01T00:00:00Z"), Duration.ofSeconds(1));
+        mybatisPlus = new DefaultIdentifierGenerator(1, 1);
+    }
+
+    @Benchmark
+    public long snowflake() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long snowflakeContended() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    public Long mybatisPlus() {
+        return mybatisPlus.nextId(null);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Long mybatisPlusContended() {
+        return mybatisPlus.nextId(null);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.benchmarks;
+
+import com.example.api.vo.UserVO;
+import com.example.common.Result;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 响应格式基准：JSON、Smile、CBOR编解码耗时，以及JSON经gzip压缩的耗时
+ * <p>
+ * 各格式的负载字节数在初始化时打印到基准输出中。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    private static final TypeReference<Result<List<UserVO>>> TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * 列表响应中的用户数
+     */
+    @Param({"1000"})
+    public int size;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+
+    private Result<List<UserVO>> result;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory(format))
+                .dateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"))
+                .timeZone(TimeZone.getTimeZone("GMT+8"))
+                .build();
+        List<UserVO> users = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            users.add(user(i));
+        }
+        result = Result.success(users);
+        encoded = objectMapper.writeValueAsBytes(result);
+        System.out.printf("%n%s payload: %d bytes, gzip: %d bytes%n", format, encoded.length, gzip(encoded).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public Result<List<UserVO>> deserialize() throws IOException {
+        return objectMapper.readValue(encoded, TYPE);
+    }
+
+    /**
+     * 序列化后再gzip压缩，对应启用响应压缩时服务端的开销
+     */
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(result));
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static UserVO user(long id) {
+        UserVO user = new UserVO();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setNickname("用户" + id);
+        user.setPhone("13800138000");
+        user.setStatus(1);
+        user.setCreateTime(LocalDateTime.now());
+        user.setUpdateTime(LocalDateTime.now());
+        return user;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.benchmarks;
+
+import com.example.api.vo.UserVO;
+import com.example.common.Result;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应序列化基准：单个用户与大列表的 {@link Result} JSON编码
+ * <p>
+ * ObjectMapper按应用的spring.jackson配置构建，与接口实际输出一致。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    /**
+     * 列表响应中的用户数
+     */
+    @Param({"1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+
+    private Result<UserVO> single;
+
+    private Result<List<UserVO>> list;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .dateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"))
+                .timeZone(TimeZone.getTimeZone("GMT+8"))
+                .build();
+        single = Result.success(user(1));
+        List<UserVO> users = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            users.add(user(i));
+        }
+        list = Result.success(users);
+    }
+
+    @Benchmark
+    public byte[] serializeSingle() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(single);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(list);
+    }
+
+    private static UserVO user(long id) {
+        UserVO user = new UserVO();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setNickname("用户" + id);
+        user.setPhone("13800138000");
+        user.setStatus(1);
+        user.setCreateTime(LocalDateTime.now());
+        user.setUpdateTime(LocalDateTime.now());
+        return user;
+    }
+}
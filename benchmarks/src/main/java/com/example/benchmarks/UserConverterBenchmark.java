@@ -0,0 +1,81 @@
+package com.example.benchmarks;
+
+import com.example.api.dto.UserDTO;
+import com.example.api.vo.UserVO;
+import com.example.service.converter.UserConverter;
+import com.example.service.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对象转换基准：BeanUtils.copyProperties 与 MapStruct 生成代码对比
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserConverterBenchmark {
+
+    private User user;
+
+    private UserDTO userDTO;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+        user.setPassword("password123");
+        user.setEmail("benchmark@example.com");
+        user.setNickname("基准");
+        user.setPhone("13800138000");
+        user.setStatus(1);
+        user.setCreateTime(LocalDateTime.now());
+        user.setUpdateTime(LocalDateTime.now());
+
+        userDTO = new UserDTO();
+        userDTO.setUsername("benchmark");
+        userDTO.setPassword("password123");
+        userDTO.setEmail("benchmark@example.com");
+        userDTO.setNickname("基准");
+        userDTO.setStatus(1);
+    }
+
+    @Benchmark
+    public UserVO toVOBeanUtils() {
+        UserVO userVO = new UserVO();
+        BeanUtils.copyProperties(user, userVO);
+        return userVO;
+    }
+
+    @Benchmark
+    public UserVO toVOMapStruct() {
+        return UserConverter.INSTANCE.toVO(user);
+    }
+
+    @Benchmark
+    public User updateEntityBeanUtils() {
+        BeanUtils.copyProperties(userDTO, user, "id", "createTime");
+        return user;
+    }
+
+    @Benchmark
+    public User updateEntityMapStruct() {
+        UserConverter.INSTANCE.updateEntity(userDTO, user);
+        return user;
+    }
+}
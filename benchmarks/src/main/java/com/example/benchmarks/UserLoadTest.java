@@ -0,0 +1,137 @@
+package com.example.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 用户接口HTTP压测
+ * <p>
+ * 以固定并发数闭环请求 GET /api/users/{id}，统计预热后的吞吐量与延迟分位数。
+ * 用于对比web模块在平台线程与虚拟线程（spring.threads.virtual.enabled）下的表现：
+ * 对同一数据库分别启动两种模式的服务，用相同参数各运行一次。
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.example.benchmarks.UserLoadTest \
+ *     --url=http://localhost:8080 --concurrency=400 --duration=30 --warmup=10 --ids=10000
+ * </pre>
+ * 并发数应明显大于Tomcat工作线程数（默认200），否则两种模式差别不大。
+ */
+public class UserLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "400"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "30"));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "10"));
+        long ids = Long.parseLong(options.getOrDefault("ids", "10000"));
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(warmup).toNanos();
+        long end = measureFrom + Duration.ofSeconds(duration).toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Worker>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(workers.submit(() -> new Worker().run(client, url, ids, measureFrom, end)));
+        }
+        long requests = 0;
+        long errors = 0;
+        long[] latencies = new long[0];
+        for (Future<Worker> future : futures) {
+            Worker worker = future.get();
+            requests += worker.count;
+            errors += worker.errors;
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + worker.count);
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+        }
+        workers.shutdown();
+        clientExecutor.shutdown();
+        Arrays.sort(latencies);
+
+        System.out.printf("concurrency=%d duration=%ds requests=%d errors=%d%n", concurrency, duration, requests, errors);
+        System.out.printf("throughput=%.1f req/s (successful %.1f req/s)%n",
+                requests / (double) duration, (requests - errors) / (double) duration);
+        System.out.printf("latency p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int index = arg.indexOf('=');
+                options.put(arg.substring(2, index), arg.substring(index + 1));
+            }
+        }
+        return options;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * 单个并发连接，只记录测量窗口内完成的请求
+     */
+    private static final class Worker {
+
+        private long[] latencies = new long[1024];
+
+        private int count;
+
+        private long errors;
+
+        Worker run(HttpClient client, String url, long ids, long measureFrom, long end) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long now = System.nanoTime();
+            while (now < end) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/users/" + random.nextLong(1, ids + 1)))
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build();
+                boolean ok;
+                try {
+                    ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                } catch (Exception e) {
+                    ok = false;
+                }
+                long finished = System.nanoTime();
+                if (now >= measureFrom && finished <= end) {
+                    if (!ok) {
+                        errors++;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = finished - now;
+                }
+                now = finished;
+            }
+            return this;
+        }
+    }
+}
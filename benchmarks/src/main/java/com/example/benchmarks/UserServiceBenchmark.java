@@ -0,0 +1,160 @@
+package com.example.benchmarks;
+
+import com.example.api.dto.UserDTO;
+import com.example.api.vo.CursorPageVO;
+import com.example.api.vo.UserStatsVO;
+import com.example.api.vo.UserVO;
+import com.example.service.index.UserIndexMaintainer;
+import com.example.service.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UserServiceImpl读写路径基准
+ * <p>
+ * 启动只含service层的Spring上下文，连接内嵌H2，按rows灌入数据并重建内存索引后测量。
+ * cache=false时关闭用户缓存，按ID查询每次都经过批量加载器访问数据库。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private static final List<Integer> ACTIVE = List.of(1);
+
+    /**
+     * 预置的用户数
+     */
+    @Param({"10000"})
+    public int rows;
+
+    /**
+     * 是否启用用户缓存
+     */
+    @Param({"true", "false"})
+    public boolean cache;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--user.cache.enabled=" + cache);
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(UserIndexMaintainer.class).rebuildAll();
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserVO getUserById() {
+        return userService.getUserById(randomId());
+    }
+
+    @Benchmark
+    public UserVO getUserByUsername() {
+        return userService.getUserByUsername("user" + randomId());
+    }
+
+    @Benchmark
+    public CursorPageVO<UserVO> listUsers() {
+        return userService.listUsers(randomId(), 50, null);
+    }
+
+    @Benchmark
+    public CursorPageVO<UserVO> listUsersByStatus() {
+        return userService.listUsers(randomId(), 50, ACTIVE);
+    }
+
+    @Benchmark
+    public List<UserVO> searchUsersByUsername() {
+        return userService.searchUsersByUsername("ser12", 20, null);
+    }
+
+    @Benchmark
+    public UserStatsVO getUserStats() {
+        return userService.getUserStats();
+    }
+
+    @Benchmark
+    public UserVO updateUser() {
+        long id = randomId();
+        UserDTO userDTO = dto("user" + id, "user" + id + "@example.com");
+        userDTO.setNickname("昵称" + sequence.incrementAndGet());
+        return userService.updateUser(id, userDTO);
+    }
+
+    /**
+     * 创建后立即删除，保持数据量不变
+     */
+    @Benchmark
+    public UserVO createAndDeleteUser() {
+        long n = sequence.incrementAndGet();
+        UserVO userVO = userService.createUser(dto("bench" + n, "bench" + n + "@example.com"));
+        userService.deleteUser(userVO.getId());
+        return userVO;
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+
+    private static UserDTO dto(String username, String email) {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setUsername(username);
+        userDTO.setPassword("password123");
+        userDTO.setEmail(email);
+        userDTO.setStatus(1);
+        return userDTO;
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        // 主键不自增，种子数据使用1到rows的ID，远小于雪花ID
+        String sql = "INSERT INTO users (id, username, password, email, nickname, phone, status, create_time, update_time) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 1; i <= rows; i++) {
+            // 约十分之一的用户为禁用状态
+            batch.add(new Object[]{i, "user" + i, "password123", "user" + i + "@example.com", "用户" + i,
+                    "13800138000", i % 10 == 0 ? 0 : 1, now, now});
+            if (batch.size() == SEED_BATCH_SIZE || i == rows) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+}
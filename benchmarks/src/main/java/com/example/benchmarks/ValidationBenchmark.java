@@ -0,0 +1,73 @@
+package com.example.benchmarks;
+
+import com.example.api.dto.UserDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求校验基准：合法与非法 {@link UserDTO} 的Bean Validation开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private ValidatorFactory factory;
+
+    private Validator validator;
+
+    private UserDTO valid;
+
+    private UserDTO invalid;
+
+    @Setup
+    public void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+
+        valid = new UserDTO();
+        valid.setUsername("benchmark");
+        valid.setPassword("password123");
+        valid.setEmail("benchmark@example.com");
+
+        // 每个字段都违反约束，触发消息插值
+        invalid = new UserDTO();
+        invalid.setUsername("ab");
+        invalid.setPassword("123");
+        invalid.setEmail("not-an-email");
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDTO>> validateValid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDTO>> validateInvalid() {
+        return validator.validate(invalid);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.common.id;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * 雪花算法ID生成器
+ * <p>
+ * 64位ID由高到低为：1位符号位（恒为0）、41位相对纪元的毫秒时间戳、10位工作节点ID、12位毫秒内序列号，
+ * 每个节点每毫秒最多生成4096个ID，时间戳约可用69年。同一节点生成的ID严格递增，不同节点的ID按时间大致有序。
+ * <p>
+ * 上次分配的时间戳与序列号打包在一个 {@link AtomicLong} 中以CAS推进，不加锁。
+ * 序列号用尽时等待下一毫秒；时钟回拨不超过 {@code maxClockBackward} 时沿用上次的时间戳继续分配，
+ * 超过时抛出 {@link IllegalStateException}，避免时钟恢复前生成重复ID。
+ * <p>
+ * 阻塞与响应式模块写同一张用户表，共用这一实现，工作节点ID在两类实例间也必须互不相同。
+ */
+public class Snowflake {
+
+    public static final int WORKER_ID_BITS = 10;
+
+    public static final int SEQUENCE_BITS = 12;
+
+    public static final int TIMESTAMP_SHIFT = WORKER_ID_BITS + SEQUENCE_BITS;
+
+    /**
+     * 工作节点ID上限
+     */
+    public static final long MAX_WORKER_ID = (1L << WORKER_ID_BITS) - 1;
+
+    public static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final long MAX_TIMESTAMP = (1L << (63 - TIMESTAMP_SHIFT)) - 1;
+
+    private final long workerBits;
+
+    private final long epochMillis;
+
+    private final long maxBackwardMillis;
+
+    private final LongSupplier clock;
+
+    /**
+     * 上次分配的 {@code 时间戳 << SEQUENCE_BITS | 序列号}
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    private final AtomicLong backwardIds = new AtomicLong();
+
+    /**
+     * @param workerId         工作节点ID，0到 {@link #MAX_WORKER_ID}，同一集群内每个实例必须不同
+     * @param epoch            时间戳的起点，上线后不能修改
+     * @param maxClockBackward 可容忍的时钟回拨幅度
+     */
+    public Snowflake(long workerId, Instant epoch, Duration maxClockBackward) {
+        this(workerId, epoch, maxClockBackward, System::currentTimeMillis);
+    }
+
+    protected Snowflake(long workerId, Instant epoch, Duration maxClockBackward, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("工作节点ID必须在0到" + MAX_WORKER_ID + "之间: " + workerId);
+        }
+        if (epoch.toEpochMilli() > clock.getAsLong()) {
+            throw new IllegalArgumentException("ID纪元不能晚于当前时间: " + epoch);
+        }
+        this.workerBits = workerId << SEQUENCE_BITS;
+        this.epochMillis = epoch.toEpochMilli();
+        this.maxBackwardMillis = maxClockBackward.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * 生成下一个ID
+     *
+     * @throws IllegalStateException 时钟回拨超过容忍幅度，或时间戳超出41位
+     */
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long last = current >>> SEQUENCE_BITS;
+            long now = clock.getAsLong() - epochMillis;
+            long next;
+            if (now > last) {
+                if (now > MAX_TIMESTAMP) {
+                    throw new IllegalStateException("ID时间戳超出41位，需要调整纪元");
+                }
+                next = now << SEQUENCE_BITS;
+            } else if (last - now > maxBackwardMillis) {
+                throw new IllegalStateException("时钟回拨" + (last - now) + "ms，超过容忍的" + maxBackwardMillis + "ms，拒绝生成ID");
+            } else if ((current & SEQUENCE_MASK) == SEQUENCE_MASK) {
+                // 该毫秒的序列号已用尽，等待时钟越过上次的时间戳
+                if (now == last) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(last - now));
+                }
+                continue;
+            } else {
+                next = current + 1;
+            }
+            if (state.compareAndSet(current, next)) {
+                if (now < last) {
+                    backwardIds.incrementAndGet();
+                }
+                return (next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT | workerBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * ID中的生成时间
+     */
+    public Instant timeOf(long id) {
+        return Instant.ofEpochMilli((id >>> TIMESTAMP_SHIFT) + epochMillis);
+    }
+
+    /**
+     * ID中的工作节点ID
+     */
+    public static long workerIdOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_WORKER_ID;
+    }
+
+    /**
+     * 时钟回拨期间沿用上次时间戳生成的ID数
+     */
+    public long backwardIdCount() {
+        return backwardIds.get();
+    }
+}
@@ -0,0 +1,34 @@
+-- 数据库初始化脚本（docker-compose启动MySQL时执行）
+
+-- 用户ID由应用以雪花算法分配，主键不自增
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGINT       NOT NULL,
+    username    VARCHAR(20)  NOT NULL,
+    password    VARCHAR(100) NOT NULL,
+    email       VARCHAR(100) NOT NULL,
+    nickname    VARCHAR(50)  NULL,
+    phone       VARCHAR(20)  NULL,
+    status      INT          NOT NULL DEFAULT 1,
+    create_time DATETIME(3)  NULL,
+    update_time DATETIME(3)  NULL,
+    version     INT          NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_users_username (username),
+    UNIQUE KEY uk_users_email (email),
+    KEY idx_users_status_id (status, id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- 用户变更事件发件箱，与业务数据在同一事务内写入，由中继广播后删除
+CREATE TABLE IF NOT EXISTS user_change_outbox (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    payload     VARCHAR(512) NOT NULL,
+    create_time DATETIME     NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- 分片模式下用户名/邮箱的全局查找表，按查找键哈希分布在各分片，主键保证全局唯一
+CREATE TABLE IF NOT EXISTS user_lookup (
+    lookup_key  VARCHAR(110) NOT NULL,
+    user_id     BIGINT       NOT NULL,
+    PRIMARY KEY (lookup_key)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
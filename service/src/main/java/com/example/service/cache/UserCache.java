@@ -0,0 +1,173 @@
+package com.example.service.cache;
+
+import com.example.api.vo.UserVO;
+import com.example.service.event.UserChangeEvent;
+import com.example.service.event.UserChangeListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 用户本地读穿缓存
+ * <p>
+ * 以ID为主索引缓存 {@link UserVO}，用户名只映射到ID。按用户名命中时会校验缓存对象的用户名，
+ * 因此用户改名后旧用户名映射即使未被清除也不会返回错误数据。缓存对象为共享实例，调用方不应修改。
+ * 本节点及其他节点的用户变更都通过 {@link UserChangeListener} 回调失效，且排在所有监听器之前，
+ * 依赖它的响应缓存失效时它已不再返回旧数据。
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class UserCache implements UserChangeListener, MeterBinder {
+
+    private final boolean enabled;
+
+    private final Cache<Long, UserVO> byId;
+
+    private final Cache<String, Long> idByUsername;
+
+    /**
+     * 失效代数，用于丢弃加载期间已被失效的结果
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserCache(UserCacheProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.idByUsername = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 按ID读取，未命中时调用loader加载；loader返回null时不缓存
+     */
+    public UserVO getById(Long id, Function<Long, UserVO> loader) {
+        if (!enabled || id == null) {
+            return loader.apply(id);
+        }
+        return byId.get(id, key -> {
+            UserVO userVO = loader.apply(key);
+            if (userVO != null) {
+                idByUsername.put(userVO.getUsername(), key);
+            }
+            return userVO;
+        });
+    }
+
+    /**
+     * 按用户名读取，未命中时调用loader加载；loader返回null时不缓存
+     */
+    public UserVO getByUsername(String username, Function<String, UserVO> loader) {
+        if (!enabled || username == null) {
+            return loader.apply(username);
+        }
+        Long id = idByUsername.getIfPresent(username);
+        if (id != null) {
+            UserVO userVO = byId.policy().getIfPresentQuietly(id);
+            if (userVO != null && username.equals(userVO.getUsername())) {
+                return userVO;
+            }
+            idByUsername.asMap().remove(username, id);
+        }
+        long expected = generation.get();
+        UserVO userVO = loader.apply(username);
+        if (userVO != null && generation.get() == expected) {
+            put(userVO);
+        }
+        return userVO;
+    }
+
+    /**
+     * 按ID读取已缓存的对象，不触发加载；未命中或未启用时返回null
+     */
+    public UserVO getIfPresent(Long id) {
+        if (!enabled || id == null) {
+            return null;
+        }
+        return byId.getIfPresent(id);
+    }
+
+    /**
+     * 写入缓存
+     */
+    public void put(UserVO userVO) {
+        if (!enabled || userVO == null || userVO.getId() == null) {
+            return;
+        }
+        byId.put(userVO.getId(), userVO);
+        idByUsername.put(userVO.getUsername(), userVO.getId());
+    }
+
+    /**
+     * 按ID失效，同时清除该用户当前缓存的用户名映射
+     */
+    public void invalidate(Long id) {
+        if (id == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        UserVO old = byId.asMap().remove(id);
+        if (old != null) {
+            idByUsername.asMap().remove(old.getUsername(), id);
+        }
+    }
+
+    /**
+     * 按用户名失效
+     */
+    public void invalidateUsername(String username) {
+        if (username == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        idByUsername.invalidate(username);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        byId.invalidateAll();
+        idByUsername.invalidateAll();
+    }
+
+    @Override
+    public void onUserChange(UserChangeEvent event) {
+        invalidate(event.getId());
+        invalidateUsername(event.getUsername());
+    }
+
+    /**
+     * ID索引命中统计
+     */
+    public CacheStats idStats() {
+        return byId.stats();
+    }
+
+    /**
+     * 用户名索引命中统计
+     */
+    public CacheStats usernameStats() {
+        return idByUsername.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "users.id");
+        CaffeineCacheMetrics.monitor(registry, idByUsername, "users.username");
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.service.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户本地缓存配置
+ */
+@Data
+@ConfigurationProperties(prefix = "user.cache")
+public class UserCacheProperties {
+
+    /**
+     * 是否启用本地缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最大缓存条目数（按ID与按用户名两个索引分别计算）
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * 写入后过期时间
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
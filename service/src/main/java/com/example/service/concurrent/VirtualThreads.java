@@ -0,0 +1,91 @@
+package com.example.service.concurrent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程工具
+ * <p>
+ * 项目仍以Java 17为编译基线，虚拟线程API（Java 21）通过方法句柄调用，
+ * 在Java 21以下运行时 {@link #isSupported()} 返回false，其余方法抛出 {@link IllegalStateException}。
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle OF_VIRTUAL;
+
+    private static final MethodHandle NAME;
+
+    private static final MethodHandle FACTORY;
+
+    private static final MethodHandle NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle factory = null;
+        MethodHandle newThreadPerTaskExecutor = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Class<?> ofVirtualBuilder = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualBuilder));
+            name = lookup.findVirtual(ofVirtualBuilder, "name",
+                    MethodType.methodType(ofVirtualBuilder, String.class, long.class));
+            factory = lookup.findVirtual(builder, "factory", MethodType.methodType(ThreadFactory.class));
+            newThreadPerTaskExecutor = lookup.findStatic(Executors.class,
+                    "newThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+        } catch (ReflectiveOperationException e) {
+            // Java 21以下没有虚拟线程
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * 当前运行时是否支持虚拟线程
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * 创建虚拟线程工厂，线程名为prefix加递增序号
+     */
+    public static ThreadFactory factory(String prefix) {
+        requireSupported();
+        try {
+            Object builder = OF_VIRTUAL.invoke();
+            builder = NAME.invoke(builder, prefix, 0L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (Throwable e) {
+            throw new IllegalStateException("创建虚拟线程工厂失败", e);
+        }
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的执行器
+     */
+    public static ExecutorService newExecutor(String prefix) {
+        ThreadFactory factory = factory(prefix);
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(factory);
+        } catch (Throwable e) {
+            throw new IllegalStateException("创建虚拟线程执行器失败", e);
+        }
+    }
+
+    private static void requireSupported() {
+        if (!isSupported()) {
+            throw new IllegalStateException("虚拟线程需要Java 21及以上版本，当前为" + Runtime.version());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.service.config;
+
+import com.example.service.datasource.DataSourceRoutingProperties;
+import com.example.service.datasource.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 读写分离数据源配置类，启用后替换 Spring Boot 自动配置的单一数据源
+ */
+@Configuration
+@EnableConfigurationProperties({DataSourceRoutingProperties.class, DataSourceProperties.class})
+@ConditionalOnProperty(prefix = "user.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    /**
+     * 路由数据源：主库取 spring.datasource，副本取 user.datasource.routing.replicas
+     */
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                                 DataSourceRoutingProperties properties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<DataSourceRoutingProperties.Replica> configured = properties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            DataSourceRoutingProperties.Replica replica = configured.get(i);
+            String name = StringUtils.hasText(replica.getName()) ? replica.getName() : "replica-" + i;
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .driverClassName(replica.getDriverClassName())
+                    .build();
+            dataSource.setPoolName(name);
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.put(name, dataSource);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas,
+                properties.getHealthCheckInterval(), properties.getHealthCheckTimeout());
+    }
+
+    /**
+     * 对外暴露的数据源；延迟获取连接，使路由能看到事务的只读标记
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+}
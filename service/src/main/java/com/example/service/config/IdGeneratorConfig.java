@@ -0,0 +1,30 @@
+package com.example.service.config;
+
+import com.example.service.id.IdGeneratorProperties;
+import com.example.service.id.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 用户ID生成配置类
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(IdGeneratorProperties.class)
+public class IdGeneratorConfig {
+
+    /**
+     * 雪花ID生成器；MyBatis-Plus按类型注入全局配置，{@code IdType.ASSIGN_ID} 的实体插入前由它分配ID
+     */
+    @Bean
+    public SnowflakeIdGenerator identifierGenerator(IdGeneratorProperties properties) {
+        if (properties.getWorkerId() == null) {
+            throw new IllegalStateException("未配置用户ID生成器的工作节点ID，请为每个实例设置不同的 user.id.worker-id 或环境变量 USER_ID_WORKER_ID");
+        }
+        log.info("用户ID生成器工作节点ID: {}", properties.getWorkerId());
+        return new SnowflakeIdGenerator(properties.getWorkerId(), properties.getEpoch(),
+                properties.getMaxClockBackward());
+    }
+}
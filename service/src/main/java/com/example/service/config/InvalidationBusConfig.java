@@ -0,0 +1,91 @@
+package com.example.service.config;
+
+import com.example.service.event.InvalidationBusProperties;
+import com.example.service.event.UserChangeDispatcher;
+import com.example.service.event.UserChangeListener;
+import com.example.service.event.UserChangeOutboxRelay;
+import com.example.service.event.bus.InvalidationBus;
+import com.example.service.event.bus.LoopbackInvalidationBus;
+import com.example.service.event.bus.RedisInvalidationBus;
+import com.example.service.repository.UserChangeOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.List;
+
+/**
+ * 缓存失效总线配置类
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(InvalidationBusProperties.class)
+public class InvalidationBusConfig {
+
+    /**
+     * 进程内失效总线（默认）
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "user.cache.bus", name = "type", havingValue = "loopback", matchIfMissing = true)
+    public InvalidationBus loopbackInvalidationBus() {
+        return new LoopbackInvalidationBus();
+    }
+
+    /**
+     * Redis监听容器
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "user.cache.bus", name = "type", havingValue = "redis")
+    public RedisMessageListenerContainer userChangeListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * Redis失效总线
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "user.cache.bus", name = "type", havingValue = "redis")
+    public InvalidationBus redisInvalidationBus(StringRedisTemplate redisTemplate,
+                                                RedisMessageListenerContainer userChangeListenerContainer,
+                                                ObjectMapper objectMapper,
+                                                InvalidationBusProperties properties) {
+        return new RedisInvalidationBus(redisTemplate, userChangeListenerContainer, objectMapper, properties.getChannel());
+    }
+
+    /**
+     * 用户变更分发器
+     */
+    @Bean
+    public UserChangeDispatcher userChangeDispatcher(InvalidationBusProperties properties,
+                                                     List<UserChangeListener> listeners,
+                                                     InvalidationBus invalidationBus,
+                                                     UserChangeOutboxRepository outboxRepository,
+                                                     ObjectMapper objectMapper) {
+        if (!properties.getOutbox().isEnabled()) {
+            return new UserChangeDispatcher(properties.getNodeId(), listeners, invalidationBus);
+        }
+        return new UserChangeDispatcher(properties.getNodeId(), listeners, invalidationBus,
+                outboxRepository, objectMapper);
+    }
+
+    /**
+     * 发件箱中继
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "user.cache.bus.outbox", name = "enabled", havingValue = "true")
+    public UserChangeOutboxRelay userChangeOutboxRelay(UserChangeOutboxRepository outboxRepository,
+                                                       InvalidationBus invalidationBus,
+                                                       ObjectMapper objectMapper,
+                                                       InvalidationBusProperties properties) {
+        return new UserChangeOutboxRelay(outboxRepository, invalidationBus, objectMapper,
+                properties.getOutbox().getBatchSize());
+    }
+}
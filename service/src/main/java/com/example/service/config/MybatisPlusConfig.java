@@ -9,6 +9,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 /**
  * MyBatis-Plus配置类
@@ -28,20 +29,29 @@ public class MybatisPlusConfig {
 
     /**
      * 自动填充处理器
+     * <p>
+     * 时间截断到毫秒，与DATETIME(3)列精度一致，写入前后的值相同。
+     * 更新时无条件覆盖updateTime，因为更新通常基于先查出的实体，strict填充会因字段非空而跳过；
+     * updateTime同时是ETag的一部分，每次更新都必须变化。
      */
     @Bean
     public MetaObjectHandler metaObjectHandler() {
         return new MetaObjectHandler() {
             @Override
             public void insertFill(MetaObject metaObject) {
-                this.strictInsertFill(metaObject, "createTime", LocalDateTime.class, LocalDateTime.now());
-                this.strictInsertFill(metaObject, "updateTime", LocalDateTime.class, LocalDateTime.now());
+                LocalDateTime now = now();
+                this.strictInsertFill(metaObject, "createTime", LocalDateTime.class, now);
+                this.strictInsertFill(metaObject, "updateTime", LocalDateTime.class, now);
             }
 
             @Override
             public void updateFill(MetaObject metaObject) {
-                this.strictUpdateFill(metaObject, "updateTime", LocalDateTime.class, LocalDateTime.now());
+                this.setFieldValByName("updateTime", now(), metaObject);
             }
         };
     }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
 } 
\ No newline at end of file
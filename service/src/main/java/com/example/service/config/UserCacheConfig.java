@@ -0,0 +1,23 @@
+package com.example.service.config;
+
+import com.example.service.cache.UserCache;
+import com.example.service.cache.UserCacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 用户缓存配置类
+ */
+@Configuration
+@EnableConfigurationProperties(UserCacheProperties.class)
+public class UserCacheConfig {
+
+    /**
+     * 用户本地缓存
+     */
+    @Bean
+    public UserCache userCache(UserCacheProperties properties) {
+        return new UserCache(properties);
+    }
+}
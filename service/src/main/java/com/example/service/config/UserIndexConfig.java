@@ -0,0 +1,65 @@
+package com.example.service.config;
+
+import com.example.service.index.UserAutocompleteIndex;
+import com.example.service.index.UserExistenceIndex;
+import com.example.service.index.UserIndex;
+import com.example.service.index.UserIndexMaintainer;
+import com.example.service.index.UserIndexProperties;
+import com.example.service.index.UserStatusIndex;
+import com.example.service.index.UserTrigramIndex;
+import com.example.service.repository.UserRepository;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * 用户内存索引配置类
+ */
+@Configuration
+@EnableConfigurationProperties(UserIndexProperties.class)
+public class UserIndexConfig {
+
+    /**
+     * 用户名/邮箱存在性索引
+     */
+    @Bean
+    public UserExistenceIndex userExistenceIndex(UserIndexProperties properties) {
+        return new UserExistenceIndex(properties.getBloom());
+    }
+
+    /**
+     * 用户名子串搜索的三元组索引
+     */
+    @Bean
+    public UserTrigramIndex userTrigramIndex() {
+        return new UserTrigramIndex();
+    }
+
+    /**
+     * 用户名/邮箱前缀自动补全索引
+     */
+    @Bean
+    public UserAutocompleteIndex userAutocompleteIndex() {
+        return new UserAutocompleteIndex();
+    }
+
+    /**
+     * 用户状态位图索引
+     */
+    @Bean
+    public UserStatusIndex userStatusIndex() {
+        return new UserStatusIndex();
+    }
+
+    /**
+     * 索引维护器
+     */
+    @Bean
+    public UserIndexMaintainer userIndexMaintainer(UserRepository userRepository,
+                                                   List<UserIndex> indexes,
+                                                   UserIndexProperties properties) {
+        return new UserIndexMaintainer(userRepository, indexes, properties.isEnabled());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.service.config;
+
+import com.example.api.vo.UserVO;
+import com.example.service.datasource.ReadWriteContext;
+import com.example.service.entity.User;
+import com.example.service.loader.BatchLoader;
+import com.example.service.loader.BatchLoaderProperties;
+import com.example.service.loader.SingleFlight;
+import com.example.service.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 用户批量加载配置类
+ */
+@Configuration
+@EnableConfigurationProperties(BatchLoaderProperties.class)
+public class UserLoaderConfig {
+
+    /**
+     * 按ID合并查询用户；加载结果会进入缓存，固定从主库读取
+     */
+    @Bean
+    public BatchLoader<Long, User> userBatchLoader(BatchLoaderProperties properties, UserRepository userRepository,
+                                                   @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return new BatchLoader<>("users", properties, ids -> ReadWriteContext.onPrimary(() -> userRepository.selectBatchIds(ids)).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity())), virtualThreads);
+    }
+
+    /**
+     * 按用户名查询的进行中请求去重
+     */
+    @Bean
+    public SingleFlight<String, UserVO> usernameSingleFlight() {
+        return new SingleFlight<>("users.username");
+    }
+}
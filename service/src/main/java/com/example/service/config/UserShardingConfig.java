@@ -0,0 +1,90 @@
+package com.example.service.config;
+
+import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.example.service.concurrent.VirtualThreads;
+import com.example.service.sharding.ShardedUserRepository;
+import com.example.service.sharding.ShardingProperties;
+import com.example.service.sharding.UserShard;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 用户表分片配置类
+ * <p>
+ * 启用后以 {@link ShardedUserRepository} 作为首选的 UserRepository，用户数据只读写各分片；
+ * spring.datasource 仍是默认数据源，承载事务管理器与变更发件箱。
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "user.sharding", name = "enabled", havingValue = "true")
+public class UserShardingConfig {
+
+    /**
+     * 分片用户数据访问层，每个分片独立的连接池与SqlSessionFactory
+     */
+    @Bean(destroyMethod = "close")
+    @Primary
+    public ShardedUserRepository shardedUserRepository(ShardingProperties properties,
+                                                       MetaObjectHandler metaObjectHandler,
+                                                       MybatisPlusInterceptor mybatisPlusInterceptor,
+                                                       IdentifierGenerator identifierGenerator,
+                                                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                                       @Value("${user.datasource.routing.enabled:false}") boolean readWriteRouting)
+            throws Exception {
+        if (readWriteRouting) {
+            throw new IllegalStateException("user.sharding 与 user.datasource.routing 不能同时启用");
+        }
+        List<ShardingProperties.Shard> configured = properties.getShards();
+        if (configured.isEmpty()) {
+            throw new IllegalStateException("启用分片时 user.sharding.shards 不能为空");
+        }
+        List<UserShard> shards = new ArrayList<>(configured.size());
+        for (int i = 0; i < configured.size(); i++) {
+            ShardingProperties.Shard shard = configured.get(i);
+            String name = StringUtils.hasText(shard.getName()) ? shard.getName() : "shard-" + i;
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .driverClassName(shard.getDriverClassName())
+                    .build();
+            dataSource.setPoolName(name);
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            shards.add(UserShard.create(i, name, dataSource, metaObjectHandler, mybatisPlusInterceptor));
+        }
+        return new ShardedUserRepository(shards, identifierGenerator,
+                scatterExecutor(properties.getScatterThreads(), virtualThreads),
+                properties.getScatterTimeout());
+    }
+
+    private static ExecutorService scatterExecutor(int threads, boolean virtualThreads) {
+        if (virtualThreads) {
+            return VirtualThreads.newExecutor("users-shard-scatter-");
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        return new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "users-shard-scatter-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
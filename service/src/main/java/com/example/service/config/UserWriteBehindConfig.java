@@ -0,0 +1,46 @@
+package com.example.service.config;
+
+import com.example.service.event.UserChangeDispatcher;
+import com.example.service.event.UserChangeEvent;
+import com.example.service.repository.UserRepository;
+import com.example.service.writebehind.UserProfilePatch;
+import com.example.service.writebehind.UserProfileWriteBehind;
+import com.example.service.writebehind.UserWriteBehindProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 用户资料写回缓冲配置类
+ */
+@Configuration
+@EnableConfigurationProperties(UserWriteBehindProperties.class)
+public class UserWriteBehindConfig {
+
+    /**
+     * 资料写回缓冲；每批变更在独立事务中写库，提交后发布变更事件使缓存与索引失效
+     */
+    @Bean
+    public UserProfileWriteBehind userProfileWriteBehind(UserWriteBehindProperties properties,
+                                                         UserRepository userRepository,
+                                                         UserChangeDispatcher changeDispatcher,
+                                                         PlatformTransactionManager transactionManager) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return new UserProfileWriteBehind(properties, patches -> transactionTemplate.executeWithoutResult(status -> {
+            userRepository.updateProfiles(patches);
+            List<Long> ids = patches.stream()
+                    .map(UserProfilePatch::getId)
+                    .collect(Collectors.toList());
+            changeDispatcher.publishAll(userRepository.selectBatchIds(ids).stream()
+                    .map(UserChangeEvent::updated)
+                    .collect(Collectors.toList()));
+        }));
+    }
+}
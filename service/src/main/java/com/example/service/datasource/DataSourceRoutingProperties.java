@@ -0,0 +1,66 @@
+package com.example.service.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离数据源配置，主库沿用 spring.datasource
+ */
+@Data
+@ConfigurationProperties(prefix = "user.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    /**
+     * 是否启用读写分离
+     */
+    private boolean enabled = false;
+
+    /**
+     * 写请求之后同一会话的读取固定走主库的时长，应大于副本的复制延迟
+     */
+    private Duration stickyWindow = Duration.ofSeconds(5);
+
+    /**
+     * 副本健康检查间隔
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * 健康检查的连接校验超时
+     */
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+
+    /**
+     * 只读副本列表
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * 单个只读副本
+     */
+    @Data
+    public static class Replica {
+
+        /**
+         * 副本名称，用于日志与指标，默认 replica-序号
+         */
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private String driverClassName;
+
+        /**
+         * 连接池最大连接数
+         */
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.service.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * 读写路由的线程上下文
+ * <p>
+ * {@link #onPrimary(Supplier)} 让一段代码内的读取固定走主库，用于填充缓存、重建索引等
+ * 不能容忍副本延迟的读取。{@link #open(boolean)} 为一次请求开启作用域：请求携带粘滞标记，
+ * 或本请求内已经在主库执行过写事务时，之后的读取都走主库，保证读到自己的写入。
+ */
+public final class ReadWriteContext {
+
+    private static final ThreadLocal<int[]> PRIMARY_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    private ReadWriteContext() {
+    }
+
+    /**
+     * 在主库上执行action内的全部读取
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        int[] depth = PRIMARY_DEPTH.get();
+        depth[0]++;
+        try {
+            return action.get();
+        } finally {
+            depth[0]--;
+        }
+    }
+
+    /**
+     * 在主库上执行action内的全部读取
+     */
+    public static void onPrimary(Runnable action) {
+        onPrimary(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 开启请求作用域，sticky为true表示请求方近期写入过，读取需走主库；作用域关闭时恢复外层作用域
+     */
+    public static Scope open(boolean sticky) {
+        Scope scope = new Scope(SCOPE.get(), sticky);
+        SCOPE.set(scope);
+        return scope;
+    }
+
+    /**
+     * 当前读取是否必须走主库
+     */
+    public static boolean isPrimaryRequired() {
+        if (PRIMARY_DEPTH.get()[0] > 0) {
+            return true;
+        }
+        Scope scope = SCOPE.get();
+        return scope != null && (scope.sticky || scope.written);
+    }
+
+    /**
+     * 记录当前作用域内发生了写入；没有作用域时忽略，避免后台线程永久粘滞在主库
+     */
+    static void markWritten() {
+        Scope scope = SCOPE.get();
+        if (scope != null) {
+            scope.written = true;
+        }
+    }
+
+    /**
+     * 请求作用域
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+
+        private final boolean sticky;
+
+        private boolean written;
+
+        private Scope(Scope parent, boolean sticky) {
+            this.parent = parent;
+            this.sticky = sticky;
+        }
+
+        /**
+         * 作用域内是否在主库执行过写事务
+         */
+        public boolean hasWritten() {
+            return written;
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                SCOPE.remove();
+            } else {
+                SCOPE.set(parent);
+            }
+        }
+    }
+}
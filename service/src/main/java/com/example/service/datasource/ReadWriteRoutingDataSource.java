@@ -0,0 +1,245 @@
+package com.example.service.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 读写分离路由数据源
+ * <p>
+ * 非只读事务、{@link ReadWriteContext} 要求主库的读取走主库，其余读取在健康的副本间轮询。
+ * 获取副本连接失败时把该副本标记为不健康并改用下一个副本，全部不可用时回退到主库；
+ * 定时健康检查校验副本连接，恢复后重新参与路由。
+ * 路由依赖事务的只读标记，需要包装在 {@code LazyConnectionDataSourceProxy} 中使用，
+ * 使连接在事务属性设置之后、第一条语句执行时才获取。
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder, AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final Map<Object, Replica> replicasByName = new HashMap<>();
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final ScheduledThreadPoolExecutor healthChecker;
+
+    private final int healthCheckTimeoutSeconds;
+
+    private final AtomicLong primaryRoutes = new AtomicLong();
+
+    private final AtomicLong replicaRoutes = new AtomicLong();
+
+    private final AtomicLong failovers = new AtomicLong();
+
+    /**
+     * @param primary             主库
+     * @param replicas            副本名称到数据源，按配置顺序
+     * @param healthCheckInterval 健康检查间隔，为null时不启动定时检查
+     * @param healthCheckTimeout  健康检查的连接校验超时
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                      Duration healthCheckInterval, Duration healthCheckTimeout) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas.size());
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            replicasByName.put(name, replica);
+            targets.put(name, dataSource);
+        });
+        this.healthCheckTimeoutSeconds = (int) Math.max(1, healthCheckTimeout.toSeconds());
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+        if (healthCheckInterval != null && !this.replicas.isEmpty()) {
+            this.healthChecker = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "datasource-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = healthCheckInterval.toMillis();
+            healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.healthChecker = null;
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            ReadWriteContext.markWritten();
+            return PRIMARY;
+        }
+        if (ReadWriteContext.isPrimaryRequired()) {
+            return PRIMARY;
+        }
+        return chooseReplica();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(username, password);
+    }
+
+    /**
+     * 校验每个副本的连接，更新健康状态
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(healthCheckTimeoutSeconds);
+            } catch (SQLException | RuntimeException e) {
+                healthy = false;
+            }
+            if (healthy && !replica.healthy) {
+                log.info("只读副本{}恢复，重新参与路由", replica.name);
+            } else if (!healthy && replica.healthy) {
+                log.warn("只读副本{}健康检查失败，暂停路由", replica.name);
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    /**
+     * 健康的副本数
+     */
+    public int healthyReplicas() {
+        int count = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 停止健康检查并关闭可关闭的目标数据源
+     */
+    @Override
+    public void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        closeQuietly(primary);
+        replicas.forEach(replica -> closeQuietly(replica.dataSource));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("datasource.routing.routes", primaryRoutes, AtomicLong::get)
+                .tag("target", PRIMARY)
+                .description("路由到主库的连接数")
+                .register(registry);
+        FunctionCounter.builder("datasource.routing.routes", replicaRoutes, AtomicLong::get)
+                .tag("target", "replica")
+                .description("路由到只读副本的连接数")
+                .register(registry);
+        FunctionCounter.builder("datasource.routing.failovers", failovers, AtomicLong::get)
+                .description("获取副本连接失败后改用其他数据源的次数")
+                .register(registry);
+        Gauge.builder("datasource.routing.replicas.healthy", this, ReadWriteRoutingDataSource::healthyReplicas)
+                .description("健康的只读副本数")
+                .register(registry);
+    }
+
+    private Connection connect(String username, String password) throws SQLException {
+        Object key = determineCurrentLookupKey();
+        while (!PRIMARY.equals(key)) {
+            Replica replica = replicasByName.get(key);
+            try {
+                Connection connection = open(replica.dataSource, username, password);
+                replicaRoutes.incrementAndGet();
+                return connection;
+            } catch (SQLException e) {
+                replica.healthy = false;
+                failovers.incrementAndGet();
+                log.warn("获取只读副本{}的连接失败，暂停路由直到健康检查恢复", replica.name, e);
+                key = chooseReplica();
+            }
+        }
+        primaryRoutes.incrementAndGet();
+        return open(primary, username, password);
+    }
+
+    /**
+     * 轮询选择健康的副本，没有时返回主库
+     */
+    private Object chooseReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    private static Connection open(DataSource dataSource, String username, String password) throws SQLException {
+        return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                log.warn("关闭数据源失败", e);
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -12,7 +12,10 @@ import java.time.LocalDateTime;
 @TableName("users")
 public class User {
     
-    @TableId(type = IdType.AUTO)
+    /**
+     * 插入前由雪花ID生成器分配，按生成时间递增
+     */
+    @TableId(type = IdType.ASSIGN_ID)
     private Long id;
     
     private String username;
@@ -32,4 +35,9 @@ public class User {
     
     @TableField(fill = FieldFill.INSERT_UPDATE)
     private LocalDateTime updateTime;
+    
+    /**
+     * 乐观锁版本号，每次更新加一
+     */
+    private Integer version = 0;
 } 
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.service.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户变更事件发件箱
+ */
+@Data
+@TableName("user_change_outbox")
+public class UserChangeOutbox {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 事件JSON
+     */
+    private String payload;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+}
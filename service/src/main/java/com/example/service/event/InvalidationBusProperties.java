@@ -0,0 +1,53 @@
+package com.example.service.event;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.UUID;
+
+/**
+ * 缓存失效总线配置
+ */
+@Data
+@ConfigurationProperties(prefix = "user.cache.bus")
+public class InvalidationBusProperties {
+
+    /**
+     * 总线类型：loopback（进程内）或 redis
+     */
+    private String type = "loopback";
+
+    /**
+     * Redis频道名称
+     */
+    private String channel = "user:changes";
+
+    /**
+     * 当前节点ID，用于忽略自己发布的事件；未配置时每次启动随机生成
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    private Outbox outbox = new Outbox();
+
+    /**
+     * 事务发件箱配置
+     */
+    @Data
+    public static class Outbox {
+
+        /**
+         * 是否启用发件箱；启用后事件随业务事务写入发件箱表，由中继异步广播
+         */
+        private boolean enabled = false;
+
+        /**
+         * 轮询间隔（毫秒）
+         */
+        private long pollIntervalMs = 200;
+
+        /**
+         * 每次轮询最多中继的事件数
+         */
+        private int batchSize = 500;
+    }
+}
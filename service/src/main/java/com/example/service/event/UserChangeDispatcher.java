@@ -0,0 +1,162 @@
+package com.example.service.event;
+
+import com.example.service.entity.UserChangeOutbox;
+import com.example.service.event.bus.InvalidationBus;
+import com.example.service.repository.UserChangeOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 用户变更分发器
+ * <p>
+ * 事务提交后先通知本节点的监听器，再经失效总线广播给其他节点；启用发件箱时事件在事务内写入发件箱表，
+ * 由 {@link UserChangeOutboxRelay} 负责广播。收到的事件若来自本节点则忽略。
+ */
+@Slf4j
+public class UserChangeDispatcher {
+
+    /**
+     * 发件箱多行INSERT每条语句的行数
+     */
+    private static final int OUTBOX_INSERT_CHUNK = 500;
+
+    private final String nodeId;
+
+    private final List<UserChangeListener> listeners;
+
+    private final InvalidationBus bus;
+
+    private final UserChangeOutboxRepository outboxRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public UserChangeDispatcher(String nodeId, List<UserChangeListener> listeners, InvalidationBus bus) {
+        this(nodeId, listeners, bus, null, null);
+    }
+
+    public UserChangeDispatcher(String nodeId, List<UserChangeListener> listeners, InvalidationBus bus,
+                                UserChangeOutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.nodeId = nodeId;
+        this.listeners = new ArrayList<>(listeners);
+        AnnotationAwareOrderComparator.sort(this.listeners);
+        this.bus = bus;
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        bus.subscribe(this::onRemoteEvent);
+    }
+
+    /**
+     * 发布变更：在事务内调用时于提交后生效，回滚则丢弃；无事务时立即生效
+     */
+    public void publish(UserChangeEvent event) {
+        event.setOrigin(nodeId);
+        event.setTimestamp(System.currentTimeMillis());
+        if (outboxRepository != null) {
+            outboxRepository.insert(toOutbox(event));
+        }
+        afterCommit(() -> {
+            applyLocally(event);
+            if (outboxRepository == null) {
+                broadcast(event);
+            }
+        });
+    }
+
+    /**
+     * 批量发布变更，只注册一次提交回调，发件箱以多行INSERT写入
+     */
+    public void publishAll(List<UserChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (UserChangeEvent event : events) {
+            event.setOrigin(nodeId);
+            event.setTimestamp(now);
+        }
+        if (outboxRepository != null) {
+            List<UserChangeOutbox> rows = events.stream()
+                    .map(this::toOutbox)
+                    .collect(Collectors.toList());
+            for (int from = 0; from < rows.size(); from += OUTBOX_INSERT_CHUNK) {
+                outboxRepository.insertAll(rows.subList(from, Math.min(from + OUTBOX_INSERT_CHUNK, rows.size())));
+            }
+        }
+        afterCommit(() -> {
+            for (UserChangeEvent event : events) {
+                applyLocally(event);
+                if (outboxRepository == null) {
+                    broadcast(event);
+                }
+            }
+        });
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private void onRemoteEvent(UserChangeEvent event) {
+        if (nodeId.equals(event.getOrigin())) {
+            return;
+        }
+        applyLocally(event);
+    }
+
+    private void applyLocally(UserChangeEvent event) {
+        for (UserChangeListener listener : listeners) {
+            try {
+                listener.onUserChange(event);
+            } catch (RuntimeException e) {
+                log.warn("用户变更监听器处理失败: {}", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private void broadcast(UserChangeEvent event) {
+        try {
+            bus.publish(event);
+        } catch (RuntimeException e) {
+            // 广播失败只影响其他节点的缓存新鲜度，不影响已提交的业务
+            log.warn("用户变更事件广播失败: id={}", event.getId(), e);
+        }
+    }
+
+    private UserChangeOutbox toOutbox(UserChangeEvent event) {
+        try {
+            UserChangeOutbox outbox = new UserChangeOutbox();
+            outbox.setPayload(objectMapper.writeValueAsString(event));
+            outbox.setCreateTime(LocalDateTime.now());
+            return outbox;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("用户变更事件序列化失败", e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.service.event;
+
+/**
+ * 用户变更监听器
+ * <p>
+ * 本节点事务提交后以及收到其他节点的事件时都会回调，实现需保证幂等且不抛出异常。
+ * 监听器按 {@link org.springframework.core.annotation.Order} 依次回调，数值小的先执行：
+ * 由其他数据派生的缓存（如接口响应缓存）应排在它所依赖的缓存和索引之后，
+ * 否则先失效的派生缓存可能被并发请求用尚未失效的旧数据重新填充。
+ */
+public interface UserChangeListener {
+
+    /**
+     * 处理用户变更
+     */
+    void onUserChange(UserChangeEvent event);
+}
@@ -0,0 +1,53 @@
+package com.example.service.event;
+
+import com.example.service.entity.UserChangeOutbox;
+import com.example.service.event.bus.InvalidationBus;
+import com.example.service.repository.UserChangeOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 发件箱中继
+ * <p>
+ * 定时锁定发件箱中的事件、广播到失效总线后删除。广播失败时事务回滚，事件留待下次重试，
+ * 因此同一事件可能被投递多次，监听器需保证幂等。
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class UserChangeOutboxRelay {
+
+    private final UserChangeOutboxRepository outboxRepository;
+
+    private final InvalidationBus bus;
+
+    private final ObjectMapper objectMapper;
+
+    private final int batchSize;
+
+    @Scheduled(fixedDelayString = "${user.cache.bus.outbox.poll-interval-ms:200}")
+    @Transactional
+    public int relay() {
+        List<UserChangeOutbox> batch = outboxRepository.lockBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        for (UserChangeOutbox outbox : batch) {
+            try {
+                bus.publish(objectMapper.readValue(outbox.getPayload(), UserChangeEvent.class));
+            } catch (JsonProcessingException e) {
+                log.warn("丢弃无法解析的发件箱事件: id={}", outbox.getId(), e);
+            }
+        }
+        outboxRepository.deleteBatchIds(batch.stream()
+                .map(UserChangeOutbox::getId)
+                .collect(Collectors.toList()));
+        return batch.size();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.service.event.bus;
+
+import com.example.service.event.UserChangeEvent;
+
+import java.util.function.Consumer;
+
+/**
+ * 跨节点缓存失效总线
+ */
+public interface InvalidationBus {
+
+    /**
+     * 向所有节点广播事件
+     */
+    void publish(UserChangeEvent event);
+
+    /**
+     * 订阅总线上的事件，包括本节点自己发布的事件
+     */
+    void subscribe(Consumer<UserChangeEvent> subscriber);
+}
@@ -0,0 +1,29 @@
+package com.example.service.event.bus;
+
+import com.example.service.event.UserChangeEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 进程内失效总线
+ * <p>
+ * 同步投递给所有订阅者，用于单节点部署和测试；多个分发器共享同一实例即可模拟多节点。
+ */
+public class LoopbackInvalidationBus implements InvalidationBus {
+
+    private final List<Consumer<UserChangeEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(UserChangeEvent event) {
+        for (Consumer<UserChangeEvent> subscriber : subscribers) {
+            subscriber.accept(event);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<UserChangeEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
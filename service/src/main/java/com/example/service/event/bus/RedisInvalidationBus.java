@@ -0,0 +1,61 @@
+package com.example.service.event.bus;
+
+import com.example.service.event.UserChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * 基于Redis发布订阅的失效总线
+ * <p>
+ * Redis Pub/Sub不保证送达，需要可靠投递时配合事务发件箱使用。
+ */
+@Slf4j
+public class RedisInvalidationBus implements InvalidationBus {
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final ObjectMapper objectMapper;
+
+    private final ChannelTopic topic;
+
+    public RedisInvalidationBus(StringRedisTemplate redisTemplate,
+                                RedisMessageListenerContainer listenerContainer,
+                                ObjectMapper objectMapper,
+                                String channel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.topic = new ChannelTopic(channel);
+    }
+
+    @Override
+    public void publish(UserChangeEvent event) {
+        try {
+            redisTemplate.convertAndSend(topic.getTopic(), objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("用户变更事件序列化失败", e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<UserChangeEvent> subscriber) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                String body = new String(message.getBody(), StandardCharsets.UTF_8);
+                subscriber.accept(objectMapper.readValue(body, UserChangeEvent.class));
+            } catch (IOException e) {
+                log.warn("忽略无法解析的用户变更事件", e);
+            }
+        }, topic);
+    }
+}
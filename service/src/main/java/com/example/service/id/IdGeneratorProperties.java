@@ -0,0 +1,31 @@
+package com.example.service.id;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 用户ID生成配置
+ */
+@Data
+@ConfigurationProperties(prefix = "user.id")
+public class IdGeneratorProperties {
+
+    /**
+     * 工作节点ID，0到1023；同一集群内每个实例必须不同，通常由部署时的环境变量 {@code USER_ID_WORKER_ID} 注入。
+     * 没有默认值，未配置时应用启动失败，避免多个实例都使用同一个工作节点ID生成重复ID
+     */
+    private Long workerId;
+
+    /**
+     * 时间戳的起点；上线后修改会导致ID重复或乱序
+     */
+    private Instant epoch = Instant.parse("2024-01-01T00:00:00Z");
+
+    /**
+     * 可容忍的时钟回拨幅度，范围内沿用上次的时间戳，超过时拒绝生成ID
+     */
+    private Duration maxClockBackward = Duration.ofSeconds(1);
+}
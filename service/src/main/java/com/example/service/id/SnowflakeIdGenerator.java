@@ -0,0 +1,45 @@
+package com.example.service.id;
+
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
+import com.example.common.id.Snowflake;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+/**
+ * 雪花算法ID生成器
+ * <p>
+ * 算法见 {@link Snowflake}；作为MyBatis-Plus的 {@link IdentifierGenerator} 为 {@code IdType.ASSIGN_ID} 的实体分配ID，
+ * 并导出时钟回拨计数指标。
+ */
+public class SnowflakeIdGenerator extends Snowflake implements IdentifierGenerator, MeterBinder {
+
+    /**
+     * @param workerId         工作节点ID，0到 {@link #MAX_WORKER_ID}，同一集群内每个实例必须不同
+     * @param epoch            时间戳的起点，上线后不能修改
+     * @param maxClockBackward 可容忍的时钟回拨幅度
+     */
+    public SnowflakeIdGenerator(long workerId, Instant epoch, Duration maxClockBackward) {
+        super(workerId, epoch, maxClockBackward);
+    }
+
+    SnowflakeIdGenerator(long workerId, Instant epoch, Duration maxClockBackward, LongSupplier clock) {
+        super(workerId, epoch, maxClockBackward, clock);
+    }
+
+    @Override
+    public Long nextId(Object entity) {
+        return nextId();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("user.id.clock.backward", this, Snowflake::backwardIdCount)
+                .description("时钟回拨期间沿用上次时间戳生成的ID数")
+                .register(registry);
+    }
+}
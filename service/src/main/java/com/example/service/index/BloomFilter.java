@@ -0,0 +1,130 @@
+package com.example.service.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 线程安全的布隆过滤器
+ * <p>
+ * 位数组使用 {@link AtomicLongArray}，写入通过CAS完成，读写均无锁。
+ * 采用双重哈希（h1 + i * h2）派生k个位置。
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+
+    private final long numBits;
+
+    private final int numHashes;
+
+    private final AtomicLong bitCount = new AtomicLong();
+
+    private final AtomicLong insertions = new AtomicLong();
+
+    private BloomFilter(long numBits, int numHashes) {
+        int numWords = (int) Math.min(Integer.MAX_VALUE - 8, (numBits + 63) >>> 6);
+        this.words = new AtomicLongArray(numWords);
+        this.numBits = (long) numWords << 6;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * 按预期元素数与目标误判率创建
+     */
+    public static BloomFilter create(long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("fpp must be in (0, 1)");
+        }
+        long numBits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        return new BloomFilter(Math.max(64, numBits), numHashes);
+    }
+
+    /**
+     * 写入元素
+     */
+    public void put(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < numHashes; i++) {
+            setBit(index(hash1 + i * hash2));
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * 判断元素是否可能存在；返回false时一定不存在
+     */
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = index(hash1 + i * hash2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按当前置位比例估算的误判率
+     */
+    public double expectedFpp() {
+        return Math.pow((double) bitCount.get() / numBits, numHashes);
+    }
+
+    /**
+     * 写入次数（含重复元素）
+     */
+    public long insertions() {
+        return insertions.get();
+    }
+
+    public long bitSize() {
+        return numBits;
+    }
+
+    public int hashFunctions() {
+        return numHashes;
+    }
+
+    private long index(long combinedHash) {
+        return (combinedHash & Long.MAX_VALUE) % numBits;
+    }
+
+    private void setBit(long bit) {
+        int wordIndex = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long word;
+        do {
+            word = words.get(wordIndex);
+            if ((word & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(wordIndex, word, word | mask));
+        bitCount.incrementAndGet();
+    }
+
+    /**
+     * FNV-1a 64位哈希，再经过混合函数打散
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
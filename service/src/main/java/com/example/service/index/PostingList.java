@@ -0,0 +1,146 @@
+package com.example.service.index;
+
+import java.util.Arrays;
+
+/**
+ * 压缩的有序ID倒排列表
+ * <p>
+ * 主体是升序ID的差值按变长整数（varint）编码后的字节数组。雪花ID的低22位是节点号和序列号，
+ * 同一毫秒同一节点内的差值只占1字节，跨节点或相隔几毫秒的差值通常占3-4字节，
+ * 相隔更久的稀疏列表每个ID可达5-7字节，仍小于未压缩的8字节。
+ * 比末尾ID更小的乱序写入先进入一个小的未压缩缓冲区，攒满后与主体合并重新编码。
+ * 只支持添加，删除和改名留下的过期ID由调用方校验后忽略，定期重建时清除。
+ */
+public class PostingList {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private static final int PENDING_CAPACITY = 16;
+
+    private byte[] data = EMPTY;
+
+    /**
+     * data中已用字节数
+     */
+    private int length;
+
+    /**
+     * data中的ID个数
+     */
+    private int size;
+
+    /**
+     * data中的最大ID
+     */
+    private long last = Long.MIN_VALUE;
+
+    private long[] pending;
+
+    private int pendingSize;
+
+    /**
+     * 添加ID
+     */
+    public synchronized void add(long id) {
+        if (size == 0 || id > last) {
+            append(id);
+            return;
+        }
+        if (id == last) {
+            return;
+        }
+        if (pending == null) {
+            pending = new long[PENDING_CAPACITY];
+        }
+        pending[pendingSize++] = id;
+        if (pendingSize == pending.length) {
+            rewrite(toArray());
+        }
+    }
+
+    /**
+     * 解码为去重的升序ID数组
+     */
+    public synchronized long[] toArray() {
+        long[] ids = new long[size + pendingSize];
+        long previous = 0;
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous = i == 0 ? delta : previous + delta;
+            ids[i] = previous;
+        }
+        if (pendingSize == 0) {
+            return ids;
+        }
+        System.arraycopy(pending, 0, ids, size, pendingSize);
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (distinct == 0 || ids[i] != ids[distinct - 1]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return distinct == ids.length ? ids : Arrays.copyOf(ids, distinct);
+    }
+
+    /**
+     * 合并缓冲区并收缩字节数组到实际大小
+     */
+    public synchronized void compact() {
+        if (pendingSize > 0) {
+            rewrite(toArray());
+        }
+        if (data.length != length) {
+            data = Arrays.copyOf(data, length);
+        }
+    }
+
+    /**
+     * ID个数（不含缓冲区中可能重复的ID）
+     */
+    public synchronized int size() {
+        return size + pendingSize;
+    }
+
+    /**
+     * 占用的字节数
+     */
+    public synchronized long sizeInBytes() {
+        return data.length + (pending == null ? 0 : (long) pending.length * Long.BYTES);
+    }
+
+    private void rewrite(long[] ids) {
+        data = EMPTY;
+        length = 0;
+        size = 0;
+        last = Long.MIN_VALUE;
+        pendingSize = 0;
+        pending = null;
+        for (long id : ids) {
+            append(id);
+        }
+    }
+
+    private void append(long id) {
+        // 首个ID写原值，之后写与前一个ID的差值
+        long value = size == 0 ? id : id - last;
+        if (length + 10 > data.length) {
+            data = Arrays.copyOf(data, Math.max(length + 10, data.length * 2));
+        }
+        while ((value & ~0x7FL) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+        last = id;
+        size++;
+    }
+}
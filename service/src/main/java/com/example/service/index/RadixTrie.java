@@ -0,0 +1,225 @@
+package com.example.service.index;
+
+import java.util.Arrays;
+
+/**
+ * 字符串到ID集合的基数树（压缩前缀树）
+ * <p>
+ * 只有一个子节点的链被合并为一条带多字符标签的边，子节点按首字符有序存放在数组中，
+ * 按前缀查询时按键的字典序深度优先收集ID，收集满即停止。
+ * 删除只清除终止节点上的ID，不合并节点，空出的结构在重建时消除。非线程安全。
+ */
+public class RadixTrie {
+
+    private final Node root = new Node("");
+
+    private int size;
+
+    private int nodes = 1;
+
+    /**
+     * 插入键与ID；键已包含该ID时忽略
+     */
+    public void insert(String key, long id) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            int index = node.find(key.charAt(position));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(position));
+                node.insertChild(-index - 1, leaf);
+                nodes++;
+                node = leaf;
+                position = key.length();
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, position);
+            if (common < child.label.length()) {
+                // 在公共前缀处分裂边
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.keys = new char[]{child.label.charAt(0)};
+                middle.children = new Node[]{child};
+                node.children[index] = middle;
+                nodes++;
+                child = middle;
+            }
+            node = child;
+            position += common;
+        }
+        if (node.addId(id)) {
+            size++;
+        }
+    }
+
+    /**
+     * 删除键上的ID
+     */
+    public void remove(String key, long id) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            int index = node.find(key.charAt(position));
+            if (index < 0) {
+                return;
+            }
+            Node child = node.children[index];
+            if (!key.startsWith(child.label, position)) {
+                return;
+            }
+            node = child;
+            position += child.label.length();
+        }
+        if (node.removeId(id)) {
+            size--;
+        }
+    }
+
+    /**
+     * 按键的字典序收集以prefix开头的ID，最多limit个
+     */
+    public long[] collect(String prefix, int limit) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            int index = node.find(prefix.charAt(position));
+            if (index < 0) {
+                return new long[0];
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, prefix, position);
+            if (position + common < prefix.length() && common < child.label.length()) {
+                return new long[0];
+            }
+            node = child;
+            position += common;
+        }
+        long[] ids = new long[Math.max(0, Math.min(limit, size))];
+        int collected = collect(node, ids, 0);
+        return collected == ids.length ? ids : Arrays.copyOf(ids, collected);
+    }
+
+    /**
+     * 键-ID对的个数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 节点数
+     */
+    public int nodeCount() {
+        return nodes;
+    }
+
+    private static int collect(Node node, long[] ids, int count) {
+        if (node.ids != null) {
+            for (long id : node.ids) {
+                if (count == ids.length) {
+                    return count;
+                }
+                ids[count++] = id;
+            }
+        }
+        if (node.children != null) {
+            for (Node child : node.children) {
+                if (count == ids.length) {
+                    return count;
+                }
+                count = collect(child, ids, count);
+            }
+        }
+        return count;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+
+        private String label;
+
+        /**
+         * 子节点首字符，升序
+         */
+        private char[] keys;
+
+        private Node[] children;
+
+        /**
+         * 终止于本节点的ID，升序；非终止节点为null
+         */
+        private long[] ids;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        int find(char c) {
+            return keys == null ? -1 : Arrays.binarySearch(keys, c);
+        }
+
+        void insertChild(int index, Node child) {
+            if (keys == null) {
+                keys = new char[]{child.label.charAt(0)};
+                children = new Node[]{child};
+                return;
+            }
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = child.label.charAt(0);
+            newChildren[index] = child;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        boolean addId(long id) {
+            if (ids == null) {
+                ids = new long[]{id};
+                return true;
+            }
+            int index = Arrays.binarySearch(ids, id);
+            if (index >= 0) {
+                return false;
+            }
+            int insertion = -index - 1;
+            long[] newIds = new long[ids.length + 1];
+            System.arraycopy(ids, 0, newIds, 0, insertion);
+            newIds[insertion] = id;
+            System.arraycopy(ids, insertion, newIds, insertion + 1, ids.length - insertion);
+            ids = newIds;
+            return true;
+        }
+
+        boolean removeId(long id) {
+            if (ids == null) {
+                return false;
+            }
+            int index = Arrays.binarySearch(ids, id);
+            if (index < 0) {
+                return false;
+            }
+            if (ids.length == 1) {
+                ids = null;
+                return true;
+            }
+            long[] newIds = new long[ids.length - 1];
+            System.arraycopy(ids, 0, newIds, 0, index);
+            System.arraycopy(ids, index + 1, newIds, index, ids.length - index - 1);
+            ids = newIds;
+            return true;
+        }
+    }
+}
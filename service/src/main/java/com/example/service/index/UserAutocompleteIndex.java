@@ -0,0 +1,210 @@
+package com.example.service.index;
+
+import com.example.service.entity.User;
+import com.example.service.event.UserChangeEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * 用户名/邮箱前缀自动补全索引
+ * <p>
+ * 每个字段一棵 {@link RadixTrie}，键为归一化后的字段值，按字典序返回匹配的用户。
+ * 创建、改名、删除增量维护；删除留下的空节点在定期重建时消除。
+ * 索引未就绪时返回null，调用方应回退到数据库查询。
+ */
+public class UserAutocompleteIndex implements UserIndex, MeterBinder {
+
+    /**
+     * 可补全的字段
+     */
+    public enum Field {
+        USERNAME(User::getUsername),
+        EMAIL(User::getEmail);
+
+        private final Function<User, String> getter;
+
+        Field(Function<User, String> getter) {
+            this.getter = getter;
+        }
+    }
+
+    /**
+     * 补全结果
+     */
+    public record Suggestion(long id, String value) {
+    }
+
+    private volatile State current;
+
+    /**
+     * 重建中的索引，重建期间的变更同时写入
+     */
+    private volatile State building;
+
+    /**
+     * 按前缀补全，结果按归一化值的字典序排列；索引未就绪时返回null
+     */
+    public List<Suggestion> suggest(Field field, String prefix, int limit) {
+        State state = current;
+        if (state == null || prefix == null) {
+            return null;
+        }
+        return state.tries.get(field).suggest(UserExistenceIndex.normalize(prefix), limit);
+    }
+
+    @Override
+    public void rebuild(UserScanner scanner) {
+        State next = new State();
+        next.touched = ConcurrentHashMap.newKeySet();
+        building = next;
+        try {
+            scanner.scan(next::load);
+            next.touched = null;
+            current = next;
+        } finally {
+            building = null;
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return current != null;
+    }
+
+    @Override
+    public void onUserChange(UserChangeEvent event) {
+        State state = current;
+        if (state != null) {
+            state.apply(event);
+        }
+        State rebuilding = building;
+        if (rebuilding != null) {
+            rebuilding.apply(event);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Field field : Field.values()) {
+            Gauge.builder("users.autocomplete.nodes", this, index -> {
+                        State state = index.current;
+                        return state == null ? 0 : state.tries.get(field).nodeCount();
+                    })
+                    .tag("field", field.name().toLowerCase())
+                    .description("自动补全基数树节点数")
+                    .register(registry);
+        }
+    }
+
+    private static final class State {
+
+        private final Map<Field, FieldTrie> tries = new HashMap<>();
+
+        /**
+         * 重建期间被变更事件修改过的ID，扫描到的旧数据不再覆盖
+         */
+        private volatile Set<Long> touched;
+
+        State() {
+            for (Field field : Field.values()) {
+                tries.put(field, new FieldTrie());
+            }
+        }
+
+        void load(User user) {
+            Set<Long> modified = touched;
+            if (modified != null && modified.contains(user.getId())) {
+                return;
+            }
+            put(user);
+        }
+
+        void apply(UserChangeEvent event) {
+            Set<Long> modified = touched;
+            if (modified != null) {
+                modified.add(event.getId());
+            }
+            if (event.getType() == UserChangeEvent.Type.DELETED) {
+                tries.values().forEach(trie -> trie.remove(event.getId()));
+                return;
+            }
+            User user = new User();
+            user.setId(event.getId());
+            user.setUsername(event.getUsername());
+            user.setEmail(event.getEmail());
+            put(user);
+        }
+
+        private void put(User user) {
+            if (user.getId() == null) {
+                return;
+            }
+            tries.forEach((field, trie) -> trie.put(user.getId(), field.getter.apply(user)));
+        }
+    }
+
+    /**
+     * 单个字段的基数树及ID到原始值的映射，读写锁保护
+     */
+    private static final class FieldTrie {
+
+        private final RadixTrie trie = new RadixTrie();
+
+        private final Map<Long, String> values = new HashMap<>();
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        List<Suggestion> suggest(String prefix, int limit) {
+            lock.readLock().lock();
+            try {
+                long[] ids = trie.collect(prefix, limit);
+                List<Suggestion> suggestions = new ArrayList<>(ids.length);
+                for (long id : ids) {
+                    suggestions.add(new Suggestion(id, values.get(id)));
+                }
+                return suggestions;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void put(long id, String value) {
+            lock.writeLock().lock();
+            try {
+                String old = value == null ? values.remove(id) : values.put(id, value);
+                if (old != null && !old.equals(value)) {
+                    trie.remove(UserExistenceIndex.normalize(old), id);
+                }
+                if (value != null && !value.equals(old)) {
+                    trie.insert(UserExistenceIndex.normalize(value), id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            put(id, null);
+        }
+
+        int nodeCount() {
+            lock.readLock().lock();
+            try {
+                return trie.nodeCount();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.service.index;
+
+import com.example.service.entity.User;
+import com.example.service.event.UserChangeEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * 用户名/邮箱存在性索引
+ * <p>
+ * 每个字段一个布隆过滤器：判定"一定不存在"时直接返回，可能存在时才回退到SQL。
+ * 布隆过滤器不支持删除，删除和改名留下的旧值只会增加误判，由定期重建清理。
+ * 写入前按数据库不区分大小写/重音的排序规则归一化，宁可多误判也不能漏判。
+ */
+public class UserExistenceIndex implements UserIndex, MeterBinder {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final UserIndexProperties.Bloom properties;
+
+    private volatile Filters current;
+
+    /**
+     * 重建中的过滤器，重建期间的变更同时写入
+     */
+    private volatile Filters building;
+
+    /**
+     * 写入变更与切换过滤器互斥，否则变更可能只写入了即将被替换的旧过滤器
+     */
+    private final ReentrantLock swapLock = new ReentrantLock();
+
+    private final LongAdder filtered = new LongAdder();
+
+    private final LongAdder falsePositives = new LongAdder();
+
+    private final LongAdder fallThroughs = new LongAdder();
+
+    public UserExistenceIndex(UserIndexProperties.Bloom properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 检查用户名是否存在：过滤器未命中时不访问数据库
+     */
+    public boolean existsByUsername(String username, BooleanSupplier database) {
+        Filters filters = current;
+        return check(filters == null ? null : filters.usernames, username, database);
+    }
+
+    /**
+     * 检查邮箱是否存在：过滤器未命中时不访问数据库
+     */
+    public boolean existsByEmail(String email, BooleanSupplier database) {
+        Filters filters = current;
+        return check(filters == null ? null : filters.emails, email, database);
+    }
+
+    /**
+     * 用户名是否可能存在；索引未就绪时返回true
+     */
+    public boolean mightContainUsername(String username) {
+        Filters filters = current;
+        return filters == null || username == null || filters.usernames.mightContain(normalize(username));
+    }
+
+    /**
+     * 邮箱是否可能存在；索引未就绪时返回true
+     */
+    public boolean mightContainEmail(String email) {
+        Filters filters = current;
+        return filters == null || email == null || filters.emails.mightContain(normalize(email));
+    }
+
+    @Override
+    public void rebuild(UserScanner scanner) {
+        Filters previous = current;
+        long expected = properties.getExpectedInsertions();
+        if (previous != null) {
+            expected = Math.max(expected, previous.usernames.insertions() * 2);
+        }
+        Filters next = new Filters(expected, properties.getFpp());
+        building = next;
+        boolean scanned = false;
+        try {
+            scanner.scan(next::add);
+            scanned = true;
+        } finally {
+            swapLock.lock();
+            try {
+                if (scanned) {
+                    current = next;
+                }
+                building = null;
+            } finally {
+                swapLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return current != null;
+    }
+
+    @Override
+    public void onUserChange(UserChangeEvent event) {
+        if (event.getType() == UserChangeEvent.Type.DELETED) {
+            return;
+        }
+        swapLock.lock();
+        try {
+            Filters filters = current;
+            if (filters != null) {
+                filters.add(event.getUsername(), event.getEmail());
+            }
+            Filters rebuilding = building;
+            if (rebuilding != null) {
+                rebuilding.add(event.getUsername(), event.getEmail());
+            }
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    /**
+     * 用户名过滤器的估算误判率
+     */
+    public double usernameFpp() {
+        Filters filters = current;
+        return filters == null ? 1.0 : filters.usernames.expectedFpp();
+    }
+
+    /**
+     * 邮箱过滤器的估算误判率
+     */
+    public double emailFpp() {
+        Filters filters = current;
+        return filters == null ? 1.0 : filters.emails.expectedFpp();
+    }
+
+    /**
+     * 实际观测到的误判率：过滤器判定可能存在但数据库不存在的比例
+     */
+    public double observedFpp() {
+        long total = fallThroughs.sum();
+        return total == 0 ? 0.0 : (double) falsePositives.sum() / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.bloom.fpp", this, UserExistenceIndex::usernameFpp)
+                .tag("field", "username")
+                .description("布隆过滤器估算误判率")
+                .register(registry);
+        Gauge.builder("users.bloom.fpp", this, UserExistenceIndex::emailFpp)
+                .tag("field", "email")
+                .description("布隆过滤器估算误判率")
+                .register(registry);
+        Gauge.builder("users.bloom.observed.fpp", this, UserExistenceIndex::observedFpp)
+                .description("布隆过滤器实际误判率")
+                .register(registry);
+        FunctionCounter.builder("users.bloom.filtered", filtered, LongAdder::sum)
+                .description("未访问数据库即判定不存在的次数")
+                .register(registry);
+    }
+
+    private boolean check(BloomFilter filter, String value, BooleanSupplier database) {
+        if (filter != null && value != null && !filter.mightContain(normalize(value))) {
+            filtered.increment();
+            return false;
+        }
+        boolean exists = database.getAsBoolean();
+        if (filter != null) {
+            fallThroughs.increment();
+            if (!exists) {
+                falsePositives.increment();
+            }
+        }
+        return exists;
+    }
+
+    /**
+     * 与MySQL默认排序规则对齐：去除尾部空格、重音符号并转小写
+     */
+    public static String normalize(String value) {
+        String stripped = value.stripTrailing();
+        String decomposed = Normalizer.normalize(stripped, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Filters {
+
+        private final BloomFilter usernames;
+
+        private final BloomFilter emails;
+
+        private Filters(long expectedInsertions, double fpp) {
+            this.usernames = BloomFilter.create(expectedInsertions, fpp);
+            this.emails = BloomFilter.create(expectedInsertions, fpp);
+        }
+
+        private void add(User user) {
+            add(user.getUsername(), user.getEmail());
+        }
+
+        private void add(String username, String email) {
+            if (username != null) {
+                usernames.put(normalize(username));
+            }
+            if (email != null) {
+                emails.put(normalize(email));
+            }
+        }
+    }
+}
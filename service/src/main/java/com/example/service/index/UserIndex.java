@@ -0,0 +1,40 @@
+package com.example.service.index;
+
+import com.example.service.entity.User;
+import com.example.service.event.UserChangeListener;
+import org.springframework.core.annotation.Order;
+
+import java.util.function.Consumer;
+
+/**
+ * 用户内存索引
+ * <p>
+ * 启动后由 {@link UserIndexMaintainer} 全量构建并定期重建，期间通过 {@link UserChangeListener} 增量维护。
+ * 全量构建完成前索引不可用，调用方应回退到数据库查询。
+ * 变更回调排在 {@code UserCache} 之后、接口响应缓存之前。
+ */
+@Order(0)
+public interface UserIndex extends UserChangeListener {
+
+    /**
+     * 以全量数据重建索引；重建期间收到的变更也需要反映到新索引中
+     */
+    void rebuild(UserScanner scanner);
+
+    /**
+     * 是否已完成首次构建
+     */
+    boolean isReady();
+
+    /**
+     * 用户表全量扫描
+     */
+    @FunctionalInterface
+    interface UserScanner {
+
+        /**
+         * 流式遍历所有用户，不在内存中物化整表
+         */
+        void scan(Consumer<User> consumer);
+    }
+}
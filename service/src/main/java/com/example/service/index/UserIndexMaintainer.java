@@ -0,0 +1,62 @@
+package com.example.service.index;
+
+import com.example.service.datasource.ReadWriteContext;
+import com.example.service.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * 用户内存索引维护器
+ * <p>
+ * 应用启动完成后流式扫描用户表构建所有索引，并按配置间隔定期重建。
+ */
+@Slf4j
+public class UserIndexMaintainer {
+
+    private final UserRepository userRepository;
+
+    private final List<UserIndex> indexes;
+
+    private final boolean enabled;
+
+    public UserIndexMaintainer(UserRepository userRepository, List<UserIndex> indexes, boolean enabled) {
+        this.userRepository = userRepository;
+        this.indexes = indexes;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuildAll();
+    }
+
+    @Scheduled(initialDelayString = "${user.index.rebuild-interval-ms:21600000}",
+            fixedDelayString = "${user.index.rebuild-interval-ms:21600000}")
+    public void rebuildAll() {
+        if (!enabled) {
+            return;
+        }
+        for (UserIndex index : indexes) {
+            rebuild(index);
+        }
+    }
+
+    /**
+     * 重建单个索引，失败时保留旧索引
+     */
+    public void rebuild(UserIndex index) {
+        long start = System.currentTimeMillis();
+        try {
+            // 索引长期驻留内存，从主库扫描以免漏掉副本尚未同步的数据
+            index.rebuild(consumer -> ReadWriteContext.onPrimary(() ->
+                    userRepository.scanIndexColumns(context -> consumer.accept(context.getResultObject()))));
+            log.info("用户索引重建完成: {}，耗时{}ms", index.getClass().getSimpleName(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("用户索引重建失败: {}", index.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.service.index;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 用户内存索引配置
+ */
+@Data
+@ConfigurationProperties(prefix = "user.index")
+public class UserIndexProperties {
+
+    /**
+     * 是否在启动后构建内存索引
+     */
+    private boolean enabled = true;
+
+    /**
+     * 定期全量重建间隔（毫秒），用于清理删除与改名留下的过期数据
+     */
+    private long rebuildIntervalMs = 6 * 60 * 60 * 1000L;
+
+    private Bloom bloom = new Bloom();
+
+    /**
+     * 用户名/邮箱布隆过滤器配置
+     */
+    @Data
+    public static class Bloom {
+
+        /**
+         * 预期元素数下限，重建时取该值与上次元素数两倍中的较大者
+         */
+        private long expectedInsertions = 1_000_000;
+
+        /**
+         * 目标误判率
+         */
+        private double fpp = 0.01;
+    }
+}
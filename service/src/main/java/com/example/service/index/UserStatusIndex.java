@@ -0,0 +1,279 @@
+package com.example.service.index;
+
+import com.example.service.entity.User;
+import com.example.service.event.UserChangeEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * 用户状态位图索引
+ * <p>
+ * 每个状态值一个 {@link Roaring64Bitmap} 存放该状态的用户ID。写入时把ID从其他状态的位图中移除，
+ * 因此不需要事件携带旧状态，各位图也互不相交：多个状态的计数是各位图基数之和，分页是各位图迭代器的多路归并，
+ * 判定逐个位图检查，查询都直接读取存储的位图，不复制并集。索引未就绪时查询方法返回null，调用方应回退到数据库查询。
+ */
+public class UserStatusIndex implements UserIndex, MeterBinder {
+
+    private volatile State current;
+
+    /**
+     * 重建中的索引，重建期间的变更同时写入
+     */
+    private volatile State building;
+
+    /**
+     * 各状态的用户数，按状态值排序；索引未就绪时返回null
+     */
+    public Map<Integer, Long> counts() {
+        State state = current;
+        return state == null ? null : state.counts();
+    }
+
+    /**
+     * 处于任一给定状态的用户数；索引未就绪时返回null
+     */
+    public Long count(Collection<Integer> statuses) {
+        State state = current;
+        if (state == null) {
+            return null;
+        }
+        state.lock.readLock().lock();
+        try {
+            long count = 0;
+            for (Roaring64Bitmap bitmap : state.select(statuses)) {
+                count += bitmap.getLongCardinality();
+            }
+            return count;
+        } finally {
+            state.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 处于任一给定状态且ID大于after的前limit个ID，升序；索引未就绪时返回null
+     */
+    public List<Long> idsAfter(Collection<Integer> statuses, Long after, int limit) {
+        State state = current;
+        if (state == null) {
+            return null;
+        }
+        state.lock.readLock().lock();
+        try {
+            List<PeekableLongIterator> iterators = new ArrayList<>();
+            for (Roaring64Bitmap bitmap : state.select(statuses)) {
+                PeekableLongIterator iterator = bitmap.getLongIterator();
+                if (after != null) {
+                    iterator.advanceIfNeeded(after + 1);
+                }
+                if (iterator.hasNext()) {
+                    iterators.add(iterator);
+                }
+            }
+            List<Long> ids = new ArrayList<>(limit);
+            while (!iterators.isEmpty() && ids.size() < limit) {
+                PeekableLongIterator smallest = iterators.get(0);
+                for (int i = 1; i < iterators.size(); i++) {
+                    if (iterators.get(i).peekNext() < smallest.peekNext()) {
+                        smallest = iterators.get(i);
+                    }
+                }
+                ids.add(smallest.next());
+                if (!smallest.hasNext()) {
+                    iterators.remove(smallest);
+                }
+            }
+            return ids;
+        } finally {
+            state.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 处于任一给定状态的ID判定，用于与其他索引的结果取交集；索引未就绪时返回null。
+     * 每次判定在读锁内检查创建时已存在的状态位图，反映之后的变更
+     */
+    public LongPredicate matcher(Collection<Integer> statuses) {
+        State state = current;
+        if (state == null) {
+            return null;
+        }
+        List<Roaring64Bitmap> selected;
+        state.lock.readLock().lock();
+        try {
+            selected = state.select(statuses);
+        } finally {
+            state.lock.readLock().unlock();
+        }
+        return id -> {
+            state.lock.readLock().lock();
+            try {
+                for (Roaring64Bitmap bitmap : selected) {
+                    if (bitmap.contains(id)) {
+                        return true;
+                    }
+                }
+                return false;
+            } finally {
+                state.lock.readLock().unlock();
+            }
+        };
+    }
+
+    @Override
+    public void rebuild(UserScanner scanner) {
+        State next = new State();
+        next.touched = ConcurrentHashMap.newKeySet();
+        building = next;
+        try {
+            scanner.scan(next::load);
+            next.optimize();
+            next.touched = null;
+            current = next;
+        } finally {
+            building = null;
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return current != null;
+    }
+
+    @Override
+    public void onUserChange(UserChangeEvent event) {
+        State state = current;
+        if (state != null) {
+            state.apply(event);
+        }
+        State rebuilding = building;
+        if (rebuilding != null) {
+            rebuilding.apply(event);
+        }
+    }
+
+    /**
+     * 位图占用的字节数
+     */
+    public long sizeInBytes() {
+        State state = current;
+        if (state == null) {
+            return 0;
+        }
+        state.lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Roaring64Bitmap bitmap : state.bitmaps.values()) {
+                bytes += bitmap.getSizeInBytes();
+            }
+            return bytes;
+        } finally {
+            state.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.status.bitmap.bytes", this, UserStatusIndex::sizeInBytes)
+                .description("状态位图占用的字节数")
+                .register(registry);
+    }
+
+    private static final class State {
+
+        private final Map<Integer, Roaring64Bitmap> bitmaps = new TreeMap<>();
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /**
+         * 重建期间被变更事件修改过的ID，扫描到的旧数据不再覆盖
+         */
+        private volatile Set<Long> touched;
+
+        void load(User user) {
+            Set<Long> modified = touched;
+            if (modified != null && modified.contains(user.getId())) {
+                return;
+            }
+            put(user.getId(), user.getStatus());
+        }
+
+        void apply(UserChangeEvent event) {
+            Set<Long> modified = touched;
+            if (modified != null) {
+                modified.add(event.getId());
+            }
+            put(event.getId(), event.getType() == UserChangeEvent.Type.DELETED ? null : event.getStatus());
+        }
+
+        /**
+         * 设置ID的状态，status为null表示删除
+         */
+        private void put(Long id, Integer status) {
+            if (id == null) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                bitmaps.forEach((value, bitmap) -> {
+                    if (!value.equals(status)) {
+                        bitmap.removeLong(id);
+                    }
+                });
+                if (status != null) {
+                    bitmaps.computeIfAbsent(status, value -> new Roaring64Bitmap()).addLong(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        Map<Integer, Long> counts() {
+            lock.readLock().lock();
+            try {
+                Map<Integer, Long> counts = new TreeMap<>();
+                bitmaps.forEach((status, bitmap) -> counts.put(status, bitmap.getLongCardinality()));
+                return counts;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * 给定状态（去重后）已存在的位图，调用方需持有读锁；返回的是存储的位图本身，只能在读锁内读取
+         */
+        List<Roaring64Bitmap> select(Collection<Integer> statuses) {
+            List<Roaring64Bitmap> selected = new ArrayList<>(statuses.size());
+            for (Integer status : new HashSet<>(statuses)) {
+                Roaring64Bitmap bitmap = bitmaps.get(status);
+                if (bitmap != null) {
+                    selected.add(bitmap);
+                }
+            }
+            return selected;
+        }
+
+        void optimize() {
+            lock.writeLock().lock();
+            try {
+                bitmaps.values().forEach(Roaring64Bitmap::runOptimize);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
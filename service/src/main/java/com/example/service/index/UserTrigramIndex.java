@@ -0,0 +1,234 @@
+package com.example.service.index;
+
+import com.example.service.entity.User;
+import com.example.service.event.UserChangeEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * 用户名三元组倒排索引
+ * <p>
+ * 用户名归一化后切分为连续三字符片段，每个片段对应一个压缩的 {@link PostingList}。
+ * 子串查询取各片段倒排列表的交集，再用ID到用户名的映射校验真实包含关系，按ID升序返回前K个。
+ * 改名和删除只更新ID映射，倒排列表中的旧ID由校验过滤，定期重建时清除。
+ * 查询不足三个字符或索引未就绪时返回null，调用方应回退到数据库查询。
+ */
+public class UserTrigramIndex implements UserIndex, MeterBinder {
+
+    private static final int GRAM = 3;
+
+    private volatile State current;
+
+    /**
+     * 重建中的索引，重建期间的变更同时写入
+     */
+    private volatile State building;
+
+    /**
+     * 查询包含子串的用户ID，按ID升序，最多limit个；无法由索引回答时返回null
+     */
+    public List<Long> search(String query, int limit) {
+        return search(query, limit, null);
+    }
+
+    /**
+     * 查询包含子串且满足filter的用户ID，按ID升序，最多limit个；无法由索引回答时返回null
+     */
+    public List<Long> search(String query, int limit, LongPredicate filter) {
+        State state = current;
+        if (state == null || query == null) {
+            return null;
+        }
+        String normalized = UserExistenceIndex.normalize(query);
+        if (normalized.length() < GRAM) {
+            return null;
+        }
+        Set<String> grams = trigrams(normalized);
+        long[][] lists = new long[grams.size()][];
+        int i = 0;
+        for (String gram : grams) {
+            PostingList postings = state.postings.get(gram);
+            if (postings == null) {
+                return List.of();
+            }
+            lists[i++] = postings.toArray();
+        }
+        // 从最短的列表开始求交集
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        long[] candidates = lists[0];
+        for (int j = 1; j < lists.length && candidates.length > 0; j++) {
+            candidates = intersect(candidates, lists[j]);
+        }
+        List<Long> ids = new ArrayList<>(Math.min(limit, candidates.length));
+        for (long id : candidates) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            if (filter != null && !filter.test(id)) {
+                continue;
+            }
+            String username = state.usernames.get(id);
+            if (username != null && username.contains(normalized)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public void rebuild(UserScanner scanner) {
+        State next = new State();
+        next.touched = ConcurrentHashMap.newKeySet();
+        building = next;
+        try {
+            scanner.scan(next::load);
+            next.postings.values().forEach(PostingList::compact);
+            next.touched = null;
+            current = next;
+        } finally {
+            building = null;
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return current != null;
+    }
+
+    @Override
+    public void onUserChange(UserChangeEvent event) {
+        State state = current;
+        if (state != null) {
+            state.apply(event);
+        }
+        State rebuilding = building;
+        if (rebuilding != null) {
+            rebuilding.apply(event);
+        }
+    }
+
+    /**
+     * 已索引的用户数
+     */
+    public int size() {
+        State state = current;
+        return state == null ? 0 : state.usernames.size();
+    }
+
+    /**
+     * 倒排列表占用的字节数
+     */
+    public long postingBytes() {
+        State state = current;
+        if (state == null) {
+            return 0;
+        }
+        long bytes = 0;
+        for (PostingList postings : state.postings.values()) {
+            bytes += postings.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.trigram.users", this, UserTrigramIndex::size)
+                .description("三元组索引中的用户数")
+                .register(registry);
+        Gauge.builder("users.trigram.grams", this, index -> {
+                    State state = index.current;
+                    return state == null ? 0 : state.postings.size();
+                })
+                .description("三元组索引中的片段数")
+                .register(registry);
+        Gauge.builder("users.trigram.bytes", this, UserTrigramIndex::postingBytes)
+                .description("三元组倒排列表占用的字节数")
+                .register(registry);
+    }
+
+    static Set<String> trigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static final class State {
+
+        private final Map<String, PostingList> postings = new ConcurrentHashMap<>();
+
+        /**
+         * ID到归一化用户名的映射，是查询结果的校验依据
+         */
+        private final Map<Long, String> usernames = new ConcurrentHashMap<>();
+
+        /**
+         * 重建期间被变更事件修改过的ID，扫描到的旧数据不再覆盖
+         */
+        private volatile Set<Long> touched;
+
+        void load(User user) {
+            Set<Long> modified = touched;
+            if (modified != null && modified.contains(user.getId())) {
+                return;
+            }
+            put(user.getId(), user.getUsername());
+        }
+
+        void apply(UserChangeEvent event) {
+            Set<Long> modified = touched;
+            if (modified != null) {
+                modified.add(event.getId());
+            }
+            if (event.getType() == UserChangeEvent.Type.DELETED) {
+                usernames.remove(event.getId());
+            } else {
+                put(event.getId(), event.getUsername());
+            }
+        }
+
+        private void put(Long id, String username) {
+            if (id == null || username == null) {
+                return;
+            }
+            String normalized = UserExistenceIndex.normalize(username);
+            if (normalized.equals(usernames.put(id, normalized))) {
+                return;
+            }
+            for (String gram : trigrams(normalized)) {
+                postings.computeIfAbsent(gram, key -> new PostingList()).add(id);
+            }
+        }
+    }
+}
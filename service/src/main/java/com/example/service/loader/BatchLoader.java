@@ -0,0 +1,229 @@
+package com.example.service.loader;
+
+import com.example.service.concurrent.VirtualThreads;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 微批量加载器
+ * <p>
+ * 在一个时间窗口内收集并发的按键查询，窗口到期或攒满 maxBatchSize 个键时合并为一次批量查询，
+ * 再把结果分发给各个等待者。同一批次内的重复键共享同一个Future；批量结果中缺失的键返回null。
+ * 未启用时退化为在调用线程中逐键查询。
+ * <p>
+ * 单线程的调度器只负责窗口计时，无论窗口到期还是攒满，批量查询都交给独立的执行器：
+ * 默认是线程数和等待队列都有上限的线程池，队列满时该批次直接失败，避免慢查询拖住计时；
+ * 启用虚拟线程时每次批量查询在新的虚拟线程中执行，
+ * 批次锁使用 {@link ReentrantLock}，避免等待锁的虚拟线程固定在载体线程上。
+ */
+public class BatchLoader<K, V> implements MeterBinder, AutoCloseable {
+
+    private final String name;
+
+    private final boolean enabled;
+
+    private final Function<List<K>, Map<K, V>> batchFunction;
+
+    private final long windowNanos;
+
+    private final int maxBatchSize;
+
+    /**
+     * 窗口计时器，只负责把到期的批次交给dispatchExecutor
+     */
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * 执行批量查询的执行器：有界线程池或虚拟线程执行器
+     */
+    private final ExecutorService dispatchExecutor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 当前正在收集的批次，由lock保护
+     */
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+    private volatile DistributionSummary batchSizes;
+
+    public BatchLoader(String name, BatchLoaderProperties properties, Function<List<K>, Map<K, V>> batchFunction) {
+        this(name, properties, batchFunction, false);
+    }
+
+    /**
+     * @param virtualThreads 是否在虚拟线程中执行批量查询，需要Java 21
+     */
+    public BatchLoader(String name, BatchLoaderProperties properties, Function<List<K>, Map<K, V>> batchFunction,
+                       boolean virtualThreads) {
+        this.name = name;
+        this.enabled = properties.isEnabled();
+        this.batchFunction = batchFunction;
+        this.windowNanos = properties.getWindow().toNanos();
+        this.maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, name + "-loader-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        if (virtualThreads) {
+            this.dispatchExecutor = VirtualThreads.newExecutor(name + "-loader-virtual-");
+        } else {
+            int threads = Math.max(1, properties.getThreads());
+            AtomicInteger threadIndex = new AtomicInteger();
+            this.dispatchExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())), runnable -> {
+                Thread thread = new Thread(runnable, name + "-loader-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * 异步加载单个键
+     */
+    public CompletableFuture<V> load(K key) {
+        CompletableFuture<V> future;
+        if (!enabled) {
+            // 未启用时在调用线程中单键查询
+            future = new CompletableFuture<>();
+            dispatch(Map.of(key, future));
+            return future;
+        }
+        Map<K, CompletableFuture<V>> full = null;
+        lock.lock();
+        try {
+            future = pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+            if (pending.size() == 1) {
+                // 批次的第一个键启动窗口计时
+                Map<K, CompletableFuture<V>> batch = pending;
+                scheduler.schedule(() -> flush(batch), windowNanos, TimeUnit.NANOSECONDS);
+            }
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new LinkedHashMap<>();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (full != null) {
+            submit(full);
+        }
+        return future;
+    }
+
+    /**
+     * 同步加载单个键，批量查询失败时抛出原始异常
+     */
+    public V get(K key) {
+        return join(load(key));
+    }
+
+    /**
+     * 同步加载多个键，结果按传入顺序排列且不含缺失的键
+     */
+    public List<V> getAll(Collection<K> keys) {
+        List<CompletableFuture<V>> futures = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            futures.add(load(key));
+        }
+        List<V> values = new ArrayList<>(futures.size());
+        for (CompletableFuture<V> future : futures) {
+            V value = join(future);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 窗口到期：批次仍在收集时取走并执行；已因攒满被取走则忽略
+     */
+    private void flush(Map<K, CompletableFuture<V>> batch) {
+        lock.lock();
+        try {
+            if (pending != batch) {
+                return;
+            }
+            pending = new LinkedHashMap<>();
+        } finally {
+            lock.unlock();
+        }
+        submit(batch);
+    }
+
+    /**
+     * 把批次交给执行器；执行器队列已满或已关闭时该批次的所有等待者立即失败
+     */
+    private void submit(Map<K, CompletableFuture<V>> batch) {
+        try {
+            dispatchExecutor.execute(() -> dispatch(batch));
+        } catch (RejectedExecutionException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        DistributionSummary summary = batchSizes;
+        if (summary != null) {
+            summary.record(batch.size());
+        }
+        try {
+            Map<K, V> values = batchFunction.apply(new ArrayList<>(batch.keySet()));
+            batch.forEach((key, future) -> future.complete(values.get(key)));
+        } catch (Throwable e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.batchSizes = DistributionSummary.builder(name + ".loader.batch.size")
+                .description("每次批量查询合并的键数")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        dispatchExecutor.shutdown();
+    }
+}
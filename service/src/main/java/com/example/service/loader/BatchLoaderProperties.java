@@ -0,0 +1,39 @@
+package com.example.service.loader;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户按ID微批量加载配置
+ */
+@Data
+@ConfigurationProperties(prefix = "user.loader")
+public class BatchLoaderProperties {
+
+    /**
+     * 是否合并并发的按ID查询
+     */
+    private boolean enabled = true;
+
+    /**
+     * 收集窗口，批次第一个键到达后开始计时
+     */
+    private Duration window = Duration.ofMillis(2);
+
+    /**
+     * 单批最大键数，攒满立即查询
+     */
+    private int maxBatchSize = 200;
+
+    /**
+     * 执行批量查询的线程数
+     */
+    private int threads = 4;
+
+    /**
+     * 等待执行的批次上限，队列满时新批次的查询直接失败
+     */
+    private int queueCapacity = 1000;
+}
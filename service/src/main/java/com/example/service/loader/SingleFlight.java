@@ -0,0 +1,84 @@
+package com.example.service.loader;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 进行中请求去重
+ * <p>
+ * 同一个键的并发调用只有第一个真正执行加载，其余调用等待并共享它的结果或异常。
+ * 加载结束即移除，不缓存结果，之后的调用会重新加载。
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+    private final String name;
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder collapsed = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 执行加载；已有相同键的加载进行中时等待其结果
+     */
+    public V execute(K key, Supplier<V> loader) {
+        calls.increment();
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            collapsed.increment();
+            return join(existing);
+        }
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 被合并（未执行加载）的调用次数
+     */
+    public long collapsedCount() {
+        return collapsed.sum();
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(name + ".singleflight.calls", calls, LongAdder::sum)
+                .description("经过去重层的调用次数")
+                .register(registry);
+        FunctionCounter.builder(name + ".singleflight.collapsed", collapsed, LongAdder::sum)
+                .description("共享进行中加载结果的调用次数")
+                .register(registry);
+    }
+}
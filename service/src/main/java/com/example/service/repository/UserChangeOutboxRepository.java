@@ -0,0 +1,33 @@
+package com.example.service.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.service.entity.UserChangeOutbox;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 用户变更发件箱数据访问层
+ */
+@Mapper
+@Repository
+public interface UserChangeOutboxRepository extends BaseMapper<UserChangeOutbox> {
+
+    /**
+     * 锁定一批待中继事件，已被其他节点锁定的行直接跳过
+     */
+    @Select("SELECT * FROM user_change_outbox ORDER BY id LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    List<UserChangeOutbox> lockBatch(@Param("limit") int limit);
+
+    /**
+     * 多行INSERT批量写入事件
+     */
+    @Insert("<script>INSERT INTO user_change_outbox (payload, create_time) VALUES " +
+            "<foreach collection='events' item='event' separator=','>(#{event.payload}, #{event.createTime})</foreach>" +
+            "</script>")
+    int insertAll(@Param("events") List<UserChangeOutbox> events);
+}
@@ -1,12 +1,23 @@
 package com.example.service.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.service.entity.StatusCount;
 import com.example.service.entity.User;
+import com.example.service.writebehind.UserProfilePatch;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -22,6 +33,12 @@ public interface UserRepository extends BaseMapper<User> {
     @Select("SELECT * FROM users WHERE username = #{username}")
     User findByUsername(@Param("username") String username);
     
+    /**
+     * 查询用户的最后更新时间，用于生成ETag
+     */
+    @Select("SELECT update_time FROM users WHERE id = #{id}")
+    LocalDateTime findUpdateTime(@Param("id") Long id);
+    
     /**
      * 根据邮箱查找用户
      */
@@ -37,8 +54,13 @@ public interface UserRepository extends BaseMapper<User> {
     /**
      * 根据用户名模糊查询
      */
-    @Select("SELECT * FROM users WHERE username LIKE CONCAT('%', #{username}, '%')")
-    List<User> findByUsernameContaining(@Param("username") String username);
+    @Select("<script>SELECT * FROM users WHERE username LIKE CONCAT('%', #{username}, '%')" +
+            "<if test='statuses != null and !statuses.isEmpty()'> AND status IN " +
+            "<foreach collection='statuses' item='status' open='(' separator=',' close=')'>#{status}</foreach></if>" +
+            " ORDER BY id LIMIT #{limit}</script>")
+    List<User> findByUsernameContaining(@Param("username") String username,
+                                        @Param("statuses") Collection<Integer> statuses,
+                                        @Param("limit") int limit);
     
     /**
      * 检查用户名是否存在
@@ -51,4 +73,103 @@ public interface UserRepository extends BaseMapper<User> {
      */
     @Select("SELECT COUNT(*) FROM users WHERE email = #{email}")
     int countByEmail(@Param("email") String email);
-} 
\ No newline at end of file
+    
+    /**
+     * 按用户名前缀查询ID与用户名，按用户名排序
+     */
+    @Select("SELECT id, username FROM users WHERE username LIKE CONCAT(#{prefix}, '%') ORDER BY username LIMIT #{limit}")
+    List<User> findUsernamesStartingWith(@Param("prefix") String prefix, @Param("limit") int limit);
+    
+    /**
+     * 按邮箱前缀查询ID与邮箱，按邮箱排序
+     */
+    @Select("SELECT id, email FROM users WHERE email LIKE CONCAT(#{prefix}, '%') ORDER BY email LIMIT #{limit}")
+    List<User> findEmailsStartingWith(@Param("prefix") String prefix, @Param("limit") int limit);
+    
+    /**
+     * 流式扫描索引所需的列，逐行回调而不在内存中物化整表
+     */
+    @Select("SELECT id, username, email, status FROM users")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    @ResultType(User.class)
+    void scanIndexColumns(ResultHandler<User> handler);
+    
+    /**
+     * 按ID游标分页查询，可选按状态过滤（多个状态取并集）；依赖主键/(status, id)索引，翻页深度不影响查询代价
+     */
+    @Select("<script>SELECT * FROM users <where>" +
+            "<if test='after != null'>id &gt; #{after}</if>" +
+            "<if test='statuses != null and !statuses.isEmpty()'> AND status IN " +
+            "<foreach collection='statuses' item='status' open='(' separator=',' close=')'>#{status}</foreach></if>" +
+            "</where> ORDER BY id LIMIT #{limit}</script>")
+    List<User> findPageAfter(@Param("after") Long after,
+                             @Param("statuses") Collection<Integer> statuses,
+                             @Param("limit") int limit);
+    
+    /**
+     * 按状态分组计数
+     */
+    @Select("SELECT status, COUNT(*) AS total FROM users GROUP BY status")
+    List<StatusCount> countGroupByStatus();
+    
+    /**
+     * 以服务端游标按ID顺序读取全部用户，调用方需在事务内遍历并关闭游标
+     */
+    @Select("SELECT * FROM users ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    Cursor<User> streamAll();
+    
+    /**
+     * 批量查询已存在的用户名
+     */
+    @Select("<script>SELECT username FROM users WHERE username IN " +
+            "<foreach collection='usernames' item='username' open='(' separator=',' close=')'>#{username}</foreach>" +
+            "</script>")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+    
+    /**
+     * 批量查询已存在的邮箱
+     */
+    @Select("<script>SELECT email FROM users WHERE email IN " +
+            "<foreach collection='emails' item='email' open='(' separator=',' close=')'>#{email}</foreach>" +
+            "</script>")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    /**
+     * 多行INSERT批量插入调用方已分配ID的用户；不经过自动填充，时间字段需由调用方设置
+     */
+    @Insert("<script>INSERT INTO users (id, username, password, email, nickname, phone, status, create_time, update_time) VALUES " +
+            "<foreach collection='users' item='user' separator=','>" +
+            "(#{user.id}, #{user.username}, #{user.password}, #{user.email}, #{user.nickname}, #{user.phone}, " +
+            "#{user.status}, #{user.createTime}, #{user.updateTime})" +
+            "</foreach></script>")
+    int insertAll(@Param("users") List<User> users);
+    
+    /**
+     * 按ID单语句更新，版本号加一；version非null时仅在版本一致时更新。
+     * 用户名和邮箱的唯一性由唯一索引保证，冲突时抛出 DuplicateKeyException；
+     * 返回0表示用户不存在或版本不一致
+     */
+    @Update("<script>UPDATE users SET username = #{user.username}, password = #{user.password}, email = #{user.email}, " +
+            "<if test='user.nickname != null'>nickname = #{user.nickname}, </if>" +
+            "<if test='user.phone != null'>phone = #{user.phone}, </if>" +
+            "<if test='user.status != null'>status = #{user.status}, </if>" +
+            "update_time = #{user.updateTime}, version = version + 1 " +
+            "WHERE id = #{user.id}<if test='version != null'> AND version = #{version}</if></script>")
+    int updateByIdAndVersion(@Param("user") User user, @Param("version") Integer version);
+    
+    /**
+     * 以一条UPDATE批量写回资料变更，变更中为null的字段保持原值。
+     * 版本号不变：写回与提交时刻无关，递增会使客户端在资料变更后读到的版本号在写回前后不一致
+     */
+    @Update("<script>UPDATE users SET " +
+            "nickname = CASE id <foreach collection='patches' item='patch'>" +
+            "WHEN #{patch.id} THEN COALESCE(#{patch.nickname,jdbcType=VARCHAR}, nickname) </foreach>END, " +
+            "phone = CASE id <foreach collection='patches' item='patch'>" +
+            "WHEN #{patch.id} THEN COALESCE(#{patch.phone,jdbcType=VARCHAR}, phone) </foreach>END, " +
+            "update_time = CASE id <foreach collection='patches' item='patch'>" +
+            "WHEN #{patch.id} THEN #{patch.updateTime} </foreach>END " +
+            "WHERE id IN <foreach collection='patches' item='patch' open='(' separator=',' close=')'>#{patch.id}</foreach>" +
+            "</script>")
+    int updateProfiles(@Param("patches") List<UserProfilePatch> patches);
+}
@@ -1,10 +1,17 @@
 package com.example.service.service;
 
 import com.example.api.dto.UserDTO;
+import com.example.api.dto.UserProfileDTO;
+import com.example.api.vo.CursorPageVO;
+import com.example.api.vo.UserBatchResultVO;
+import com.example.api.vo.UserStatsVO;
+import com.example.api.vo.UserSuggestionVO;
 import com.example.api.vo.UserVO;
 import com.example.service.entity.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 用户服务接口
@@ -16,11 +23,26 @@ public interface UserService {
      */
     UserVO createUser(UserDTO userDTO);
     
+    /**
+     * 批量创建用户，逐条返回校验与创建结果
+     */
+    UserBatchResultVO createUsers(List<UserDTO> userDTOs);
+    
     /**
      * 根据ID获取用户
      */
     UserVO getUserById(Long id);
     
+    /**
+     * 获取用户的最后更新时间，优先读取缓存，未命中时只查询该列；用户不存在时返回null
+     */
+    LocalDateTime getUserUpdateTime(Long id);
+    
+    /**
+     * 按ID批量获取用户，结果按请求顺序排列，不存在的ID被忽略
+     */
+    List<UserVO> getUsersByIds(List<Long> ids);
+    
     /**
      * 根据用户名获取用户
      */
@@ -28,23 +50,55 @@ public interface UserService {
     
     /**
      * 获取所有用户
+     *
+     * @deprecated 一次性加载整表，数据量大时会耗尽内存，请使用 {@link #listUsers(Long, int, List)}
      */
+    @Deprecated
     List<UserVO> getAllUsers();
     
+    /**
+     * 游标分页获取用户
+     *
+     * @param after    上一页最后一条记录的ID，为null时从头开始
+     * @param limit    每页条数，超出范围时截断到[1, 1000]
+     * @param statuses 用户状态过滤，多个状态取并集，为null或空时不过滤
+     */
+    CursorPageVO<UserVO> listUsers(Long after, int limit, List<Integer> statuses);
+    
+    /**
+     * 按ID顺序流式导出全部用户，逐条回调而不在内存中物化整表
+     */
+    void exportUsers(Consumer<UserVO> consumer);
+    
     /**
      * 更新用户
      */
     UserVO updateUser(Long id, UserDTO userDTO);
     
+    /**
+     * 部分更新昵称和手机号；启用写回缓冲时先合并进缓冲区，稍后批量写库
+     */
+    UserVO updateProfile(Long id, UserProfileDTO profileDTO);
+    
     /**
      * 删除用户
      */
     void deleteUser(Long id);
     
     /**
-     * 根据用户名模糊查询用户
+     * 根据用户名子串查询用户，可选按状态过滤（多个状态取并集），按ID升序最多返回limit个
+     */
+    List<UserVO> searchUsersByUsername(String username, int limit, List<Integer> statuses);
+    
+    /**
+     * 按前缀补全用户名或邮箱，field取值为username或email
+     */
+    List<UserSuggestionVO> autocomplete(String prefix, int limit, String field);
+    
+    /**
+     * 按状态统计用户数
      */
-    List<UserVO> searchUsersByUsername(String username);
+    UserStatsVO getUserStats();
     
     /**
      * 检查用户名是否存在
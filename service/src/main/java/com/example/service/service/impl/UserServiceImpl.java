@@ -1,64 +1,264 @@
 package com.example.service.service.impl;
 
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.example.api.dto.UserDTO;
+import com.example.api.dto.UserProfileDTO;
+import com.example.api.vo.CursorPageVO;
+import com.example.api.vo.UserBatchItemVO;
+import com.example.api.vo.UserBatchResultVO;
+import com.example.api.vo.UserStatsVO;
+import com.example.api.vo.UserSuggestionVO;
 import com.example.api.vo.UserVO;
 import com.example.common.exception.BusinessException;
+import com.example.service.cache.UserCache;
+import com.example.service.converter.UserConverter;
+import com.example.service.datasource.ReadWriteContext;
+import com.example.service.entity.StatusCount;
 import com.example.service.entity.User;
+import com.example.service.event.UserChangeDispatcher;
+import com.example.service.event.UserChangeEvent;
+import com.example.service.index.UserAutocompleteIndex;
+import com.example.service.index.UserExistenceIndex;
+import com.example.service.index.UserStatusIndex;
+import com.example.service.index.UserTrigramIndex;
+import com.example.service.loader.BatchLoader;
+import com.example.service.loader.SingleFlight;
 import com.example.service.repository.UserRepository;
 import com.example.service.service.UserService;
-import org.springframework.beans.BeanUtils;
+import com.example.service.writebehind.UserProfilePatch;
+import com.example.service.writebehind.UserProfileWriteBehind;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * 用户服务实现类
  */
 @Service
+@RequiredArgsConstructor
 public class UserServiceImpl extends ServiceImpl<UserRepository, User> implements UserService {
     
+    /**
+     * 游标分页每页最大条数
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
+    
+    /**
+     * 批量创建单次请求最大条数
+     */
+    private static final int MAX_BATCH_SIZE = 10_000;
+    
+    /**
+     * 批量查询IN列表与多行INSERT每条语句的行数
+     */
+    private static final int BATCH_CHUNK_SIZE = 500;
+    
+    private final UserCache userCache;
+    
+    private final UserChangeDispatcher changeDispatcher;
+    
+    private final UserExistenceIndex existenceIndex;
+    
+    private final UserTrigramIndex trigramIndex;
+    
+    private final UserAutocompleteIndex autocompleteIndex;
+    
+    private final UserStatusIndex statusIndex;
+    
+    private final Validator validator;
+    
+    private final BatchLoader<Long, User> userBatchLoader;
+    
+    private final SingleFlight<String, UserVO> usernameSingleFlight;
+    
+    private final UserProfileWriteBehind profileWriteBehind;
+    
+    private final IdentifierGenerator identifierGenerator;
+    
+    private final TransactionTemplate transactionTemplate;
+    
     @Override
     @Transactional
     public UserVO createUser(UserDTO userDTO) {
-        // 检查用户名是否已存在
-        if (this.baseMapper.countByUsername(userDTO.getUsername()) > 0) {
-            throw new BusinessException("用户名已存在");
+        // 用户名和邮箱的唯一性由唯一索引保证，单条INSERT即可，不再预先COUNT
+        User user = UserConverter.INSTANCE.toEntity(userDTO);
+        try {
+            save(user);
+        } catch (DuplicateKeyException e) {
+            throw duplicateKey(e);
         }
+        changeDispatcher.publish(UserChangeEvent.created(user));
+        return convertToVO(user);
+    }
+    
+    @Override
+    @Transactional
+    public UserBatchResultVO createUsers(List<UserDTO> userDTOs) {
+        if (userDTOs.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException(400, "单次最多创建" + MAX_BATCH_SIZE + "个用户");
+        }
+        UserBatchItemVO[] results = new UserBatchItemVO[userDTOs.size()];
         
-        // 检查邮箱是否已存在
-        if (this.baseMapper.countByEmail(userDTO.getEmail()) > 0) {
-            throw new BusinessException("邮箱已存在");
+        // 逐条校验，并剔除批次内重复的用户名和邮箱
+        List<Integer> candidates = new ArrayList<>();
+        Set<String> batchUsernames = new HashSet<>();
+        Set<String> batchEmails = new HashSet<>();
+        for (int i = 0; i < userDTOs.size(); i++) {
+            UserDTO userDTO = userDTOs.get(i);
+            String error = validate(userDTO);
+            if (error == null && batchUsernames.contains(UserExistenceIndex.normalize(userDTO.getUsername()))) {
+                error = "用户名已存在";
+            }
+            if (error == null && batchEmails.contains(UserExistenceIndex.normalize(userDTO.getEmail()))) {
+                error = "邮箱已存在";
+            }
+            if (error != null) {
+                results[i] = UserBatchItemVO.failure(i, error);
+                continue;
+            }
+            batchUsernames.add(UserExistenceIndex.normalize(userDTO.getUsername()));
+            batchEmails.add(UserExistenceIndex.normalize(userDTO.getEmail()));
+            candidates.add(i);
         }
         
-        User user = new User();
-        BeanUtils.copyProperties(userDTO, user);
+        // 集合查询已存在的用户名和邮箱，布隆过滤器判定不存在的值不进入IN列表
+        Set<String> existingUsernames = findExisting(candidates, userDTOs, UserDTO::getUsername,
+                existenceIndex::mightContainUsername, this.baseMapper::findExistingUsernames);
+        Set<String> existingEmails = findExisting(candidates, userDTOs, UserDTO::getEmail,
+                existenceIndex::mightContainEmail, this.baseMapper::findExistingEmails);
         
-        save(user);
-        return convertToVO(user);
+        List<Integer> insertIndexes = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        for (Integer i : candidates) {
+            UserDTO userDTO = userDTOs.get(i);
+            if (existingUsernames.contains(UserExistenceIndex.normalize(userDTO.getUsername()))) {
+                results[i] = UserBatchItemVO.failure(i, "用户名已存在");
+            } else if (existingEmails.contains(UserExistenceIndex.normalize(userDTO.getEmail()))) {
+                results[i] = UserBatchItemVO.failure(i, "邮箱已存在");
+            } else {
+                User user = UserConverter.INSTANCE.toNewEntity(userDTO);
+                user.setId(identifierGenerator.nextId(user).longValue());
+                if (user.getStatus() == null) {
+                    user.setStatus(1);
+                }
+                user.setCreateTime(now);
+                user.setUpdateTime(now);
+                users.add(user);
+                insertIndexes.add(i);
+            }
+        }
+        
+        // ID已在插入前分配，分块多行INSERT无需回填主键；
+        // 块内有行与并发写入冲突时整条语句回滚，改为逐行插入，只让冲突的行失败
+        List<Integer> inserted = new ArrayList<>(users.size());
+        for (int from = 0; from < users.size(); from += BATCH_CHUNK_SIZE) {
+            int to = Math.min(from + BATCH_CHUNK_SIZE, users.size());
+            try {
+                this.baseMapper.insertAll(users.subList(from, to));
+                for (int k = from; k < to; k++) {
+                    inserted.add(k);
+                }
+            } catch (DuplicateKeyException e) {
+                for (int k = from; k < to; k++) {
+                    try {
+                        this.baseMapper.insert(users.get(k));
+                        inserted.add(k);
+                    } catch (DuplicateKeyException rowConflict) {
+                        results[insertIndexes.get(k)] = UserBatchItemVO.failure(insertIndexes.get(k),
+                                duplicateKey(rowConflict).getMessage());
+                    }
+                }
+            }
+        }
+        List<UserChangeEvent> events = new ArrayList<>(inserted.size());
+        for (int k : inserted) {
+            User user = users.get(k);
+            results[insertIndexes.get(k)] = UserBatchItemVO.success(insertIndexes.get(k), convertToVO(user));
+            events.add(UserChangeEvent.created(user));
+        }
+        changeDispatcher.publishAll(events);
+        
+        return new UserBatchResultVO(results.length, inserted.size(), results.length - inserted.size(),
+                Arrays.asList(results));
     }
     
     @Override
     public UserVO getUserById(Long id) {
-        User user = getById(id);
-        if (user == null) {
+        UserVO userVO = userCache.getById(id, key -> {
+            User user = userBatchLoader.get(key);
+            return user == null ? null : convertToVO(user);
+        });
+        if (userVO == null) {
             throw new BusinessException("用户不存在");
         }
-        return convertToVO(user);
+        return profileWriteBehind.overlay(userVO);
+    }
+    
+    @Override
+    public LocalDateTime getUserUpdateTime(Long id) {
+        UserProfilePatch patch = profileWriteBehind.getPending(id);
+        if (patch != null) {
+            return patch.getUpdateTime();
+        }
+        UserVO cached = userCache.getIfPresent(id);
+        if (cached != null) {
+            return cached.getUpdateTime();
+        }
+        return ReadWriteContext.onPrimary(() -> this.baseMapper.findUpdateTime(id));
+    }
+    
+    @Override
+    public List<UserVO> getUsersByIds(List<Long> ids) {
+        if (ids.size() > MAX_PAGE_SIZE) {
+            throw new BusinessException(400, "单次最多查询" + MAX_PAGE_SIZE + "个用户");
+        }
+        return userBatchLoader.getAll(new LinkedHashSet<>(ids)).stream()
+                .map(this::convertToVO)
+                .map(profileWriteBehind::overlay)
+                .collect(Collectors.toList());
     }
     
     @Override
     public UserVO getUserByUsername(String username) {
-        User user = this.baseMapper.findByUsername(username);
-        if (user == null) {
+        // 缓存未命中时并发的同名查询只访问一次主库，避免把副本上的旧数据写入缓存
+        UserVO userVO = userCache.getByUsername(username, key -> usernameSingleFlight.execute(key, () -> {
+            User user = ReadWriteContext.onPrimary(() -> this.baseMapper.findByUsername(key));
+            return user == null ? null : convertToVO(user);
+        }));
+        if (userVO == null) {
             throw new BusinessException("用户不存在");
         }
-        return convertToVO(user);
+        return profileWriteBehind.overlay(userVO);
     }
     
     @Override
+    @Deprecated
     public List<UserVO> getAllUsers() {
         List<User> users = list();
         return users.stream()
@@ -67,28 +267,96 @@ public class UserServiceImpl extends ServiceImpl<UserRepository, User> implement
     }
     
     @Override
-    @Transactional
+    public CursorPageVO<UserVO> listUsers(Long after, int limit, List<Integer> statuses) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        if (statuses != null && !statuses.isEmpty()) {
+            // 按状态过滤时由位图索引给出ID，索引未就绪时回退到数据库
+            List<Long> ids = statusIndex.idsAfter(statuses, after, pageSize + 1);
+            if (ids != null) {
+                boolean hasMore = ids.size() > pageSize;
+                if (hasMore) {
+                    ids = ids.subList(0, pageSize);
+                }
+                List<UserVO> items = userBatchLoader.getAll(ids).stream()
+                        .filter(user -> statuses.contains(user.getStatus()))
+                        .map(this::convertToVO)
+                        .map(profileWriteBehind::overlay)
+                        .collect(Collectors.toList());
+                Long nextCursor = hasMore ? ids.get(ids.size() - 1) : null;
+                return new CursorPageVO<>(items, nextCursor, hasMore);
+            }
+        }
+        // 多取一条用于判断是否还有下一页
+        List<User> users = this.baseMapper.findPageAfter(after, statuses, pageSize + 1);
+        boolean hasMore = users.size() > pageSize;
+        if (hasMore) {
+            users = users.subList(0, pageSize);
+        }
+        List<UserVO> items = users.stream()
+                .map(this::convertToVO)
+                .map(profileWriteBehind::overlay)
+                .collect(Collectors.toList());
+        Long nextCursor = hasMore ? users.get(users.size() - 1).getId() : null;
+        return new CursorPageVO<>(items, nextCursor, hasMore);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<UserVO> consumer) {
+        // 游标依赖事务内保持打开的SqlSession
+        try (Cursor<User> cursor = this.baseMapper.streamAll()) {
+            for (User user : cursor) {
+                consumer.accept(profileWriteBehind.overlay(convertToVO(user)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
     public UserVO updateUser(Long id, UserDTO userDTO) {
-        User user = getById(id);
-        if (user == null) {
-            throw new BusinessException("用户不存在");
+        // 先写回缓冲中的旧资料变更，避免其在整体更新之后落库覆盖新值；
+        // 写回在独立事务中执行，放在更新事务开启之前，同一请求不会同时占用两个连接
+        profileWriteBehind.flush(id);
+        return transactionTemplate.execute(status -> doUpdateUser(id, userDTO));
+    }
+    
+    private UserVO doUpdateUser(Long id, UserDTO userDTO) {
+        // 单条条件UPDATE完成写入，唯一性与并发修改由唯一索引和版本号判定
+        User user = UserConverter.INSTANCE.toEntity(userDTO);
+        user.setId(id);
+        user.setUpdateTime(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        int updated;
+        try {
+            updated = this.baseMapper.updateByIdAndVersion(user, userDTO.getVersion());
+        } catch (DuplicateKeyException e) {
+            throw duplicateKey(e);
         }
-        
-        // 检查用户名是否被其他用户使用
-        if (!user.getUsername().equals(userDTO.getUsername()) && 
-            this.baseMapper.countByUsername(userDTO.getUsername()) > 0) {
-            throw new BusinessException("用户名已存在");
+        if (updated == 0) {
+            // 只在失败时区分原因
+            if (this.baseMapper.findUpdateTime(id) == null) {
+                throw new BusinessException("用户不存在");
+            }
+            throw new BusinessException(409, "用户已被修改，请刷新后重试");
         }
         
-        // 检查邮箱是否被其他用户使用
-        if (!user.getEmail().equals(userDTO.getEmail()) && 
-            this.baseMapper.countByEmail(userDTO.getEmail()) > 0) {
-            throw new BusinessException("邮箱已存在");
+        // MySQL没有RETURNING，按主键读回本事务刚写入的行，用于响应和变更事件
+        User saved = getById(id);
+        changeDispatcher.publish(UserChangeEvent.updated(saved));
+        return convertToVO(saved);
+    }
+    
+    @Override
+    public UserVO updateProfile(Long id, UserProfileDTO profileDTO) {
+        if (profileDTO.getNickname() == null && profileDTO.getPhone() == null) {
+            throw new BusinessException(400, "昵称和手机号不能同时为空");
         }
-        
-        BeanUtils.copyProperties(userDTO, user, "id", "createTime");
-        updateById(user);
-        return convertToVO(user);
+        // 存在性检查走缓存，写回缓冲启用时整个请求不访问数据库
+        UserVO current = getUserById(id);
+        UserProfilePatch patch = new UserProfilePatch(id, profileDTO.getNickname(), profileDTO.getPhone(),
+                LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        profileWriteBehind.submit(patch);
+        return patch.applyTo(current);
     }
     
     @Override
@@ -97,32 +365,138 @@ public class UserServiceImpl extends ServiceImpl<UserRepository, User> implement
         if (!removeById(id)) {
             throw new BusinessException("用户不存在");
         }
+        changeDispatcher.publish(UserChangeEvent.deleted(id));
     }
     
     @Override
-    public List<UserVO> searchUsersByUsername(String username) {
-        List<User> users = this.baseMapper.findByUsernameContaining(username);
-        return users.stream()
+    public List<UserVO> searchUsersByUsername(String username, int limit, List<Integer> statuses) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        boolean filtered = statuses != null && !statuses.isEmpty();
+        // 子串条件与状态条件取交集：状态位图未就绪时整体回退到数据库
+        LongPredicate statusFilter = filtered ? statusIndex.matcher(statuses) : null;
+        List<Long> ids = filtered && statusFilter == null ? null : trigramIndex.search(username, size, statusFilter);
+        if (ids == null) {
+            return this.baseMapper.findByUsernameContaining(username, statuses, size).stream()
+                    .map(this::convertToVO)
+                    .map(profileWriteBehind::overlay)
+                    .collect(Collectors.toList());
+        }
+        // 索引为最终一致，按加载到的最新数据再校验一次
+        String normalized = UserExistenceIndex.normalize(username);
+        return userBatchLoader.getAll(ids).stream()
+                .filter(user -> UserExistenceIndex.normalize(user.getUsername()).contains(normalized))
+                .filter(user -> !filtered || statuses.contains(user.getStatus()))
                 .map(this::convertToVO)
+                .map(profileWriteBehind::overlay)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public UserStatsVO getUserStats() {
+        Map<Integer, Long> byStatus = statusIndex.counts();
+        if (byStatus == null) {
+            byStatus = new TreeMap<>();
+            for (StatusCount count : this.baseMapper.countGroupByStatus()) {
+                byStatus.put(count.getStatus(), count.getTotal());
+            }
+        }
+        long total = byStatus.values().stream().mapToLong(Long::longValue).sum();
+        return new UserStatsVO(total, byStatus);
+    }
+    
+    @Override
+    public List<UserSuggestionVO> autocomplete(String prefix, int limit, String field) {
+        UserAutocompleteIndex.Field target;
+        try {
+            target = UserAutocompleteIndex.Field.valueOf(field.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(400, "不支持的补全字段: " + field);
+        }
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<UserAutocompleteIndex.Suggestion> suggestions = autocompleteIndex.suggest(target, prefix, size);
+        if (suggestions != null) {
+            return suggestions.stream()
+                    .map(suggestion -> new UserSuggestionVO(suggestion.id(), suggestion.value()))
+                    .collect(Collectors.toList());
+        }
+        // 索引未就绪时回退到数据库前缀查询
+        if (target == UserAutocompleteIndex.Field.EMAIL) {
+            return this.baseMapper.findEmailsStartingWith(prefix, size).stream()
+                    .map(user -> new UserSuggestionVO(user.getId(), user.getEmail()))
+                    .collect(Collectors.toList());
+        }
+        return this.baseMapper.findUsernamesStartingWith(prefix, size).stream()
+                .map(user -> new UserSuggestionVO(user.getId(), user.getUsername()))
                 .collect(Collectors.toList());
     }
     
     @Override
     public boolean existsByUsername(String username) {
-        return this.baseMapper.countByUsername(username) > 0;
+        return existenceIndex.existsByUsername(username,
+                () -> this.baseMapper.countByUsername(username) > 0);
     }
     
     @Override
     public boolean existsByEmail(String email) {
-        return this.baseMapper.countByEmail(email) > 0;
+        return existenceIndex.existsByEmail(email,
+                () -> this.baseMapper.countByEmail(email) > 0);
+    }
+    
+    /**
+     * 把用户名、邮箱唯一索引冲突翻译为对应的业务异常；其他约束（如主键）冲突不归因到字段，返回通用错误
+     */
+    private BusinessException duplicateKey(DuplicateKeyException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains("uk_users_username")) {
+            return new BusinessException("用户名已存在");
+        }
+        if (message.contains("uk_users_email")) {
+            return new BusinessException("邮箱已存在");
+        }
+        return new BusinessException(409, "数据冲突，请重试", e);
+    }
+    
+    /**
+     * 校验单条数据，返回错误信息；通过时返回null
+     */
+    private String validate(UserDTO userDTO) {
+        if (userDTO == null) {
+            return "用户数据不能为空";
+        }
+        Set<ConstraintViolation<UserDTO>> violations = validator.validate(userDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    /**
+     * 分块IN查询候选值中已存在的部分，返回归一化后的值
+     */
+    private Set<String> findExisting(List<Integer> candidates, List<UserDTO> userDTOs,
+                                     Function<UserDTO, String> field,
+                                     Predicate<String> mightExist,
+                                     Function<List<String>, List<String>> query) {
+        List<String> values = candidates.stream()
+                .map(i -> field.apply(userDTOs.get(i)))
+                .filter(mightExist)
+                .collect(Collectors.toList());
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < values.size(); from += BATCH_CHUNK_SIZE) {
+            for (String value : query.apply(values.subList(from, Math.min(from + BATCH_CHUNK_SIZE, values.size())))) {
+                existing.add(UserExistenceIndex.normalize(value));
+            }
+        }
+        return existing;
     }
     
     /**
      * 将实体转换为VO
      */
     private UserVO convertToVO(User user) {
-        UserVO userVO = new UserVO();
-        BeanUtils.copyProperties(user, userVO);
-        return userVO;
+        return UserConverter.INSTANCE.toVO(user);
     }
 } 
\ No newline at end of file
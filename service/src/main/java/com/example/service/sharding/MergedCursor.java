@@ -0,0 +1,100 @@
+package com.example.service.sharding;
+
+import org.apache.ibatis.cursor.Cursor;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * 按给定顺序归并多个各自有序的游标
+ */
+class MergedCursor<T> implements Cursor<T> {
+
+    private final List<Cursor<T>> cursors;
+
+    private final Comparator<T> order;
+
+    private boolean iteratorRetrieved;
+
+    private int currentIndex = -1;
+
+    MergedCursor(List<Cursor<T>> cursors, Comparator<T> order) {
+        this.cursors = cursors;
+        this.order = order;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return cursors.stream().anyMatch(Cursor::isOpen);
+    }
+
+    @Override
+    public boolean isConsumed() {
+        return cursors.stream().allMatch(Cursor::isConsumed);
+    }
+
+    @Override
+    public int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        if (iteratorRetrieved) {
+            throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+        }
+        iteratorRetrieved = true;
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>((left, right) -> order.compare(left.value, right.value));
+        for (Cursor<T> cursor : cursors) {
+            Iterator<T> iterator = cursor.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), iterator));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                Head<T> head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                if (head.iterator.hasNext()) {
+                    heads.add(new Head<>(head.iterator.next(), head.iterator));
+                }
+                currentIndex++;
+                return head.value;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Cursor<T> cursor : cursors) {
+            try {
+                cursor.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private record Head<T>(T value, Iterator<T> iterator) {
+    }
+}
@@ -0,0 +1,743 @@
+package com.example.service.sharding;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.update.Update;
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.OrderItem;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.service.entity.StatusCount;
+import com.example.service.entity.User;
+import com.example.service.index.UserExistenceIndex;
+import com.example.service.repository.UserRepository;
+import com.example.service.writebehind.UserProfilePatch;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 分片用户数据访问层
+ * <p>
+ * 用户按ID哈希路由到分片，ID在插入前由 {@link IdentifierGenerator} 分配。用户名和邮箱的全局唯一性由
+ * 按查找键哈希分布的 user_lookup 表保证：写用户行之前先占用查找键，冲突时抛出与单库唯一索引相同的
+ * {@link DuplicateKeyException}，写入失败或改名、删除后释放对应的键。按用户名/邮箱查询先查查找表再按ID读取。
+ * 各分片的写入各自提交，不参与调用方的事务：批量插入中途失败时删除已写入其他分片的用户行再释放查找键，
+ * 删除失败的用户保留查找键。
+ * 列表、搜索与计数在各分片并行执行后归并，结果顺序与单库查询一致。
+ * 查找表与用户行不在同一事务中，进程在两者之间崩溃会留下未释放的键，按用户名查询时以用户行校验。
+ */
+@Slf4j
+public class ShardedUserRepository implements UserRepository, AutoCloseable {
+
+    static final String USERNAME_KEY = "u:";
+
+    static final String EMAIL_KEY = "e:";
+
+    private static final Comparator<User> BY_ID = Comparator.comparing(User::getId);
+
+    private final List<UserShard> shards;
+
+    private final IdentifierGenerator identifierGenerator;
+
+    private final ExecutorService executor;
+
+    private final long scatterTimeoutNanos;
+
+    public ShardedUserRepository(List<UserShard> shards, IdentifierGenerator identifierGenerator,
+                                 ExecutorService executor, Duration scatterTimeout) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一个分片");
+        }
+        this.shards = List.copyOf(shards);
+        this.identifierGenerator = identifierGenerator;
+        this.executor = executor;
+        this.scatterTimeoutNanos = scatterTimeout.toNanos();
+    }
+
+    /**
+     * 用户所在的分片
+     */
+    public UserShard shardOf(long id) {
+        return shards.get(Math.floorMod(mix(id), shards.size()));
+    }
+
+    public List<UserShard> getShards() {
+        return shards;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    @Override
+    public int insert(User user) {
+        assignId(user);
+        List<UserLookup> reserved = reserve(user.getId(), lookupsOf(user.getId(), user.getUsername(), user.getEmail()));
+        try {
+            return shardOf(user.getId()).getUsers().insert(user);
+        } catch (RuntimeException e) {
+            release(reserved);
+            throw e;
+        }
+    }
+
+    @Override
+    public int insertAll(List<User> users) {
+        users.forEach(this::assignId);
+        List<UserLookup> entries = new ArrayList<>(users.size() * 2);
+        for (User user : users) {
+            entries.addAll(lookupsOf(user.getId(), user.getUsername(), user.getEmail()));
+        }
+        List<UserLookup> reserved = new ArrayList<>(entries.size());
+        Map<UserShard, List<User>> written = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<UserShard, List<UserLookup>> group : groupBy(entries, entry -> shardOfKey(entry.getKey())).entrySet()) {
+                group.getKey().getLookups().insertAll(group.getValue());
+                reserved.addAll(group.getValue());
+            }
+            int inserted = 0;
+            for (Map.Entry<UserShard, List<User>> group : groupBy(users, user -> shardOf(user.getId())).entrySet()) {
+                inserted += group.getKey().getUsers().insertAll(group.getValue());
+                written.put(group.getKey(), group.getValue());
+            }
+            return inserted;
+        } catch (RuntimeException e) {
+            Set<Long> remaining = compensate(written);
+            release(reserved.stream()
+                    .filter(entry -> !remaining.contains(entry.getUserId()))
+                    .collect(Collectors.toList()));
+            throw e;
+        }
+    }
+
+    @Override
+    public int updateById(User user) {
+        return update(user, repository -> repository.updateById(user));
+    }
+
+    @Override
+    public int updateByIdAndVersion(User user, Integer version) {
+        return update(user, repository -> repository.updateByIdAndVersion(user, version));
+    }
+
+    @Override
+    public int updateProfiles(List<UserProfilePatch> patches) {
+        int updated = 0;
+        for (Map.Entry<UserShard, List<UserProfilePatch>> group : groupBy(patches, patch -> shardOf(patch.getId())).entrySet()) {
+            updated += group.getKey().getUsers().updateProfiles(group.getValue());
+        }
+        return updated;
+    }
+
+    @Override
+    public int deleteById(Serializable id) {
+        long userId = toId(id);
+        User current = shardOf(userId).getUsers().selectById(userId);
+        return current == null ? 0 : delete(current);
+    }
+
+    @Override
+    public int deleteById(User entity) {
+        return deleteById(entity.getId());
+    }
+
+    @Override
+    public int deleteBatchIds(Collection<?> ids) {
+        int deleted = 0;
+        for (Object id : ids) {
+            deleted += deleteById((Serializable) id);
+        }
+        return deleted;
+    }
+
+    /**
+     * 先在各分片查出匹配的用户，再逐个删除并释放其查找键
+     */
+    @Override
+    public int deleteByMap(Map<String, Object> columnMap) {
+        int deleted = 0;
+        for (User user : selectByMap(columnMap)) {
+            deleted += delete(user);
+        }
+        return deleted;
+    }
+
+    /**
+     * 先在各分片查出匹配的用户，再逐个删除并释放其查找键
+     */
+    @Override
+    public int delete(Wrapper<User> queryWrapper) {
+        int deleted = 0;
+        for (User user : selectList(queryWrapper)) {
+            deleted += delete(user);
+        }
+        return deleted;
+    }
+
+    /**
+     * 按条件更新各分片。实体中带有新的用户名或邮箱时，与单库唯一索引一样最多只能有一行匹配，
+     * 该行先占用新键再更新；SET片段的值在写入前无法得知，不能用来修改用户名或邮箱
+     */
+    @Override
+    public int update(User entity, Wrapper<User> updateWrapper) {
+        if (updateWrapper instanceof Update<?, ?> update && setsLookupColumn(update.getSqlSet())) {
+            throw new UnsupportedOperationException("分片模式下不能通过SET片段修改用户名或邮箱，请在实体中设置新值");
+        }
+        if (entity == null || (entity.getUsername() == null && entity.getEmail() == null)) {
+            int updated = 0;
+            for (UserShard shard : shards) {
+                updated += shard.getUsers().update(entity, updateWrapper);
+            }
+            return updated;
+        }
+        List<User> matched = selectList(updateWrapper);
+        if (matched.isEmpty()) {
+            return 0;
+        }
+        if (matched.size() > 1) {
+            throw duplicate(entity.getUsername() != null
+                    ? USERNAME_KEY + UserExistenceIndex.normalize(entity.getUsername())
+                    : EMAIL_KEY + UserExistenceIndex.normalize(entity.getEmail()));
+        }
+        User target = new User();
+        target.setId(matched.get(0).getId());
+        target.setUsername(entity.getUsername());
+        target.setEmail(entity.getEmail());
+        return update(target, repository -> repository.update(entity, updateWrapper));
+    }
+
+    @Override
+    public User selectById(Serializable id) {
+        return shardOf(toId(id)).getUsers().selectById(id);
+    }
+
+    @Override
+    public List<User> selectBatchIds(Collection<? extends Serializable> ids) {
+        Map<UserShard, List<Serializable>> groups = groupBy(ids, id -> shardOf(toId(id)));
+        return flatten(scatter(groups.entrySet(), group -> group.getKey().getUsers().selectBatchIds(group.getValue())));
+    }
+
+    @Override
+    public LocalDateTime findUpdateTime(Long id) {
+        return shardOf(id).getUsers().findUpdateTime(id);
+    }
+
+    @Override
+    public User findByUsername(String username) {
+        return findByLookup(USERNAME_KEY, username, User::getUsername);
+    }
+
+    @Override
+    public User findByEmail(String email) {
+        return findByLookup(EMAIL_KEY, email, User::getEmail);
+    }
+
+    @Override
+    public List<String> findExistingUsernames(Collection<String> usernames) {
+        return findExisting(USERNAME_KEY, usernames);
+    }
+
+    @Override
+    public List<String> findExistingEmails(Collection<String> emails) {
+        return findExisting(EMAIL_KEY, emails);
+    }
+
+    @Override
+    public List<User> findByStatus(Integer status) {
+        return merge(scatter(shard -> shard.getUsers().findByStatus(status)), BY_ID, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<User> findByUsernameContaining(String username, Collection<Integer> statuses, int limit) {
+        return merge(scatter(shard -> shard.getUsers().findByUsernameContaining(username, statuses, limit)), BY_ID, limit);
+    }
+
+    @Override
+    public List<User> findPageAfter(Long after, Collection<Integer> statuses, int limit) {
+        return merge(scatter(shard -> shard.getUsers().findPageAfter(after, statuses, limit)), BY_ID, limit);
+    }
+
+    @Override
+    public List<User> findUsernamesStartingWith(String prefix, int limit) {
+        return merge(scatter(shard -> shard.getUsers().findUsernamesStartingWith(prefix, limit)),
+                Comparator.comparing(User::getUsername, String.CASE_INSENSITIVE_ORDER).thenComparing(BY_ID), limit);
+    }
+
+    @Override
+    public List<User> findEmailsStartingWith(String prefix, int limit) {
+        return merge(scatter(shard -> shard.getUsers().findEmailsStartingWith(prefix, limit)),
+                Comparator.comparing(User::getEmail, String.CASE_INSENSITIVE_ORDER).thenComparing(BY_ID), limit);
+    }
+
+    @Override
+    public int countByUsername(String username) {
+        return scatter(shard -> shard.getUsers().countByUsername(username)).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public int countByEmail(String email) {
+        return scatter(shard -> shard.getUsers().countByEmail(email)).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public List<StatusCount> countGroupByStatus() {
+        Map<Integer, Long> totals = new TreeMap<>();
+        for (List<StatusCount> counts : scatter(shard -> shard.getUsers().countGroupByStatus())) {
+            for (StatusCount count : counts) {
+                totals.merge(count.getStatus(), count.getTotal(), Long::sum);
+            }
+        }
+        return totals.entrySet().stream().map(entry -> {
+            StatusCount count = new StatusCount();
+            count.setStatus(entry.getKey());
+            count.setTotal(entry.getValue());
+            return count;
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * 依次扫描各分片；索引重建只关心全集，不需要全局顺序
+     */
+    @Override
+    public void scanIndexColumns(ResultHandler<User> handler) {
+        for (UserShard shard : shards) {
+            shard.getUsers().scanIndexColumns(handler);
+        }
+    }
+
+    /**
+     * 在调用线程上打开各分片的游标并按ID归并；与单库一样需在事务内遍历
+     */
+    @Override
+    public Cursor<User> streamAll() {
+        List<Cursor<User>> cursors = new ArrayList<>(shards.size());
+        for (UserShard shard : shards) {
+            cursors.add(shard.getUsers().streamAll());
+        }
+        return new MergedCursor<>(cursors, BY_ID);
+    }
+
+    /**
+     * 条件查询在各分片依次执行：Wrapper在生成SQL时写入参数，不能被多个线程共用
+     */
+    @Override
+    public List<User> selectByMap(Map<String, Object> columnMap) {
+        List<User> users = new ArrayList<>();
+        shards.forEach(shard -> users.addAll(shard.getUsers().selectByMap(columnMap)));
+        users.sort(BY_ID);
+        return users;
+    }
+
+    @Override
+    public Long selectCount(Wrapper<User> queryWrapper) {
+        long total = 0;
+        for (UserShard shard : shards) {
+            total += shard.getUsers().selectCount(queryWrapper);
+        }
+        return total;
+    }
+
+    @Override
+    public List<User> selectList(Wrapper<User> queryWrapper) {
+        List<User> users = new ArrayList<>();
+        shards.forEach(shard -> users.addAll(shard.getUsers().selectList(queryWrapper)));
+        users.sort(BY_ID);
+        return users;
+    }
+
+    @Override
+    public List<Map<String, Object>> selectMaps(Wrapper<User> queryWrapper) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        shards.forEach(shard -> rows.addAll(shard.getUsers().selectMaps(queryWrapper)));
+        return rows;
+    }
+
+    @Override
+    public List<Object> selectObjs(Wrapper<User> queryWrapper) {
+        List<Object> values = new ArrayList<>();
+        shards.forEach(shard -> values.addAll(shard.getUsers().selectObjs(queryWrapper)));
+        return values;
+    }
+
+    /**
+     * 每个分片取前 offset+size 行，按条件中的ORDER BY、分页排序项和ID归并后截取当前页，总数为各分片计数之和
+     */
+    @Override
+    public <P extends IPage<User>> P selectPage(P page, Wrapper<User> queryWrapper) {
+        Map<String, String> properties = columnProperties();
+        return page(page, queryWrapper, (shard, shardPage) -> shard.getUsers().selectPage(shardPage, queryWrapper).getRecords(),
+                (user, column) -> {
+                    String property = properties.get(column.toLowerCase(Locale.ROOT));
+                    return property == null ? null : SystemMetaObject.forObject(user).getValue(property);
+                });
+    }
+
+    /**
+     * 与 {@link #selectPage} 相同的归并方式，按列名取排序值
+     */
+    @Override
+    public <P extends IPage<Map<String, Object>>> P selectMapsPage(P page, Wrapper<User> queryWrapper) {
+        return page(page, queryWrapper, (shard, shardPage) -> shard.getUsers().selectMapsPage(shardPage, queryWrapper).getRecords(),
+                (row, column) -> row.entrySet().stream()
+                        .filter(entry -> entry.getKey().equalsIgnoreCase(column))
+                        .map(Map.Entry::getValue)
+                        .findFirst()
+                        .orElse(null));
+    }
+
+    private void assignId(User user) {
+        if (user.getId() == null) {
+            user.setId(identifierGenerator.nextId(user).longValue());
+        }
+    }
+
+    /**
+     * 更新用户行并同步查找表：先占用新的用户名/邮箱，更新成功后释放旧键，失败时释放新键
+     */
+    private int update(User user, ToIntFunction<UserRepository> writer) {
+        UserShard shard = shardOf(user.getId());
+        User current = shard.getUsers().selectById(user.getId());
+        if (current == null) {
+            return 0;
+        }
+        List<UserLookup> before = lookupsOf(user.getId(), current.getUsername(), current.getEmail());
+        List<UserLookup> after = lookupsOf(user.getId(),
+                user.getUsername() != null ? user.getUsername() : current.getUsername(),
+                user.getEmail() != null ? user.getEmail() : current.getEmail());
+        List<UserLookup> added = new ArrayList<>(after);
+        added.removeAll(before);
+        List<UserLookup> removed = new ArrayList<>(before);
+        removed.removeAll(after);
+
+        List<UserLookup> reserved = reserve(user.getId(), added);
+        int updated;
+        try {
+            updated = writer.applyAsInt(shard.getUsers());
+        } catch (RuntimeException e) {
+            release(reserved);
+            throw e;
+        }
+        release(updated > 0 ? removed : reserved);
+        return updated;
+    }
+
+    /**
+     * 删除批量插入中已写入各分片的用户行，使失败的批量插入不留下数据；
+     * 返回删除失败、仍在分片中的用户ID，这些用户的查找键不能释放，否则其用户名和邮箱不再受唯一性保护
+     */
+    private Set<Long> compensate(Map<UserShard, List<User>> written) {
+        Set<Long> remaining = new HashSet<>();
+        for (Map.Entry<UserShard, List<User>> group : written.entrySet()) {
+            List<Long> ids = group.getValue().stream().map(User::getId).collect(Collectors.toList());
+            try {
+                group.getKey().getUsers().deleteBatchIds(ids);
+            } catch (RuntimeException e) {
+                log.error("回滚分片{}上已写入的{}个用户失败，保留其查找键", group.getKey().getName(), ids.size(), e);
+                remaining.addAll(ids);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * 逐个占用查找键，返回本次新占用的条目；任一键被其他用户占用时释放已占用的键并抛出 DuplicateKeyException
+     */
+    private List<UserLookup> reserve(Long userId, List<UserLookup> entries) {
+        List<UserLookup> reserved = new ArrayList<>(entries.size());
+        try {
+            for (UserLookup entry : entries) {
+                UserLookupRepository lookups = shardOfKey(entry.getKey()).getLookups();
+                try {
+                    lookups.insertAll(List.of(entry));
+                    reserved.add(entry);
+                } catch (DuplicateKeyException e) {
+                    if (!userId.equals(lookups.findUserId(entry.getKey()))) {
+                        throw duplicate(entry.getKey());
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            release(reserved);
+            throw e;
+        }
+        return reserved;
+    }
+
+    /**
+     * 释放查找键；作为补偿步骤不抛出异常，失败的键留待按用户行校验
+     */
+    private void release(List<UserLookup> entries) {
+        for (UserLookup entry : entries) {
+            try {
+                shardOfKey(entry.getKey()).getLookups().deleteAll(entry.getUserId(), List.of(entry.getKey()));
+            } catch (RuntimeException e) {
+                log.warn("释放用户查找键失败: {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    private User findByLookup(String prefix, String value, Function<User, String> field) {
+        String key = prefix + UserExistenceIndex.normalize(value);
+        Long userId = shardOfKey(key).getLookups().findUserId(key);
+        if (userId == null) {
+            return null;
+        }
+        User user = selectById(userId);
+        // 查找表可能残留未释放的键，以用户行为准
+        if (user == null || !key.equals(prefix + UserExistenceIndex.normalize(field.apply(user)))) {
+            return null;
+        }
+        return user;
+    }
+
+    private List<String> findExisting(String prefix, Collection<String> values) {
+        Map<String, String> byKey = new LinkedHashMap<>();
+        for (String value : values) {
+            byKey.putIfAbsent(prefix + UserExistenceIndex.normalize(value), value);
+        }
+        Map<UserShard, List<String>> groups = groupBy(byKey.keySet(), this::shardOfKey);
+        Set<String> existing = new HashSet<>(flatten(scatter(groups.entrySet(),
+                group -> group.getKey().getLookups().findExistingKeys(group.getValue()))));
+        return byKey.entrySet().stream()
+                .filter(entry -> existing.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+    }
+
+    private static List<UserLookup> lookupsOf(Long userId, String username, String email) {
+        List<UserLookup> entries = new ArrayList<>(2);
+        if (username != null) {
+            entries.add(new UserLookup(USERNAME_KEY + UserExistenceIndex.normalize(username), userId));
+        }
+        if (email != null) {
+            entries.add(new UserLookup(EMAIL_KEY + UserExistenceIndex.normalize(email), userId));
+        }
+        return entries;
+    }
+
+    /**
+     * 构造与MySQL唯一索引冲突信息一致的异常，业务层据此区分用户名与邮箱
+     */
+    private static DuplicateKeyException duplicate(String key) {
+        String index = key.startsWith(USERNAME_KEY) ? "uk_users_username" : "uk_users_email";
+        return new DuplicateKeyException("Duplicate entry '" + key.substring(2) + "' for key 'users." + index + "'");
+    }
+
+    /**
+     * 删除已读出的用户行并释放其查找键
+     */
+    private int delete(User current) {
+        int deleted = shardOf(current.getId()).getUsers().deleteById(current.getId());
+        if (deleted > 0) {
+            release(lookupsOf(current.getId(), current.getUsername(), current.getEmail()));
+        }
+        return deleted;
+    }
+
+    private static boolean setsLookupColumn(String sqlSet) {
+        if (sqlSet == null) {
+            return false;
+        }
+        String set = sqlSet.toLowerCase(Locale.ROOT);
+        return set.contains("username") || set.contains("email");
+    }
+
+    /**
+     * 条件查询在各分片依次执行，每个分片最多返回到当前页末尾的行，归并排序后截取当前页。
+     * 计数由各分片的分页插件完成，它会去掉计数语句中的ORDER BY
+     */
+    private <T, P extends IPage<T>> P page(P page, Wrapper<User> queryWrapper,
+                                           BiFunction<UserShard, Page<T>, List<T>> query,
+                                           BiFunction<T, String, Object> column) {
+        long size = page.getSize();
+        long offset = size < 0 ? 0 : page.offset();
+        List<T> rows = new ArrayList<>();
+        long total = 0;
+        for (UserShard shard : shards) {
+            Page<T> shardPage = new Page<>(1, size < 0 ? size : offset + size, page.searchCount());
+            shardPage.addOrder(page.orders());
+            rows.addAll(query.apply(shard, shardPage));
+            total += shardPage.getTotal();
+        }
+        rows.sort(comparator(ordersOf(queryWrapper, page.orders()), column));
+        if (page.searchCount()) {
+            page.setTotal(total);
+        }
+        int from = (int) Math.min(offset, rows.size());
+        int to = size < 0 ? rows.size() : (int) Math.min(offset + size, rows.size());
+        page.setRecords(new ArrayList<>(rows.subList(from, to)));
+        return page;
+    }
+
+    /**
+     * 归并使用的排序：条件中的ORDER BY，其后是分页排序项，最后按ID保证结果稳定
+     */
+    private static List<OrderItem> ordersOf(Wrapper<User> queryWrapper, List<OrderItem> pageOrders) {
+        List<OrderItem> orders = new ArrayList<>();
+        if (queryWrapper != null && queryWrapper.getExpression() != null) {
+            String segment = queryWrapper.getExpression().getOrderBy().getSqlSegment().trim();
+            if (segment.regionMatches(true, 0, "ORDER BY", 0, 8)) {
+                for (String item : segment.substring(8).split(",")) {
+                    String[] parts = item.trim().split("\\s+");
+                    orders.add(new OrderItem(parts[0].replace("`", ""), parts.length < 2 || !"DESC".equalsIgnoreCase(parts[1])));
+                }
+            }
+        }
+        orders.addAll(pageOrders);
+        orders.add(OrderItem.asc("id"));
+        return orders;
+    }
+
+    private static <T> Comparator<T> comparator(List<OrderItem> orders, BiFunction<T, String, Object> column) {
+        Comparator<T> comparator = (a, b) -> 0;
+        for (OrderItem order : orders) {
+            Comparator<T> next = (a, b) -> compareValues(column.apply(a, order.getColumn()), column.apply(b, order.getColumn()));
+            comparator = comparator.thenComparing(order.isAsc() ? next : next.reversed());
+        }
+        return comparator;
+    }
+
+    /**
+     * 与MySQL一致：升序时NULL在前，字符串不区分大小写
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        if (a instanceof String left && b instanceof String right) {
+            return String.CASE_INSENSITIVE_ORDER.compare(left, right);
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+
+    /**
+     * 用户表列名（小写）到实体属性名的映射
+     */
+    private static Map<String, String> columnProperties() {
+        TableInfo table = TableInfoHelper.getTableInfo(User.class);
+        Map<String, String> properties = new HashMap<>();
+        properties.put(table.getKeyColumn().toLowerCase(Locale.ROOT), table.getKeyProperty());
+        for (TableFieldInfo field : table.getFieldList()) {
+            properties.put(field.getColumn().toLowerCase(Locale.ROOT), field.getProperty());
+        }
+        return properties;
+    }
+
+    private UserShard shardOfKey(String key) {
+        return shards.get(Math.floorMod(mix(key.hashCode()), shards.size()));
+    }
+
+    /**
+     * 在各分片并行执行查询，按分片顺序返回结果
+     */
+    private <T> List<T> scatter(Function<UserShard, T> query) {
+        return scatter(shards, query);
+    }
+
+    private <S, T> List<T> scatter(Collection<S> targets, Function<S, T> query) {
+        if (targets.size() <= 1) {
+            return targets.stream().map(query).collect(Collectors.toList());
+        }
+        List<CompletableFuture<T>> futures = targets.stream()
+                .map(target -> CompletableFuture.supplyAsync(() -> query.apply(target), executor))
+                .collect(Collectors.toList());
+        long deadline = System.nanoTime() + scatterTimeoutNanos;
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+            return results;
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("分片查询失败", e.getCause());
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new QueryTimeoutException("分片查询超时", e);
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("分片查询被中断", e);
+        }
+    }
+
+    /**
+     * 归并各分片各自有序的结果，取前limit条
+     */
+    private static List<User> merge(List<List<User>> results, Comparator<User> order, int limit) {
+        return results.stream()
+                .flatMap(List::stream)
+                .sorted(order)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private static <T> List<T> flatten(List<List<T>> results) {
+        if (results.size() == 1) {
+            return results.get(0);
+        }
+        List<T> all = new ArrayList<>();
+        results.forEach(all::addAll);
+        return all;
+    }
+
+    private static <K, T> Map<K, List<T>> groupBy(Collection<? extends T> values, Function<T, K> classifier) {
+        Map<K, List<T>> groups = new LinkedHashMap<>();
+        for (T value : values) {
+            groups.computeIfAbsent(classifier.apply(value), key -> new ArrayList<>()).add(value);
+        }
+        return groups;
+    }
+
+    private static long toId(Object id) {
+        return id instanceof Number number ? number.longValue() : Long.parseLong(id.toString());
+    }
+
+    /**
+     * 64位混合函数（MurmurHash3 fmix64），使顺序或按时间递增的ID均匀分布
+     */
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
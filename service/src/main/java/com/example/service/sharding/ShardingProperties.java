@@ -0,0 +1,63 @@
+package com.example.service.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户表分片配置
+ * <p>
+ * 用户按ID哈希分布到各分片，分片顺序决定路由结果，已有数据时增删或调整分片需要先迁移数据。
+ */
+@Data
+@ConfigurationProperties(prefix = "user.sharding")
+public class ShardingProperties {
+
+    /**
+     * 是否启用分片
+     */
+    private boolean enabled = false;
+
+    /**
+     * 散射查询的并发线程数
+     */
+    private int scatterThreads = 16;
+
+    /**
+     * 散射查询等待全部分片返回的超时时间
+     */
+    private Duration scatterTimeout = Duration.ofSeconds(10);
+
+    /**
+     * 分片列表，按顺序编号
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * 单个分片
+     */
+    @Data
+    public static class Shard {
+
+        /**
+         * 分片名称，用于日志与连接池命名，默认 shard-序号
+         */
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private String driverClassName;
+
+        /**
+         * 连接池最大连接数
+         */
+        private int maximumPoolSize = 10;
+    }
+}
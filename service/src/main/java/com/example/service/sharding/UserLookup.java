@@ -0,0 +1,17 @@
+package com.example.service.sharding;
+
+import lombok.Value;
+
+/**
+ * 全局查找表条目：归一化的用户名或邮箱到用户ID
+ */
+@Value
+public class UserLookup {
+
+    /**
+     * 查找键，用户名为 u: 前缀，邮箱为 e: 前缀
+     */
+    String key;
+
+    Long userId;
+}
@@ -0,0 +1,47 @@
+package com.example.service.sharding;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 全局查找表数据访问层
+ * <p>
+ * 只注册到各分片的SqlSessionFactory，不参与默认数据源的Mapper扫描。
+ */
+public interface UserLookupRepository {
+
+    /**
+     * 多行INSERT占用查找键，键已被占用时抛出 DuplicateKeyException
+     */
+    @Insert("<script>INSERT INTO user_lookup (lookup_key, user_id) VALUES " +
+            "<foreach collection='entries' item='entry' separator=','>(#{entry.key}, #{entry.userId})</foreach>" +
+            "</script>")
+    int insertAll(@Param("entries") List<UserLookup> entries);
+
+    /**
+     * 查找键对应的用户ID
+     */
+    @Select("SELECT user_id FROM user_lookup WHERE lookup_key = #{key}")
+    Long findUserId(@Param("key") String key);
+
+    /**
+     * 批量查询已被占用的查找键
+     */
+    @Select("<script>SELECT lookup_key FROM user_lookup WHERE lookup_key IN " +
+            "<foreach collection='keys' item='key' open='(' separator=',' close=')'>#{key}</foreach>" +
+            "</script>")
+    List<String> findExistingKeys(@Param("keys") Collection<String> keys);
+
+    /**
+     * 释放用户占用的查找键，只删除属于该用户的条目
+     */
+    @Delete("<script>DELETE FROM user_lookup WHERE user_id = #{userId} AND lookup_key IN " +
+            "<foreach collection='keys' item='key' open='(' separator=',' close=')'>#{key}</foreach>" +
+            "</script>")
+    int deleteAll(@Param("userId") Long userId, @Param("keys") Collection<String> keys);
+}
@@ -0,0 +1,63 @@
+package com.example.service.sharding;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.config.GlobalConfig;
+import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
+import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
+import com.baomidou.mybatisplus.extension.spring.MybatisSqlSessionFactoryBean;
+import com.example.service.repository.UserRepository;
+import lombok.Getter;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * 单个用户分片：数据源及绑定到该数据源的Mapper
+ */
+@Getter
+public class UserShard {
+
+    private final int index;
+
+    private final String name;
+
+    private final DataSource dataSource;
+
+    private final UserRepository users;
+
+    private final UserLookupRepository lookups;
+
+    public UserShard(int index, String name, DataSource dataSource, UserRepository users, UserLookupRepository lookups) {
+        this.index = index;
+        this.name = name;
+        this.dataSource = dataSource;
+        this.users = users;
+        this.lookups = lookups;
+    }
+
+    /**
+     * 为数据源创建独立的SqlSessionFactory并注册用户与查找表Mapper，配置与默认数据源一致
+     */
+    public static UserShard create(int index, String name, DataSource dataSource,
+                                   MetaObjectHandler metaObjectHandler, Interceptor... plugins) throws Exception {
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        configuration.setMapUnderscoreToCamelCase(true);
+        GlobalConfig globalConfig = GlobalConfigUtils.defaults();
+        globalConfig.setBanner(false);
+        globalConfig.setMetaObjectHandler(metaObjectHandler);
+        MybatisSqlSessionFactoryBean factoryBean = new MybatisSqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setConfiguration(configuration);
+        factoryBean.setGlobalConfig(globalConfig);
+        factoryBean.setPlugins(plugins);
+        SqlSessionFactory sqlSessionFactory = factoryBean.getObject();
+        // 与MapperFactoryBean一致，在SqlSessionFactory构建完成后注册Mapper
+        sqlSessionFactory.getConfiguration().addMapper(UserRepository.class);
+        sqlSessionFactory.getConfiguration().addMapper(UserLookupRepository.class);
+        SqlSessionTemplate sqlSessionTemplate = new SqlSessionTemplate(sqlSessionFactory);
+        return new UserShard(index, name, dataSource, sqlSessionTemplate.getMapper(UserRepository.class),
+                sqlSessionTemplate.getMapper(UserLookupRepository.class));
+    }
+}
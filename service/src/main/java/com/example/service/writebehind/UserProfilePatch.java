@@ -0,0 +1,51 @@
+package com.example.service.writebehind;
+
+import com.example.api.vo.UserVO;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * 单个用户待写回的资料变更，字段为null表示不修改
+ */
+@Value
+public class UserProfilePatch {
+
+    Long id;
+
+    String nickname;
+
+    String phone;
+
+    /**
+     * 变更提交时间，写回时作为更新时间
+     */
+    LocalDateTime updateTime;
+
+    /**
+     * 与更新的变更合并，newer中非null的字段覆盖本变更
+     */
+    public UserProfilePatch merge(UserProfilePatch newer) {
+        return new UserProfilePatch(id,
+                newer.nickname != null ? newer.nickname : nickname,
+                newer.phone != null ? newer.phone : phone,
+                newer.updateTime);
+    }
+
+    /**
+     * 把变更叠加到VO上，返回新的VO，不修改传入对象；资料写回不递增版本号，版本号保持原值
+     */
+    public UserVO applyTo(UserVO userVO) {
+        UserVO patched = new UserVO();
+        patched.setId(userVO.getId());
+        patched.setUsername(userVO.getUsername());
+        patched.setEmail(userVO.getEmail());
+        patched.setNickname(nickname != null ? nickname : userVO.getNickname());
+        patched.setPhone(phone != null ? phone : userVO.getPhone());
+        patched.setStatus(userVO.getStatus());
+        patched.setCreateTime(userVO.getCreateTime());
+        patched.setUpdateTime(updateTime);
+        patched.setVersion(userVO.getVersion());
+        return patched;
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.service.writebehind;
+
+import com.example.api.vo.UserVO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 用户资料写回缓冲
+ * <p>
+ * 昵称、手机号这类无唯一约束的字段更新先合并进按用户ID分组的缓冲区，同一用户的多次更新只保留合并后的结果，
+ * 定时或缓冲用户数达到上限时由写回函数以批量UPDATE写库。读取时用 {@link #overlay(UserVO)} 叠加未写回的变更。
+ * 缓冲条目在写回成功后才移除，写回失败时保留到下次重试；关闭时同步写回全部剩余变更。
+ * 未启用或已关闭时 {@link #submit(UserProfilePatch)} 直接写库。
+ */
+@Slf4j
+public class UserProfileWriteBehind implements MeterBinder, AutoCloseable {
+
+    /**
+     * 关闭时写回失败的最大重试次数
+     */
+    private static final int CLOSE_ATTEMPTS = 3;
+
+    private final boolean enabled;
+
+    private final int maxPending;
+
+    private final int batchSize;
+
+    /**
+     * 写回函数，需在一个事务内完成批量UPDATE并发布变更事件
+     */
+    private final Consumer<List<UserProfilePatch>> writer;
+
+    private final Map<Long, UserProfilePatch> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 串行化写回，保证同一用户的变更按提交顺序落库
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    private volatile boolean closed;
+
+    private final AtomicLong submitted = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final AtomicLong written = new AtomicLong();
+
+    private volatile Counter failures;
+
+    public UserProfileWriteBehind(UserWriteBehindProperties properties, Consumer<List<UserProfilePatch>> writer) {
+        this.enabled = properties.isEnabled();
+        this.maxPending = Math.max(1, properties.getMaxPending());
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.writer = writer;
+        if (enabled) {
+            this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "users-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = properties.getFlushInterval().toMillis();
+            executor.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 提交资料变更：启用时合并进缓冲区，未启用或已关闭时直接写库
+     */
+    public void submit(UserProfilePatch patch) {
+        submitted.incrementAndGet();
+        if (!enabled || closed) {
+            write(List.of(patch));
+            return;
+        }
+        pending.merge(patch.getId(), patch, (previous, next) -> {
+            coalesced.incrementAndGet();
+            return previous.merge(next);
+        });
+        if (pending.size() >= maxPending && flushRequested.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        }
+        if (closed) {
+            // 与关闭并发时缓冲区可能已排空，补一次同步写回
+            flush();
+        }
+    }
+
+    /**
+     * 叠加该用户未写回的变更，没有时原样返回
+     */
+    public UserVO overlay(UserVO userVO) {
+        if (userVO == null || pending.isEmpty()) {
+            return userVO;
+        }
+        UserProfilePatch patch = pending.get(userVO.getId());
+        return patch == null ? userVO : patch.applyTo(userVO);
+    }
+
+    /**
+     * 该用户未写回的变更，没有时返回null
+     */
+    public UserProfilePatch getPending(Long id) {
+        return pending.get(id);
+    }
+
+    /**
+     * 待写回的用户数
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 同步写回全部缓冲的变更，返回写回的用户数；写回失败时抛出异常，未写回的变更保留
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            List<UserProfilePatch> snapshot = new ArrayList<>(pending.values());
+            for (int from = 0; from < snapshot.size(); from += batchSize) {
+                writeAndRemove(snapshot.subList(from, Math.min(from + batchSize, snapshot.size())));
+            }
+            return snapshot.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 同步写回单个用户缓冲的变更，用于整体更新前避免旧变更在之后覆盖新数据
+     */
+    public void flush(Long id) {
+        if (pending.get(id) == null) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            UserProfilePatch patch = pending.get(id);
+            if (patch != null) {
+                writeAndRemove(List.of(patch));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 停止定时写回并同步写回剩余变更，失败时重试
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                if (attempt >= CLOSE_ATTEMPTS) {
+                    log.error("关闭时写回用户资料失败，丢弃{}个用户的变更", pending.size(), e);
+                    return;
+                }
+                log.warn("关闭时写回用户资料失败，第{}次重试", attempt, e);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.write_behind.pending", this, UserProfileWriteBehind::pendingCount)
+                .description("待写回资料变更的用户数")
+                .register(registry);
+        FunctionCounter.builder("users.write_behind.submitted", submitted, AtomicLong::get)
+                .description("提交的资料变更数")
+                .register(registry);
+        FunctionCounter.builder("users.write_behind.coalesced", coalesced, AtomicLong::get)
+                .description("合并进已有缓冲条目的资料变更数")
+                .register(registry);
+        FunctionCounter.builder("users.write_behind.written", written, AtomicLong::get)
+                .description("写回数据库的用户数")
+                .register(registry);
+        failures = Counter.builder("users.write_behind.failures")
+                .description("写回失败次数")
+                .register(registry);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            Counter counter = failures;
+            if (counter != null) {
+                counter.increment();
+            }
+            log.warn("写回用户资料失败，{}个用户的变更留待下次重试", pending.size(), e);
+        }
+    }
+
+    private void writeAndRemove(List<UserProfilePatch> batch) {
+        write(batch);
+        // 写回期间又合并了新变更的条目保留，由下次写回处理
+        for (UserProfilePatch patch : batch) {
+            pending.remove(patch.getId(), patch);
+        }
+    }
+
+    private void write(List<UserProfilePatch> batch) {
+        writer.accept(batch);
+        written.addAndGet(batch.size());
+    }
+}
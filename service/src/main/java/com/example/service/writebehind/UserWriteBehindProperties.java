@@ -0,0 +1,34 @@
+package com.example.service.writebehind;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户资料写回缓冲配置
+ */
+@Data
+@ConfigurationProperties(prefix = "user.write-behind")
+public class UserWriteBehindProperties {
+
+    /**
+     * 是否缓冲资料更新后批量写回；关闭时每次更新立即写库
+     */
+    private boolean enabled = false;
+
+    /**
+     * 定时写回间隔
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * 待写回的用户数达到该值时提前写回
+     */
+    private int maxPending = 1000;
+
+    /**
+     * 单条批量UPDATE包含的用户数
+     */
+    private int batchSize = 500;
+}
@@ -1,23 +1,58 @@
 package com.example.service;
 
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
 import com.example.api.dto.UserDTO;
+import com.example.api.dto.UserProfileDTO;
+import com.example.api.vo.CursorPageVO;
+import com.example.api.vo.UserBatchResultVO;
+import com.example.api.vo.UserStatsVO;
+import com.example.api.vo.UserSuggestionVO;
 import com.example.api.vo.UserVO;
 import com.example.common.exception.BusinessException;
+import com.example.service.cache.UserCache;
+import com.example.service.cache.UserCacheProperties;
+import com.example.service.entity.StatusCount;
 import com.example.service.entity.User;
+import com.example.service.event.UserChangeDispatcher;
+import com.example.service.event.bus.LoopbackInvalidationBus;
+import com.example.service.id.SnowflakeIdGenerator;
+import com.example.service.index.UserAutocompleteIndex;
+import com.example.service.index.UserExistenceIndex;
+import com.example.service.index.UserIndexProperties;
+import com.example.service.index.UserStatusIndex;
+import com.example.service.index.UserTrigramIndex;
+import com.example.service.loader.BatchLoader;
+import com.example.service.loader.BatchLoaderProperties;
+import com.example.service.loader.SingleFlight;
 import com.example.service.repository.UserRepository;
 import com.example.service.service.UserService;
 import com.example.service.service.impl.UserServiceImpl;
+import com.example.service.writebehind.UserProfilePatch;
+import com.example.service.writebehind.UserProfileWriteBehind;
+import com.example.service.writebehind.UserWriteBehindProperties;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.apache.ibatis.cursor.Cursor;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.lang.reflect.Field;
@@ -32,9 +67,58 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private UserCache userCache = new UserCache(new UserCacheProperties());
+
+    @Spy
+    private UserChangeDispatcher changeDispatcher =
+            new UserChangeDispatcher("test-node", List.of(userCache), new LoopbackInvalidationBus());
+
+    @Spy
+    private UserExistenceIndex existenceIndex = new UserExistenceIndex(new UserIndexProperties.Bloom());
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private UserTrigramIndex trigramIndex = new UserTrigramIndex();
+
+    @Spy
+    private UserAutocompleteIndex autocompleteIndex = new UserAutocompleteIndex();
+
+    @Spy
+    private UserStatusIndex statusIndex = new UserStatusIndex();
+
+    @Spy
+    private BatchLoader<Long, User> userBatchLoader = new BatchLoader<>("users", loaderProperties(),
+            ids -> userRepository.selectBatchIds(ids).stream()
+                    .collect(java.util.stream.Collectors.toMap(User::getId, user -> user)));
+
+    @Spy
+    private SingleFlight<String, UserVO> usernameSingleFlight = new SingleFlight<>("users.username");
+
+    @Spy
+    private UserProfileWriteBehind profileWriteBehind = new UserProfileWriteBehind(new UserWriteBehindProperties(),
+            patches -> userRepository.updateProfiles(patches));
+
+    @Spy
+    private IdentifierGenerator identifierGenerator =
+            new SnowflakeIdGenerator(1, Instant.parse("2024-01-01T00:00:00Z"), Duration.ofSeconds(1));
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
     @InjectMocks
     private UserServiceImpl userService;
 
+    private static BatchLoaderProperties loaderProperties() {
+        BatchLoaderProperties properties = new BatchLoaderProperties();
+        properties.setWindow(java.time.Duration.ofMillis(50));
+        return properties;
+    }
+
     private User testUser;
     private UserDTO testUserDTO;
     private UserVO testUserVO;
@@ -129,4 +213,531 @@ class UserServiceTest {
         assertFalse(result);
         verify(userRepository, times(1)).countByEmail("nonexistent@example.com");
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("测试根据ID获取用户 - 命中本地缓存")
+    void testGetUserByIdCached() {
+        // Given
+        when(userRepository.selectBatchIds(anyCollection())).thenReturn(List.of(testUser));
+        
+        // When
+        UserVO first = userService.getUserById(1L);
+        UserVO second = userService.getUserById(1L);
+        
+        // Then
+        assertEquals("testuser", first.getUsername());
+        assertSame(first, second);
+        verify(userRepository, times(1)).selectBatchIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("测试获取更新时间 - 缓存命中时不访问数据库")
+    void testGetUserUpdateTimeCached() {
+        // Given
+        LocalDateTime updateTime = LocalDateTime.of(2024, 1, 1, 12, 0);
+        testUser.setUpdateTime(updateTime);
+        when(userRepository.selectBatchIds(anyCollection())).thenReturn(List.of(testUser));
+        userService.getUserById(1L);
+        
+        // When
+        LocalDateTime result = userService.getUserUpdateTime(1L);
+        
+        // Then
+        assertEquals(updateTime, result);
+        verify(userRepository, never()).findUpdateTime(anyLong());
+    }
+
+    @Test
+    @DisplayName("测试获取更新时间 - 缓存未命中时只查询更新时间")
+    void testGetUserUpdateTimeFromDatabase() {
+        // Given
+        LocalDateTime updateTime = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(userRepository.findUpdateTime(1L)).thenReturn(updateTime);
+        
+        // When
+        LocalDateTime result = userService.getUserUpdateTime(1L);
+        
+        // Then
+        assertEquals(updateTime, result);
+        verify(userRepository, never()).selectBatchIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("测试根据用户名获取用户 - 复用ID缓存")
+    void testGetUserByUsernameCached() {
+        // Given
+        when(userRepository.selectBatchIds(anyCollection())).thenReturn(List.of(testUser));
+        userService.getUserById(1L);
+        
+        // When
+        UserVO result = userService.getUserByUsername("testuser");
+        
+        // Then
+        assertEquals(1L, result.getId());
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("测试用户改名后旧用户名缓存失效")
+    void testUpdateUserInvalidatesOldUsername() {
+        // Given
+        when(userRepository.selectById(1L)).thenReturn(testUser);
+        when(userRepository.updateByIdAndVersion(any(User.class), isNull())).thenReturn(1);
+        when(userRepository.selectBatchIds(anyCollection())).thenReturn(List.of(testUser));
+        userService.getUserById(1L);
+        
+        UserDTO renameDTO = new UserDTO();
+        renameDTO.setUsername("renamed");
+        renameDTO.setPassword("password123");
+        renameDTO.setEmail("test@example.com");
+        renameDTO.setStatus(1);
+        
+        // When
+        userService.updateUser(1L, renameDTO);
+        
+        // Then
+        assertThrows(BusinessException.class, () -> userService.getUserByUsername("testuser"));
+        verify(userRepository, times(1)).findByUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("测试更新用户 - 写回缓冲的资料变更在更新事务开启前写回")
+    void testUpdateUserFlushesBeforeTransaction() {
+        // Given
+        when(userRepository.updateByIdAndVersion(any(User.class), isNull())).thenReturn(1);
+        when(userRepository.selectById(1L)).thenReturn(testUser);
+        
+        // When
+        userService.updateUser(1L, testUserDTO);
+        
+        // Then
+        InOrder inOrder = inOrder(profileWriteBehind, transactionManager, userRepository);
+        inOrder.verify(profileWriteBehind).flush(1L);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userRepository).updateByIdAndVersion(any(User.class), isNull());
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("测试创建用户 - 单条INSERT，不预先查询")
+    void testCreateUserSingleStatement() {
+        // Given
+        when(userRepository.insert(any(User.class))).thenAnswer(invocation -> {
+            invocation.<User>getArgument(0).setId(1L);
+            return 1;
+        });
+        
+        // When
+        UserVO result = userService.createUser(testUserDTO);
+        
+        // Then
+        assertEquals(1L, result.getId());
+        assertEquals(0, result.getVersion());
+        verify(userRepository, never()).countByUsername(anyString());
+        verify(userRepository, never()).countByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("测试创建用户 - 唯一索引冲突翻译为业务异常")
+    void testCreateUserDuplicateKey() {
+        // Given
+        when(userRepository.insert(any(User.class))).thenThrow(new DuplicateKeyException(
+                "Duplicate entry 'test@example.com' for key 'users.uk_users_email'"));
+        
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> userService.createUser(testUserDTO));
+        assertEquals("邮箱已存在", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("测试创建用户 - 主键冲突不归因到用户名或邮箱")
+    void testCreateUserPrimaryKeyConflict() {
+        // Given
+        when(userRepository.insert(any(User.class))).thenThrow(new DuplicateKeyException(
+                "Duplicate entry '123' for key 'users.PRIMARY'"));
+        
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> userService.createUser(testUserDTO));
+        assertEquals(409, exception.getCode());
+        assertEquals("数据冲突，请重试", exception.getMessage());
+        verify(userRepository, never()).countByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("测试更新用户 - 版本不一致")
+    void testUpdateUserVersionConflict() {
+        // Given
+        testUserDTO.setVersion(3);
+        when(userRepository.updateByIdAndVersion(any(User.class), eq(3))).thenReturn(0);
+        when(userRepository.findUpdateTime(1L)).thenReturn(LocalDateTime.now());
+        
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> userService.updateUser(1L, testUserDTO));
+        assertEquals(409, exception.getCode());
+        verify(userRepository, never()).selectById(anyLong());
+    }
+
+    @Test
+    @DisplayName("测试更新用户 - 用户不存在")
+    void testUpdateUserNotFound() {
+        // Given
+        when(userRepository.updateByIdAndVersion(any(User.class), isNull())).thenReturn(0);
+        
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> userService.updateUser(99L, testUserDTO));
+        assertEquals("用户不存在", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("测试部分更新资料 - 未启用写回缓冲时直接写库")
+    void testUpdateProfileWriteThrough() {
+        // Given
+        when(userRepository.selectBatchIds(anyCollection())).thenReturn(List.of(testUser));
+        UserProfileDTO profileDTO = new UserProfileDTO();
+        profileDTO.setNickname("新昵称");
+        
+        // When
+        UserVO result = userService.updateProfile(1L, profileDTO);
+        
+        // Then
+        assertEquals("新昵称", result.getNickname());
+        assertEquals("13800138000", result.getPhone());
+        assertNotNull(result.getUpdateTime());
+        verify(userRepository, times(1)).updateProfiles(argThat(patches -> patches.size() == 1
+                && "新昵称".equals(patches.get(0).getNickname()) && patches.get(0).getPhone() == null));
+    }
+
+    @Test
+    @DisplayName("测试部分更新资料 - 字段均为空")
+    void testUpdateProfileEmpty() {
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> userService.updateProfile(1L, new UserProfileDTO()));
+        assertEquals(400, exception.getCode());
+        verify(userRepository, never()).updateProfiles(anyList());
+    }
+
+    @Test
+    @DisplayName("测试读取时叠加未写回的资料变更")
+    void testGetUserByIdOverlaysPendingProfile() {
+        // Given
+        when(userRepository.selectBatchIds(anyCollection())).thenReturn(List.of(testUser));
+        LocalDateTime pendingTime = LocalDateTime.of(2024, 1, 1, 12, 0);
+        doReturn(new UserProfilePatch(1L, null, "13900139000", pendingTime)).when(profileWriteBehind).getPending(1L);
+        doAnswer(invocation -> new UserProfilePatch(1L, null, "13900139000", pendingTime)
+                .applyTo(invocation.getArgument(0))).when(profileWriteBehind).overlay(any(UserVO.class));
+        
+        // When
+        UserVO result = userService.getUserById(1L);
+        
+        // Then
+        assertEquals("13900139000", result.getPhone());
+        assertEquals("测试用户", result.getNickname());
+        assertEquals(pendingTime, userService.getUserUpdateTime(1L));
+        verify(userRepository, never()).findUpdateTime(anyLong());
+    }
+
+    @Test
+    @DisplayName("测试布隆过滤器判定不存在时不访问数据库")
+    void testExistsByUsernameFilteredByBloom() {
+        // Given
+        existenceIndex.rebuild(consumer -> consumer.accept(testUser));
+        
+        // When
+        boolean result = userService.existsByUsername("nonexistent");
+        
+        // Then
+        assertFalse(result);
+        verify(userRepository, never()).countByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("测试布隆过滤器可能命中时回退到数据库")
+    void testExistsByEmailFallsThroughOnBloomHit() {
+        // Given
+        existenceIndex.rebuild(consumer -> consumer.accept(testUser));
+        when(userRepository.countByEmail("test@example.com")).thenReturn(1);
+        
+        // When
+        boolean result = userService.existsByEmail("test@example.com");
+        
+        // Then
+        assertTrue(result);
+        verify(userRepository, times(1)).countByEmail("test@example.com");
+    }
+
+    @Test
+    @DisplayName("测试游标分页 - 还有下一页")
+    void testListUsersHasMore() {
+        // Given
+        User second = new User();
+        second.setId(2L);
+        second.setUsername("second");
+        when(userRepository.findPageAfter(null, null, 2)).thenReturn(Arrays.asList(testUser, second));
+        
+        // When
+        CursorPageVO<UserVO> page = userService.listUsers(null, 1, null);
+        
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertEquals("testuser", page.getItems().get(0).getUsername());
+        assertTrue(page.isHasMore());
+        assertEquals(1L, page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("测试游标分页 - 最后一页且每页条数被截断")
+    void testListUsersLastPage() {
+        // Given
+        when(userRepository.findPageAfter(1L, List.of(1), 1001)).thenReturn(List.of(testUser));
+        
+        // When
+        CursorPageVO<UserVO> page = userService.listUsers(1L, 5000, List.of(1));
+        
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("测试流式导出用户并关闭游标")
+    @SuppressWarnings("unchecked")
+    void testExportUsers() throws Exception {
+        // Given
+        Cursor<User> cursor = mock(Cursor.class);
+        when(cursor.iterator()).thenReturn(List.of(testUser).iterator());
+        when(userRepository.streamAll()).thenReturn(cursor);
+        List<UserVO> exported = new ArrayList<>();
+        
+        // When
+        userService.exportUsers(exported::add);
+        
+        // Then
+        assertEquals(1, exported.size());
+        assertEquals("testuser", exported.get(0).getUsername());
+        verify(cursor, times(1)).close();
+    }
+
+    @Test
+    @DisplayName("测试批量创建用户逐条返回结果")
+    @SuppressWarnings("unchecked")
+    void testCreateUsers() {
+        // Given
+        UserDTO fresh = new UserDTO();
+        fresh.setUsername("newuser");
+        fresh.setPassword("password123");
+        fresh.setEmail("new@example.com");
+        UserDTO duplicate = new UserDTO();
+        duplicate.setUsername("NewUser");
+        duplicate.setPassword("password123");
+        duplicate.setEmail("other@example.com");
+        UserDTO invalid = new UserDTO();
+        invalid.setUsername("x");
+        invalid.setEmail("bad-email");
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of("TestUser"));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        when(userRepository.insertAll(anyList())).thenAnswer(invocation -> invocation.<List<User>>getArgument(0).size());
+        
+        // When
+        UserBatchResultVO result = userService.createUsers(List.of(fresh, duplicate, invalid, testUserDTO));
+        
+        // Then
+        assertEquals(4, result.getTotal());
+        assertEquals(1, result.getSucceeded());
+        assertEquals(3, result.getFailed());
+        assertTrue(result.getItems().get(0).isSuccess());
+        assertEquals(1L, SnowflakeIdGenerator.workerIdOf(result.getItems().get(0).getUser().getId()));
+        assertEquals(1, result.getItems().get(0).getUser().getStatus());
+        assertEquals("用户名已存在", result.getItems().get(1).getMessage());
+        assertFalse(result.getItems().get(2).isSuccess());
+        assertEquals("用户名已存在", result.getItems().get(3).getMessage());
+        verify(userRepository, times(1)).insertAll(anyList());
+    }
+    
+    @Test
+    @DisplayName("测试批量创建时块内唯一冲突逐行重试，只有冲突的行失败")
+    void testCreateUsersChunkConflictFallsBackToRows() {
+        // Given
+        UserDTO first = new UserDTO();
+        first.setUsername("first");
+        first.setPassword("password123");
+        first.setEmail("first@example.com");
+        UserDTO racing = new UserDTO();
+        racing.setUsername("racing");
+        racing.setPassword("password123");
+        racing.setEmail("racing@example.com");
+        when(userRepository.insertAll(anyList())).thenThrow(new DuplicateKeyException("Duplicate entry 'racing' for key 'users.uk_users_username'"));
+        when(userRepository.insert(any(User.class))).thenAnswer(invocation -> {
+            if ("racing".equals(invocation.<User>getArgument(0).getUsername())) {
+                throw new DuplicateKeyException("Duplicate entry 'racing' for key 'users.uk_users_username'");
+            }
+            return 1;
+        });
+        
+        // When
+        UserBatchResultVO result = userService.createUsers(List.of(first, racing));
+        
+        // Then
+        assertEquals(1, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertTrue(result.getItems().get(0).isSuccess());
+        assertEquals("first", result.getItems().get(0).getUser().getUsername());
+        assertFalse(result.getItems().get(1).isSuccess());
+        assertEquals("用户名已存在", result.getItems().get(1).getMessage());
+        verify(userRepository, times(2)).insert(any(User.class));
+    }
+    
+    @Test
+    @DisplayName("测试批量创建超过上限")
+    void testCreateUsersTooLarge() {
+        // Given
+        List<UserDTO> userDTOs = java.util.Collections.nCopies(10_001, testUserDTO);
+        
+        // When & Then
+        assertThrows(BusinessException.class, () -> userService.createUsers(userDTOs));
+        verify(userRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("测试按ID批量获取用户 - 去重并保持顺序")
+    void testGetUsersByIds() {
+        // Given
+        User other = new User();
+        other.setId(2L);
+        other.setUsername("other");
+        when(userRepository.selectBatchIds(anyCollection())).thenReturn(List.of(testUser, other));
+        
+        // When
+        List<UserVO> result = userService.getUsersByIds(List.of(2L, 1L, 2L, 3L));
+        
+        // Then
+        assertEquals(2, result.size());
+        assertEquals("other", result.get(0).getUsername());
+        assertEquals("testuser", result.get(1).getUsername());
+        verify(userRepository, times(1)).selectBatchIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("测试按用户名查询未命中缓存时经过去重层")
+    void testGetUserByUsernameSingleFlight() {
+        // Given
+        when(userRepository.findByUsername("testuser")).thenReturn(testUser);
+        
+        // When
+        UserVO result = userService.getUserByUsername("testuser");
+        userService.getUserByUsername("testuser");
+        
+        // Then
+        assertEquals(1L, result.getId());
+        verify(usernameSingleFlight, times(1)).execute(eq("testuser"), any());
+        verify(userRepository, times(1)).findByUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("测试子串搜索 - 索引就绪时不访问LIKE查询")
+    void testSearchUsersByUsernameIndexed() {
+        // Given
+        trigramIndex.rebuild(consumer -> consumer.accept(testUser));
+        when(userRepository.selectBatchIds(anyCollection())).thenReturn(List.of(testUser));
+        
+        // When
+        List<UserVO> result = userService.searchUsersByUsername("USER", 10, null);
+        
+        // Then
+        assertEquals(1, result.size());
+        assertEquals("testuser", result.get(0).getUsername());
+        verify(userRepository, never()).findByUsernameContaining(anyString(), any(), anyInt());
+    }
+    
+    @Test
+    @DisplayName("测试子串搜索 - 短查询回退数据库并限制数量")
+    void testSearchUsersByUsernameFallback() {
+        // Given
+        when(userRepository.findByUsernameContaining("te", null, 1000)).thenReturn(List.of(testUser));
+        
+        // When
+        List<UserVO> result = userService.searchUsersByUsername("te", 5000, null);
+        
+        // Then
+        assertEquals(1, result.size());
+        verify(userRepository, times(1)).findByUsernameContaining("te", null, 1000);
+    }
+
+    @Test
+    @DisplayName("测试自动补全 - 索引就绪与未就绪回退")
+    void testAutocomplete() {
+        // Given
+        when(userRepository.findEmailsStartingWith("test", 10)).thenReturn(List.of(testUser));
+        
+        // When
+        List<UserSuggestionVO> fallback = userService.autocomplete("test", 10, "email");
+        autocompleteIndex.rebuild(consumer -> consumer.accept(testUser));
+        List<UserSuggestionVO> indexed = userService.autocomplete("TEST", 10, "username");
+        
+        // Then
+        assertEquals("test@example.com", fallback.get(0).getValue());
+        assertEquals(1L, indexed.get(0).getId());
+        assertEquals("testuser", indexed.get(0).getValue());
+        verify(userRepository, never()).findUsernamesStartingWith(anyString(), anyInt());
+        assertThrows(BusinessException.class, () -> userService.autocomplete("t", 10, "phone"));
+    }
+
+    @Test
+    @DisplayName("测试按状态统计 - 位图索引与数据库回退")
+    void testGetUserStats() {
+        // Given
+        StatusCount active = new StatusCount();
+        active.setStatus(1);
+        active.setTotal(3L);
+        when(userRepository.countGroupByStatus()).thenReturn(List.of(active));
+        
+        // When
+        UserStatsVO fallback = userService.getUserStats();
+        User disabled = new User();
+        disabled.setId(2L);
+        disabled.setStatus(0);
+        statusIndex.rebuild(consumer -> {
+            consumer.accept(testUser);
+            consumer.accept(disabled);
+        });
+        UserStatsVO indexed = userService.getUserStats();
+        
+        // Then
+        assertEquals(3L, fallback.getTotal());
+        assertEquals(2L, indexed.getTotal());
+        assertEquals(1L, indexed.getByStatus().get(0));
+        verify(userRepository, times(1)).countGroupByStatus();
+    }
+    
+    @Test
+    @DisplayName("测试按状态分页 - 位图索引给出ID")
+    void testListUsersByStatusIndexed() {
+        // Given
+        User disabled = new User();
+        disabled.setId(2L);
+        disabled.setStatus(0);
+        User third = new User();
+        third.setId(3L);
+        third.setStatus(1);
+        statusIndex.rebuild(consumer -> {
+            consumer.accept(testUser);
+            consumer.accept(disabled);
+            consumer.accept(third);
+        });
+        when(userRepository.selectBatchIds(anyCollection())).thenReturn(List.of(testUser));
+        
+        // When
+        CursorPageVO<UserVO> page = userService.listUsers(null, 1, List.of(1));
+        
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals(1L, page.getNextCursor());
+        verify(userRepository, never()).findPageAfter(any(), any(), anyInt());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.service.cache;
+
+import com.example.api.vo.UserVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserCache单元测试
+ */
+@DisplayName("UserCache测试")
+class UserCacheTest {
+
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        userCache = new UserCache(new UserCacheProperties());
+    }
+
+    @Test
+    @DisplayName("测试按ID读穿并记录命中统计")
+    void testGetByIdReadThrough() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        
+        // When
+        userCache.getById(1L, id -> {
+            loads.incrementAndGet();
+            return userVO(id, "testuser");
+        });
+        UserVO cached = userCache.getById(1L, id -> {
+            loads.incrementAndGet();
+            return userVO(id, "testuser");
+        });
+        
+        // Then
+        assertEquals("testuser", cached.getUsername());
+        assertEquals(1, loads.get());
+        assertEquals(1, userCache.idStats().hitCount());
+        assertEquals(1, userCache.idStats().missCount());
+    }
+
+    @Test
+    @DisplayName("测试只读取已缓存的对象")
+    void testGetIfPresent() {
+        // Given
+        assertNull(userCache.getIfPresent(1L));
+        
+        // When
+        userCache.getById(1L, id -> userVO(id, "testuser"));
+        
+        // Then
+        assertEquals("testuser", userCache.getIfPresent(1L).getUsername());
+        assertNull(userCache.getIfPresent(2L));
+    }
+
+    @Test
+    @DisplayName("测试加载结果为空时不缓存")
+    void testNullNotCached() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        
+        // When
+        userCache.getById(1L, id -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        userCache.getById(1L, id -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("测试改名后旧用户名映射不再命中")
+    void testStaleUsernameMappingIgnored() {
+        // Given
+        userCache.put(userVO(1L, "olduser"));
+        
+        // When - 仅替换ID索引，旧用户名映射仍然存在
+        userCache.put(userVO(1L, "newuser"));
+        UserVO result = userCache.getByUsername("olduser", username -> null);
+        
+        // Then
+        assertNull(result);
+        assertEquals("newuser", userCache.getByUsername("newuser", username -> null).getUsername());
+    }
+
+    @Test
+    @DisplayName("测试按ID失效同时清除用户名映射")
+    void testInvalidate() {
+        // Given
+        userCache.put(userVO(1L, "testuser"));
+        
+        // When
+        userCache.invalidate(1L);
+        
+        // Then
+        AtomicInteger loads = new AtomicInteger();
+        userCache.getByUsername("testuser", username -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("测试关闭缓存时直接加载")
+    void testDisabled() {
+        // Given
+        UserCacheProperties properties = new UserCacheProperties();
+        properties.setEnabled(false);
+        UserCache disabled = new UserCache(properties);
+        AtomicInteger loads = new AtomicInteger();
+        
+        // When
+        disabled.getById(1L, id -> {
+            loads.incrementAndGet();
+            return userVO(id, "testuser");
+        });
+        disabled.getById(1L, id -> {
+            loads.incrementAndGet();
+            return userVO(id, "testuser");
+        });
+        
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    private UserVO userVO(Long id, String username) {
+        UserVO userVO = new UserVO();
+        userVO.setId(id);
+        userVO.setUsername(username);
+        return userVO;
+    }
+}
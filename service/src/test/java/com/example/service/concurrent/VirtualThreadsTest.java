@@ -0,0 +1,55 @@
+package com.example.service.concurrent;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * VirtualThreads单元测试
+ */
+@DisplayName("VirtualThreads测试")
+class VirtualThreadsTest {
+
+    @Test
+    @DisplayName("测试支持情况与运行时版本一致")
+    void testSupportedMatchesRuntime() {
+        // Then
+        assertEquals(Runtime.version().feature() >= 21, VirtualThreads.isSupported());
+    }
+
+    @Test
+    @DisplayName("测试Java 21以下创建执行器时报错")
+    void testUnsupportedRuntime() {
+        // Given
+        assumeFalse(VirtualThreads.isSupported());
+
+        // When & Then
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> VirtualThreads.newExecutor("test-"));
+        assertTrue(e.getMessage().contains("Java 21"));
+    }
+
+    @Test
+    @DisplayName("测试任务在命名的虚拟线程中执行")
+    void testExecutorRunsOnVirtualThreads() throws Exception {
+        // Given
+        assumeTrue(VirtualThreads.isSupported());
+        ExecutorService executor = VirtualThreads.newExecutor("test-");
+        try {
+            // When
+            Future<String> name = executor.submit(() -> Thread.currentThread().getName());
+            Future<Object> virtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+
+            // Then
+            assertTrue(name.get().startsWith("test-"));
+            assertEquals(Boolean.TRUE, virtual.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.service.converter;
+
+import com.example.api.dto.UserDTO;
+import com.example.api.vo.UserVO;
+import com.example.service.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserConverter单元测试
+ */
+@DisplayName("UserConverter测试")
+class UserConverterTest {
+
+    @Test
+    @DisplayName("测试实体转换为VO")
+    void testToVO() {
+        // Given
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setPassword("password123");
+        user.setEmail("test@example.com");
+        user.setCreateTime(LocalDateTime.now());
+
+        // When
+        UserVO userVO = UserConverter.INSTANCE.toVO(user);
+
+        // Then
+        assertEquals(1L, userVO.getId());
+        assertEquals("testuser", userVO.getUsername());
+        assertEquals(user.getCreateTime(), userVO.getCreateTime());
+    }
+
+    @Test
+    @DisplayName("测试新建实体忽略ID，更新实体保留ID与创建时间")
+    void testEntityMappingExclusions() {
+        // Given
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(99L);
+        userDTO.setUsername("renamed");
+        userDTO.setEmail("renamed@example.com");
+        LocalDateTime createTime = LocalDateTime.now().minusDays(1);
+        User user = new User();
+        user.setId(1L);
+        user.setNickname("旧昵称");
+        user.setCreateTime(createTime);
+
+        // When
+        User created = UserConverter.INSTANCE.toNewEntity(userDTO);
+        UserConverter.INSTANCE.updateEntity(userDTO, user);
+
+        // Then
+        assertNull(created.getId());
+        assertEquals(1L, user.getId());
+        assertEquals(createTime, user.getCreateTime());
+        assertEquals("renamed", user.getUsername());
+        // 与BeanUtils一致，DTO中的null同样覆盖
+        assertNull(user.getNickname());
+        assertNull(user.getStatus());
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.service.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ReadWriteRoutingDataSource单元测试，主库与副本是两个独立的H2内存库，各有一行标记数据
+ */
+@DisplayName("ReadWriteRoutingDataSource测试")
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String MARKER = "SELECT name FROM marker";
+
+    private ReadWriteRoutingDataSource routing;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        if (routing != null) {
+            routing.close();
+        }
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE marker (name VARCHAR(32))");
+        template.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+
+    private void setUp(Map<String, DataSource> replicas) {
+        routing = new ReadWriteRoutingDataSource(database("primary"), replicas, null, Duration.ofSeconds(1));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    private void setUp(DataSource replica) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica", replica);
+        setUp(replicas);
+    }
+
+    private String marker() {
+        return jdbcTemplate.queryForObject(MARKER, String.class);
+    }
+
+    @Test
+    @DisplayName("测试事务外与只读事务的读取走副本")
+    void testReadsGoToReplica() {
+        // Given
+        setUp(database("replica"));
+
+        // When
+        String plain = marker();
+        transactionTemplate.setReadOnly(true);
+        String readOnly = transactionTemplate.execute(status -> marker());
+
+        // Then
+        assertEquals("replica", plain);
+        assertEquals("replica", readOnly);
+    }
+
+    @Test
+    @DisplayName("测试写事务走主库")
+    void testWriteTransactionGoesToPrimary() {
+        // Given
+        setUp(database("replica"));
+
+        // When
+        String marker = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("UPDATE marker SET name = ?", "written");
+            return marker();
+        });
+
+        // Then
+        assertEquals("written", marker);
+        assertEquals("replica", marker());
+    }
+
+    @Test
+    @DisplayName("测试onPrimary内的读取走主库")
+    void testOnPrimary() {
+        // Given
+        setUp(database("replica"));
+
+        // When & Then
+        assertEquals("primary", ReadWriteContext.onPrimary(this::marker));
+        assertEquals("replica", marker());
+    }
+
+    @Test
+    @DisplayName("测试作用域内写入后与粘滞请求的读取走主库")
+    void testReadYourWrites() {
+        // Given
+        setUp(database("replica"));
+
+        // When & Then
+        try (ReadWriteContext.Scope scope = ReadWriteContext.open(false)) {
+            assertEquals("replica", marker());
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET name = ?", "written"));
+            assertTrue(scope.hasWritten());
+            assertEquals("written", marker());
+        }
+        try (ReadWriteContext.Scope ignored = ReadWriteContext.open(true)) {
+            assertEquals("written", marker());
+        }
+        assertEquals("replica", marker());
+    }
+
+    @Test
+    @DisplayName("测试副本不可用时回退到主库，健康检查恢复后重新路由")
+    void testFailover() {
+        // Given
+        ToggleDataSource replica = new ToggleDataSource(database("replica"));
+        setUp(replica);
+        replica.down = true;
+
+        // When & Then
+        assertEquals("primary", marker());
+        assertEquals(0, routing.healthyReplicas());
+        replica.down = false;
+        assertEquals("primary", marker());
+        routing.checkHealth();
+        assertEquals(1, routing.healthyReplicas());
+        assertEquals("replica", marker());
+    }
+
+    @Test
+    @DisplayName("测试读取在多个副本间轮询并跳过不健康的副本")
+    void testRoundRobin() {
+        // Given
+        ToggleDataSource second = new ToggleDataSource(database("replica-1"));
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", database("replica-0"));
+        replicas.put("replica-1", second);
+        setUp(replicas);
+
+        // When
+        Set<String> markers = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            markers.add(marker());
+        }
+        second.down = true;
+        Set<String> afterDown = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            afterDown.add(marker());
+        }
+
+        // Then
+        assertEquals(Set.of("replica-0", "replica-1"), markers);
+        assertEquals(Set.of("replica-0"), afterDown);
+    }
+
+    /**
+     * 可模拟宕机的数据源
+     */
+    private static final class ToggleDataSource extends DelegatingDataSource {
+
+        private volatile boolean down;
+
+        private ToggleDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("replica down");
+            }
+            return super.getConnection();
+        }
+    }
+}
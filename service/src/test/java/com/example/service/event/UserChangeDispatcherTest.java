@@ -0,0 +1,139 @@
+package com.example.service.event;
+
+import com.example.service.cache.UserCache;
+import com.example.service.cache.UserCacheProperties;
+import com.example.service.entity.User;
+import com.example.service.event.bus.LoopbackInvalidationBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserChangeDispatcher单元测试
+ */
+@DisplayName("UserChangeDispatcher测试")
+class UserChangeDispatcherTest {
+
+    private List<UserChangeEvent> nodeAEvents;
+    private List<UserChangeEvent> nodeBEvents;
+    private UserChangeDispatcher nodeA;
+    private UserChangeDispatcher nodeB;
+
+    @BeforeEach
+    void setUp() {
+        // 两个节点共享同一条进程内总线
+        LoopbackInvalidationBus bus = new LoopbackInvalidationBus();
+        nodeAEvents = new ArrayList<>();
+        nodeBEvents = new ArrayList<>();
+        nodeA = new UserChangeDispatcher("node-a", List.of(nodeAEvents::add), bus);
+        nodeB = new UserChangeDispatcher("node-b", List.of(nodeBEvents::add), bus);
+        nodeA.subscribe();
+        nodeB.subscribe();
+    }
+
+    @Test
+    @DisplayName("测试事件在本节点和其他节点各生效一次")
+    void testPublishReachesPeers() {
+        // Given
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        
+        // When
+        nodeA.publish(UserChangeEvent.updated(user));
+        
+        // Then
+        assertEquals(1, nodeAEvents.size());
+        assertEquals(1, nodeBEvents.size());
+        assertEquals("node-a", nodeBEvents.get(0).getOrigin());
+        assertEquals("testuser", nodeBEvents.get(0).getUsername());
+    }
+
+    @Test
+    @DisplayName("测试事务提交前不发布事件")
+    void testPublishDeferredUntilCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            nodeA.publish(UserChangeEvent.deleted(1L));
+            
+            // Then
+            assertTrue(nodeBEvents.isEmpty());
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+            assertEquals(1, nodeBEvents.size());
+            assertEquals(UserChangeEvent.Type.DELETED, nodeBEvents.get(0).getType());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("测试监听器异常不影响其他监听器")
+    void testListenerFailureIsolated() {
+        // Given
+        LoopbackInvalidationBus bus = new LoopbackInvalidationBus();
+        List<UserChangeEvent> received = new ArrayList<>();
+        UserChangeDispatcher dispatcher = new UserChangeDispatcher("node-c", List.of(
+                event -> {
+                    throw new IllegalStateException("listener failure");
+                },
+                received::add), bus);
+        
+        // When
+        dispatcher.publish(UserChangeEvent.deleted(1L));
+        
+        // Then
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    @DisplayName("测试监听器按@Order顺序回调，用户缓存先于派生缓存失效")
+    void testListenersInvokedInOrder() {
+        // Given
+        List<String> calls = new ArrayList<>();
+        UserCache userCache = new UserCache(new UserCacheProperties()) {
+            @Override
+            public void onUserChange(UserChangeEvent event) {
+                calls.add("userCache");
+            }
+        };
+        UserChangeListener derived = new DerivedListener(calls);
+        UserChangeDispatcher dispatcher = new UserChangeDispatcher("node-c", List.of(derived, userCache),
+                new LoopbackInvalidationBus());
+        User user = new User();
+        user.setId(1L);
+
+        // When
+        dispatcher.publish(UserChangeEvent.updated(user));
+
+        // Then
+        assertEquals(List.of("userCache", "derived"), calls);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    private static class DerivedListener implements UserChangeListener {
+
+        private final List<String> calls;
+
+        private DerivedListener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @Override
+        public void onUserChange(UserChangeEvent event) {
+            calls.add("derived");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.service.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SnowflakeIdGenerator单元测试
+ */
+@DisplayName("SnowflakeIdGenerator测试")
+class SnowflakeIdGeneratorTest {
+
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static final long START = EPOCH.toEpochMilli() + 1_000_000;
+
+    private final AtomicLong clock = new AtomicLong(START);
+
+    private SnowflakeIdGenerator generator(long workerId) {
+        return new SnowflakeIdGenerator(workerId, EPOCH, Duration.ofSeconds(1), clock::get);
+    }
+
+    @Test
+    @DisplayName("测试ID严格递增并包含生成时间与工作节点ID")
+    void testMonotonicAndLayout() {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(513, EPOCH, Duration.ofSeconds(1));
+        Instant before = Instant.now().minusMillis(1);
+
+        // When
+        long previous = 0;
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.nextId();
+            // Then
+            assertTrue(id > previous, "ID未递增: " + previous + " -> " + id);
+            assertEquals(513, SnowflakeIdGenerator.workerIdOf(id));
+            previous = id;
+        }
+        assertFalse(generator.timeOf(previous).isBefore(before));
+        assertFalse(generator.timeOf(previous).isAfter(Instant.now()));
+    }
+
+    @Test
+    @DisplayName("测试多线程并发生成的ID不重复")
+    void testConcurrentUniqueness() throws Exception {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, EPOCH, Duration.ofSeconds(1));
+        int threads = 8;
+        int perThread = 50_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        try {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }, executor);
+            }
+            CompletableFuture.allOf(futures).get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    @DisplayName("测试同一毫秒序列号用尽后等待下一毫秒")
+    void testSequenceExhaustion() throws Exception {
+        // Given
+        SnowflakeIdGenerator generator = generator(0);
+        for (int i = 0; i < 4096; i++) {
+            generator.nextId();
+        }
+
+        // When
+        CompletableFuture<Long> next = CompletableFuture.supplyAsync(generator::nextId);
+        Thread.sleep(50);
+        boolean blocked = !next.isDone();
+        clock.incrementAndGet();
+
+        // Then
+        assertTrue(blocked);
+        long id = next.get(5, TimeUnit.SECONDS);
+        assertEquals(Instant.ofEpochMilli(START + 1), generator.timeOf(id));
+        assertEquals(0, id & SnowflakeIdGenerator.SEQUENCE_MASK);
+    }
+
+    @Test
+    @DisplayName("测试容忍范围内的时钟回拨沿用上次时间戳，超过时拒绝生成")
+    void testClockBackward() {
+        // Given
+        SnowflakeIdGenerator generator = generator(0);
+        long before = generator.nextId();
+
+        // When
+        clock.addAndGet(-500);
+        long during = generator.nextId();
+        clock.addAndGet(-1000);
+
+        // Then
+        assertTrue(during > before);
+        assertEquals(generator.timeOf(before), generator.timeOf(during));
+        assertThrows(IllegalStateException.class, generator::nextId);
+        clock.set(START + 1);
+        assertTrue(generator.nextId() > during);
+    }
+
+    @Test
+    @DisplayName("测试工作节点ID超出范围")
+    void testInvalidWorkerId() {
+        assertThrows(IllegalArgumentException.class, () -> generator(-1));
+        assertThrows(IllegalArgumentException.class, () -> generator(SnowflakeIdGenerator.MAX_WORKER_ID + 1));
+        assertEquals(SnowflakeIdGenerator.MAX_WORKER_ID,
+                SnowflakeIdGenerator.workerIdOf(generator(SnowflakeIdGenerator.MAX_WORKER_ID).nextId()));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.service.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BloomFilter单元测试
+ */
+@DisplayName("BloomFilter测试")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("测试已写入元素不会漏判")
+    void testNoFalseNegatives() {
+        // Given
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+        
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+        }
+        assertEquals(10_000, filter.insertions());
+    }
+
+    @Test
+    @DisplayName("测试误判率接近目标值")
+    void testFalsePositiveRate() {
+        // Given
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+        
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        
+        // Then
+        double observed = falsePositives / 100_000.0;
+        assertTrue(observed < 0.02, "observed fpp " + observed);
+        assertTrue(filter.expectedFpp() < 0.02, "expected fpp " + filter.expectedFpp());
+    }
+
+    @Test
+    @DisplayName("测试非法参数")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1.0));
+    }
+}
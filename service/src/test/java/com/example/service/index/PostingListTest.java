@@ -0,0 +1,77 @@
+package com.example.service.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PostingList单元测试
+ */
+@DisplayName("PostingList测试")
+class PostingListTest {
+
+    @Test
+    @DisplayName("测试升序追加以差值变长编码存储")
+    void testAppendAscending() {
+        // Given
+        PostingList postings = new PostingList();
+
+        // When
+        for (long id = 1; id <= 1000; id++) {
+            postings.add(id);
+        }
+        postings.compact();
+
+        // Then
+        long[] ids = postings.toArray();
+        assertEquals(1000, ids.length);
+        assertEquals(1, ids[0]);
+        assertEquals(1000, ids[999]);
+        // 差值为1时每个ID只占1字节
+        assertEquals(1000, postings.sizeInBytes());
+    }
+
+    @Test
+    @DisplayName("测试乱序与重复写入后仍为去重升序")
+    void testOutOfOrderAndDuplicates() {
+        // Given
+        PostingList postings = new PostingList();
+        long[] writes = {100, 5, 300, 5, 42, 100, 1L << 40, 7};
+
+        // When
+        for (long id : writes) {
+            postings.add(id);
+        }
+        for (long id = 200; id > 150; id--) {
+            postings.add(id);
+        }
+
+        // Then
+        long[] ids = postings.toArray();
+        assertEquals(5, ids[0]);
+        assertEquals(7, ids[1]);
+        assertEquals(42, ids[2]);
+        assertEquals(1L << 40, ids[ids.length - 1]);
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i] > ids[i - 1]);
+        }
+        assertEquals(6 + 50, ids.length);
+    }
+
+    @Test
+    @DisplayName("测试雪花算法量级的大ID")
+    void testLargeIds() {
+        // Given
+        PostingList postings = new PostingList();
+        long base = 2_111_769_161_733_632_001L;
+
+        // When
+        postings.add(base);
+        postings.add(base + 4096);
+        postings.add(Long.MAX_VALUE);
+
+        // Then
+        assertArrayEquals(new long[]{base, base + 4096, Long.MAX_VALUE}, postings.toArray());
+    }
+}
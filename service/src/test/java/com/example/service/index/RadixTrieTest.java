@@ -0,0 +1,54 @@
+package com.example.service.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RadixTrie单元测试
+ */
+@DisplayName("RadixTrie测试")
+class RadixTrieTest {
+
+    @Test
+    @DisplayName("测试前缀查询按字典序返回并限制数量")
+    void testCollectInKeyOrder() {
+        // Given
+        RadixTrie trie = new RadixTrie();
+        trie.insert("romane", 1);
+        trie.insert("romanus", 2);
+        trie.insert("romulus", 3);
+        trie.insert("rubens", 4);
+        trie.insert("ruber", 5);
+        trie.insert("rom", 6);
+
+        // When & Then
+        assertArrayEquals(new long[]{6, 1, 2, 3}, trie.collect("rom", 10));
+        assertArrayEquals(new long[]{1, 2}, trie.collect("roma", 10));
+        assertArrayEquals(new long[]{5}, trie.collect("ruber", 10));
+        assertArrayEquals(new long[]{6, 1}, trie.collect("r", 2));
+        assertArrayEquals(new long[0], trie.collect("rx", 10));
+        assertArrayEquals(new long[0], trie.collect("romanez", 10));
+        assertEquals(6, trie.collect("", 100).length);
+    }
+
+    @Test
+    @DisplayName("测试删除与重复插入")
+    void testRemoveAndDuplicates() {
+        // Given
+        RadixTrie trie = new RadixTrie();
+        trie.insert("alice", 1);
+        trie.insert("alice", 1);
+        trie.insert("alice", 7);
+        trie.insert("alicia", 2);
+
+        // When
+        trie.remove("alice", 1);
+        trie.remove("alic", 2);
+
+        // Then
+        assertEquals(2, trie.size());
+        assertArrayEquals(new long[]{7, 2}, trie.collect("ali", 10));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.service.index;
+
+import com.example.service.entity.User;
+import com.example.service.event.UserChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserAutocompleteIndex单元测试
+ */
+@DisplayName("UserAutocompleteIndex测试")
+class UserAutocompleteIndexTest {
+
+    private UserAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserAutocompleteIndex();
+        index.rebuild(consumer -> {
+            consumer.accept(user(1L, "Alice", "alice@example.com"));
+            consumer.accept(user(2L, "alan", "alan@corp.com"));
+            consumer.accept(user(3L, "bob", "bob@example.com"));
+        });
+    }
+
+    @Test
+    @DisplayName("测试按用户名和邮箱前缀补全并返回原始值")
+    void testSuggest() {
+        // When
+        List<UserAutocompleteIndex.Suggestion> usernames =
+                index.suggest(UserAutocompleteIndex.Field.USERNAME, "AL", 10);
+        List<UserAutocompleteIndex.Suggestion> emails =
+                index.suggest(UserAutocompleteIndex.Field.EMAIL, "b", 10);
+
+        // Then
+        assertEquals(List.of(new UserAutocompleteIndex.Suggestion(2L, "alan"),
+                new UserAutocompleteIndex.Suggestion(1L, "Alice")), usernames);
+        assertEquals(List.of(new UserAutocompleteIndex.Suggestion(3L, "bob@example.com")), emails);
+        assertNull(new UserAutocompleteIndex().suggest(UserAutocompleteIndex.Field.USERNAME, "al", 10));
+    }
+
+    @Test
+    @DisplayName("测试增量维护改名和删除")
+    void testIncrementalChanges() {
+        // When
+        index.onUserChange(UserChangeEvent.updated(user(1L, "carol", "alice@example.com")));
+        index.onUserChange(UserChangeEvent.deleted(2L));
+
+        // Then
+        assertEquals(List.of(), index.suggest(UserAutocompleteIndex.Field.USERNAME, "al", 10));
+        assertEquals(1, index.suggest(UserAutocompleteIndex.Field.USERNAME, "car", 10).size());
+        assertEquals(1, index.suggest(UserAutocompleteIndex.Field.EMAIL, "al", 10).size());
+    }
+
+    private static User user(Long id, String username, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setStatus(1);
+        return user;
+    }
+}
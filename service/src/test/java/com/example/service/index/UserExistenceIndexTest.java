@@ -0,0 +1,142 @@
+package com.example.service.index;
+
+import com.example.service.entity.User;
+import com.example.service.event.UserChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserExistenceIndex单元测试
+ */
+@DisplayName("UserExistenceIndex测试")
+class UserExistenceIndexTest {
+
+    private UserExistenceIndex index;
+    private AtomicInteger queries;
+
+    @BeforeEach
+    void setUp() {
+        UserIndexProperties.Bloom properties = new UserIndexProperties.Bloom();
+        properties.setExpectedInsertions(1000);
+        index = new UserExistenceIndex(properties);
+        queries = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("测试构建前总是回退到数据库")
+    void testFallsThroughBeforeReady() {
+        // When
+        boolean exists = index.existsByUsername("anyone", this::queryReturnsFalse);
+        
+        // Then
+        assertFalse(index.isReady());
+        assertFalse(exists);
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    @DisplayName("测试大小写与重音归一化后不会漏判")
+    void testNormalization() {
+        // Given
+        index.rebuild(consumer -> consumer.accept(user("Jose", "Jose@Example.com")));
+        
+        // When & Then
+        index.existsByUsername("josé", this::queryReturnsFalse);
+        index.existsByEmail("jose@example.com ", this::queryReturnsFalse);
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    @DisplayName("测试新增用户事件写入过滤器")
+    void testCreatedEventAdded() {
+        // Given
+        index.rebuild(consumer -> { });
+        assertFalse(index.existsByUsername("newuser", this::queryReturnsFalse));
+        assertEquals(0, queries.get());
+        
+        // When
+        index.onUserChange(UserChangeEvent.created(user("newuser", "new@example.com")));
+        
+        // Then
+        index.existsByUsername("newuser", this::queryReturnsFalse);
+        assertEquals(1, queries.get());
+        assertEquals(1.0, index.observedFpp());
+    }
+
+    @Test
+    @DisplayName("测试重建期间的变更不会丢失")
+    void testChangesDuringRebuildKept() {
+        // Given
+        index.rebuild(consumer -> { });
+        
+        // When
+        index.rebuild(consumer -> {
+            consumer.accept(user("scanned", "scanned@example.com"));
+            index.onUserChange(UserChangeEvent.created(user("concurrent", "concurrent@example.com")));
+        });
+        
+        // Then
+        index.existsByUsername("scanned", this::queryReturnsFalse);
+        index.existsByUsername("concurrent", this::queryReturnsFalse);
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    @DisplayName("测试与过滤器切换并发的变更不会丢失")
+    void testChangesConcurrentWithSwapKept() throws Exception {
+        // Given
+        int total = 20000;
+        AtomicInteger committed = new AtomicInteger();
+        UserIndex.UserScanner scanner = consumer -> {
+            int visible = committed.get();
+            for (int i = 0; i < visible; i++) {
+                consumer.accept(user("user" + i, null));
+            }
+        };
+        index.rebuild(scanner);
+        // 先提交再发布事件，与事务提交后回调的顺序一致
+        Runnable write = () -> {
+            for (int i = committed.getAndIncrement(); i < total; i = committed.getAndIncrement()) {
+                index.onUserChange(UserChangeEvent.created(user("user" + i, null)));
+            }
+        };
+        List<Thread> writers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread writer = new Thread(write);
+            writer.start();
+            writers.add(writer);
+        }
+        
+        // When
+        while (writers.stream().anyMatch(Thread::isAlive)) {
+            index.rebuild(scanner);
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        
+        // Then
+        for (int i = 0; i < total; i++) {
+            assertTrue(index.mightContainUsername("user" + i), "变更丢失: user" + i);
+        }
+    }
+
+    private boolean queryReturnsFalse() {
+        queries.incrementAndGet();
+        return false;
+    }
+
+    private User user(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        return user;
+    }
+}
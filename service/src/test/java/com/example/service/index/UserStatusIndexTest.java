@@ -0,0 +1,83 @@
+package com.example.service.index;
+
+import com.example.service.entity.User;
+import com.example.service.event.UserChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserStatusIndex单元测试
+ */
+@DisplayName("UserStatusIndex测试")
+class UserStatusIndexTest {
+
+    private UserStatusIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserStatusIndex();
+        index.rebuild(consumer -> {
+            for (long id = 1; id <= 10; id++) {
+                consumer.accept(user(id, id % 3 == 0 ? 0 : 1));
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("测试按状态计数与多状态并集")
+    void testCounts() {
+        // When & Then
+        assertEquals(Map.of(0, 3L, 1, 7L), index.counts());
+        assertEquals(10L, index.count(List.of(0, 1)));
+        assertEquals(3L, index.count(List.of(0, 0, 2)));
+        assertEquals(0L, index.count(List.of(2)));
+        assertNull(new UserStatusIndex().counts());
+    }
+
+    @Test
+    @DisplayName("测试按状态游标取ID")
+    void testIdsAfter() {
+        // When & Then
+        assertEquals(List.of(3L, 6L), index.idsAfter(List.of(0), null, 2));
+        assertEquals(List.of(9L), index.idsAfter(List.of(0), 6L, 2));
+        assertEquals(List.of(5L, 6L, 7L), index.idsAfter(List.of(0, 1), 4L, 3));
+        assertEquals(List.of(8L, 9L, 10L), index.idsAfter(List.of(1, 0, 1, 2), 7L, 10));
+    }
+
+    @Test
+    @DisplayName("测试状态变更与删除后位图同步")
+    void testIncrementalChanges() {
+        // When
+        index.onUserChange(UserChangeEvent.updated(user(1L, 0)));
+        index.onUserChange(UserChangeEvent.deleted(3L));
+        index.onUserChange(UserChangeEvent.created(user(11L, 2)));
+
+        // Then
+        assertEquals(Map.of(0, 3L, 1, 6L, 2, 1L), index.counts());
+        LongPredicate matcher = index.matcher(List.of(0));
+        assertTrue(matcher.test(1L));
+        assertFalse(matcher.test(3L));
+        LongPredicate either = index.matcher(List.of(0, 2));
+        assertTrue(either.test(11L));
+        assertFalse(either.test(2L));
+        // 判定读取存储的位图，创建后的变更同样可见
+        index.onUserChange(UserChangeEvent.updated(user(2L, 0)));
+        assertTrue(either.test(2L));
+    }
+
+    private static User user(Long id, int status) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setStatus(status);
+        return user;
+    }
+}
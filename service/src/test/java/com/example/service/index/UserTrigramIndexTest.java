@@ -0,0 +1,86 @@
+package com.example.service.index;
+
+import com.example.service.entity.User;
+import com.example.service.event.UserChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserTrigramIndex单元测试
+ */
+@DisplayName("UserTrigramIndex测试")
+class UserTrigramIndexTest {
+
+    private UserTrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserTrigramIndex();
+        index.rebuild(consumer -> {
+            consumer.accept(user(1L, "alice"));
+            consumer.accept(user(2L, "Malicious"));
+            consumer.accept(user(3L, "bob"));
+            consumer.accept(user(4L, "alicia"));
+        });
+    }
+
+    @Test
+    @DisplayName("测试子串查询按ID升序返回并限制数量")
+    void testSearch() {
+        // When & Then
+        assertEquals(List.of(1L, 2L, 4L), index.search("ALI", 10));
+        assertEquals(List.of(1L, 2L), index.search("ali", 2));
+        assertEquals(List.of(2L), index.search("licious", 10));
+        assertEquals(List.of(), index.search("xyz", 10));
+    }
+
+    @Test
+    @DisplayName("测试短查询和未就绪时返回null以回退数据库")
+    void testFallback() {
+        // When & Then
+        assertNull(index.search("al", 10));
+        assertNull(new UserTrigramIndex().search("alice", 10));
+    }
+
+    @Test
+    @DisplayName("测试增量维护创建、改名和删除")
+    void testIncrementalChanges() {
+        // When
+        index.onUserChange(UserChangeEvent.created(user(5L, "charlie")));
+        index.onUserChange(UserChangeEvent.updated(user(1L, "alex")));
+        index.onUserChange(UserChangeEvent.deleted(4L));
+
+        // Then
+        assertEquals(List.of(5L), index.search("arl", 10));
+        assertEquals(List.of(2L), index.search("ali", 10));
+        assertEquals(List.of(1L), index.search("lex", 10));
+    }
+
+    @Test
+    @DisplayName("测试重建期间的变更不被扫描到的旧数据覆盖")
+    void testChangeDuringRebuild() {
+        // When
+        index.rebuild(consumer -> {
+            index.onUserChange(UserChangeEvent.updated(user(1L, "renamed")));
+            consumer.accept(user(1L, "alice"));
+        });
+
+        // Then
+        assertEquals(List.of(1L), index.search("ren", 10));
+        assertEquals(List.of(), index.search("alice", 10));
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setStatus(1);
+        return user;
+    }
+}
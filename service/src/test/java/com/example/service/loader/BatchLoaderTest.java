@@ -0,0 +1,201 @@
+package com.example.service.loader;
+
+import com.example.service.concurrent.VirtualThreads;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * BatchLoader单元测试
+ */
+@DisplayName("BatchLoader测试")
+class BatchLoaderTest {
+
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+
+    private BatchLoader<Long, String> loader(BatchLoaderProperties properties) {
+        return new BatchLoader<>("test", properties, ids -> {
+            batches.add(ids);
+            return ids.stream()
+                    .filter(id -> id > 0)
+                    .collect(Collectors.toMap(Function.identity(), id -> "user-" + id));
+        });
+    }
+
+    @Test
+    @DisplayName("测试窗口内的查询合并为一次批量查询")
+    void testCoalesceWithinWindow() {
+        // Given
+        BatchLoaderProperties properties = new BatchLoaderProperties();
+        properties.setWindow(Duration.ofMillis(50));
+        try (BatchLoader<Long, String> loader = loader(properties)) {
+            // When
+            CompletableFuture<String> first = loader.load(1L);
+            CompletableFuture<String> second = loader.load(2L);
+            CompletableFuture<String> duplicate = loader.load(1L);
+            CompletableFuture<String> missing = loader.load(-1L);
+
+            // Then
+            assertEquals("user-1", first.join());
+            assertEquals("user-2", second.join());
+            assertSame(first, duplicate);
+            assertNull(missing.join());
+            assertEquals(1, batches.size());
+            assertEquals(List.of(1L, 2L, -1L), batches.get(0));
+        }
+    }
+
+    @Test
+    @DisplayName("测试攒满最大批量时立即拆分查询")
+    void testSplitByMaxBatchSize() {
+        // Given
+        BatchLoaderProperties properties = new BatchLoaderProperties();
+        properties.setWindow(Duration.ofSeconds(10));
+        properties.setMaxBatchSize(2);
+        try (BatchLoader<Long, String> loader = loader(properties)) {
+            List<Long> ids = new ArrayList<>(List.of(1L, 2L, 3L, 4L));
+
+            // When
+            List<String> values = loader.getAll(ids);
+
+            // Then
+            assertEquals(List.of("user-1", "user-2", "user-3", "user-4"), values);
+            assertEquals(2, batches.size());
+        }
+    }
+
+    @Test
+    @DisplayName("测试批量查询失败时所有等待者收到原始异常")
+    void testFailurePropagates() {
+        // Given
+        BatchLoaderProperties properties = new BatchLoaderProperties();
+        try (BatchLoader<Long, String> loader = new BatchLoader<>("test", properties, ids -> {
+            throw new IllegalStateException("db down");
+        })) {
+            // When & Then
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> loader.get(1L));
+            assertEquals("db down", e.getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("测试未启用时在调用线程中逐键查询")
+    void testDisabled() {
+        // Given
+        BatchLoaderProperties properties = new BatchLoaderProperties();
+        properties.setEnabled(false);
+        try (BatchLoader<Long, String> loader = loader(properties)) {
+            // When
+            String value = loader.get(5L);
+
+            // Then
+            assertEquals("user-5", value);
+            assertEquals(List.of(List.of(5L)), batches);
+            assertTrue(loader.load(6L).isDone());
+        }
+    }
+
+    @Test
+    @DisplayName("测试窗口到期的批次在执行线程池中查询而不占用计时线程")
+    void testWindowFlushLeavesTimer() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        BatchLoaderProperties properties = new BatchLoaderProperties();
+        properties.setWindow(Duration.ofMillis(10));
+        properties.setThreads(2);
+        try (BatchLoader<Long, String> loader = new BatchLoader<>("test", properties, ids -> {
+            threads.add(Thread.currentThread().getName());
+            if (ids.contains(1L)) {
+                await(release);
+            }
+            return ids.stream().collect(Collectors.toMap(Function.identity(), id -> "user-" + id));
+        })) {
+            // When
+            CompletableFuture<String> slow = loader.load(1L);
+            while (threads.isEmpty()) {
+                Thread.sleep(1);
+            }
+            String fast = loader.load(2L).get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertEquals("user-2", fast);
+            assertFalse(slow.isDone());
+            release.countDown();
+            assertEquals("user-1", slow.join());
+            assertTrue(threads.stream().allMatch(thread -> thread.startsWith("test-loader-")));
+            assertTrue(threads.stream().noneMatch("test-loader-timer"::equals));
+        }
+    }
+
+    @Test
+    @DisplayName("测试执行队列已满时新批次直接失败")
+    void testRejectWhenQueueFull() {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        BatchLoaderProperties properties = new BatchLoaderProperties();
+        properties.setWindow(Duration.ofSeconds(10));
+        properties.setMaxBatchSize(1);
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        try (BatchLoader<Long, String> loader = new BatchLoader<>("test", properties, ids -> {
+            await(release);
+            return ids.stream().collect(Collectors.toMap(Function.identity(), id -> "user-" + id));
+        })) {
+            // When
+            CompletableFuture<String> running = loader.load(1L);
+            CompletableFuture<String> queued = loader.load(2L);
+            CompletableFuture<String> rejected = loader.load(3L);
+
+            // Then
+            assertTrue(rejected.isCompletedExceptionally());
+            assertThrows(RejectedExecutionException.class, () -> loader.get(3L));
+            release.countDown();
+            assertEquals("user-1", running.join());
+            assertEquals("user-2", queued.join());
+        }
+    }
+
+    @Test
+    @DisplayName("测试在虚拟线程中执行批量查询")
+    void testVirtualThreadDispatch() {
+        // Given
+        assumeTrue(VirtualThreads.isSupported());
+        List<String> threads = new CopyOnWriteArrayList<>();
+        BatchLoaderProperties properties = new BatchLoaderProperties();
+        properties.setWindow(Duration.ofMillis(20));
+        try (BatchLoader<Long, String> loader = new BatchLoader<>("test", properties, ids -> {
+            threads.add(Thread.currentThread().getName());
+            return ids.stream().collect(Collectors.toMap(Function.identity(), id -> "user-" + id));
+        }, true)) {
+            // When
+            List<String> values = loader.getAll(List.of(1L, 2L));
+
+            // Then
+            assertEquals(List.of("user-1", "user-2"), values);
+            assertEquals(1, threads.size());
+            assertTrue(threads.get(0).startsWith("test-loader-virtual-"));
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.service.loader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SingleFlight单元测试
+ */
+@DisplayName("SingleFlight测试")
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("测试并发的相同键只加载一次")
+    void testConcurrentCallsCollapsed() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            // When
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("hot", () -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "value";
+                })));
+            }
+            // 等待其余调用挂到进行中的加载上
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (singleFlight.collapsedCount() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // Then
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(callers - 1, singleFlight.collapsedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("测试加载结束后不缓存结果且异常原样抛出")
+    void testNoCachingAndFailure() {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test");
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        singleFlight.execute("key", () -> "v" + loads.incrementAndGet());
+        String second = singleFlight.execute("key", () -> "v" + loads.incrementAndGet());
+
+        // Then
+        assertEquals("v2", second);
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("db down");
+        }));
+        assertEquals(0, singleFlight.collapsedCount());
+    }
+}
@@ -0,0 +1,369 @@
+package com.example.service.sharding;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.service.config.MybatisPlusConfig;
+import com.example.service.entity.StatusCount;
+import com.example.service.entity.User;
+import com.example.service.id.SnowflakeIdGenerator;
+import com.example.service.writebehind.UserProfilePatch;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ShardedUserRepository单元测试，每个分片是一个独立的H2内存库
+ */
+@DisplayName("ShardedUserRepository测试")
+class ShardedUserRepositoryTest {
+
+    private static final int SHARDS = 3;
+
+    private ShardedUserRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MybatisPlusConfig config = new MybatisPlusConfig();
+        List<UserShard> shards = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            shards.add(UserShard.create(i, "shard-" + i, database(), config.metaObjectHandler(), config.mybatisPlusInterceptor()));
+        }
+        SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(0, Instant.parse("2024-01-01T00:00:00Z"), Duration.ofSeconds(1));
+        repository = new ShardedUserRepository(shards, idGenerator, Executors.newFixedThreadPool(SHARDS), Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    private static DriverManagerDataSource database() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:shard-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new FileSystemResource("../init.sql")).execute(dataSource);
+        return dataSource;
+    }
+
+    private static User user(String username, int status) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setEmail(username + "@example.com");
+        user.setStatus(status);
+        return user;
+    }
+
+    private List<User> insertUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = user("user" + i, i % 2);
+            repository.insert(user);
+            users.add(user);
+        }
+        return users;
+    }
+
+    @Test
+    @DisplayName("测试插入时分配ID并按ID路由，用户分布到全部分片")
+    void testInsertRoutesById() {
+        // When
+        List<User> users = insertUsers(30);
+
+        // Then
+        for (User user : users) {
+            assertNotNull(user.getId());
+            assertEquals(user.getUsername(), repository.shardOf(user.getId()).getUsers()
+                    .selectById(user.getId()).getUsername());
+            assertEquals(user.getUsername(), repository.selectById(user.getId()).getUsername());
+        }
+        for (UserShard shard : repository.getShards()) {
+            assertFalse(shard.getUsers().selectList(null).isEmpty(), shard.getName() + "没有分到用户");
+        }
+        assertEquals(30, repository.selectBatchIds(users.stream().map(User::getId).collect(Collectors.toList())).size());
+    }
+
+    @Test
+    @DisplayName("测试通过查找表按用户名和邮箱查询")
+    void testFindByLookup() {
+        // Given
+        User alice = user("alice", 1);
+        repository.insert(alice);
+
+        // When & Then
+        assertEquals(alice.getId(), repository.findByUsername("ALICE").getId());
+        assertEquals(alice.getId(), repository.findByEmail("alice@example.com").getId());
+        assertNull(repository.findByUsername("bob"));
+        assertEquals(List.of("alice"), repository.findExistingUsernames(List.of("alice", "bob")));
+    }
+
+    @Test
+    @DisplayName("测试用户名跨分片唯一，冲突时释放已占用的邮箱")
+    void testGlobalUniqueness() {
+        // Given
+        repository.insert(user("alice", 1));
+        User duplicate = user("Alice", 1);
+        duplicate.setEmail("other@example.com");
+
+        // When
+        DuplicateKeyException e = assertThrows(DuplicateKeyException.class, () -> repository.insert(duplicate));
+
+        // Then
+        assertTrue(e.getMessage().contains("uk_users_username"));
+        User other = user("other", 1);
+        other.setEmail("other@example.com");
+        assertEquals(1, repository.insert(other));
+        assertEquals(1, repository.countByUsername("alice"));
+    }
+
+    @Test
+    @DisplayName("测试改名释放旧用户名，删除释放全部查找键")
+    void testUpdateAndDeleteReleaseKeys() {
+        // Given
+        User alice = user("alice", 1);
+        repository.insert(alice);
+        User renamed = user("alice2", 1);
+        renamed.setId(alice.getId());
+        renamed.setEmail(alice.getEmail());
+
+        // When
+        int updated = repository.updateByIdAndVersion(renamed, 0);
+
+        // Then
+        assertEquals(1, updated);
+        assertNull(repository.findByUsername("alice"));
+        assertEquals(alice.getId(), repository.findByUsername("alice2").getId());
+        assertEquals(0, repository.updateByIdAndVersion(renamed, 0));
+        User reused = user("alice", 1);
+        reused.setEmail("reused@example.com");
+        assertEquals(1, repository.insert(reused));
+        assertEquals(1, repository.deleteById(alice.getId()));
+        assertNull(repository.findByUsername("alice2"));
+        assertTrue(repository.findExistingEmails(List.of(alice.getEmail())).isEmpty());
+    }
+
+    @Test
+    @DisplayName("测试游标分页与搜索归并各分片结果并保持ID顺序")
+    void testScatterGatherPage() {
+        // Given
+        List<Long> ids = insertUsers(30).stream()
+                .map(User::getId)
+                .sorted()
+                .collect(Collectors.toList());
+
+        // When
+        List<User> first = repository.findPageAfter(null, null, 10);
+        List<User> second = repository.findPageAfter(first.get(9).getId(), null, 10);
+        List<User> search = repository.findByUsernameContaining("user1", null, 5);
+
+        // Then
+        assertEquals(ids.subList(0, 10), first.stream().map(User::getId).collect(Collectors.toList()));
+        assertEquals(ids.subList(10, 20), second.stream().map(User::getId).collect(Collectors.toList()));
+        assertEquals(5, search.size());
+        assertTrue(search.stream().allMatch(user -> user.getUsername().contains("user1")));
+        assertEquals(search.stream().map(User::getId).sorted().collect(Collectors.toList()),
+                search.stream().map(User::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("测试按状态计数汇总各分片")
+    void testCountGroupByStatus() {
+        // Given
+        insertUsers(31);
+
+        // When
+        Map<Integer, Long> counts = repository.countGroupByStatus().stream()
+                .collect(Collectors.toMap(StatusCount::getStatus, StatusCount::getTotal));
+
+        // Then
+        assertEquals(Map.of(0, 16L, 1, 15L), counts);
+        assertEquals(31L, repository.selectCount(null));
+    }
+
+    @Test
+    @DisplayName("测试批量插入分配ID并占用查找键")
+    void testInsertAll() {
+        // Given
+        List<User> users = List.of(user("a1", 1), user("a2", 1), user("a3", 0));
+
+        // When
+        int inserted = repository.insertAll(new ArrayList<>(users));
+
+        // Then
+        assertEquals(3, inserted);
+        assertTrue(users.stream().allMatch(user -> user.getId() != null));
+        assertEquals(List.of("a1", "a3"), repository.findExistingUsernames(List.of("a1", "b1", "a3")));
+        assertThrows(DuplicateKeyException.class, () -> repository.insertAll(new ArrayList<>(List.of(user("b1", 1), user("a2", 1)))));
+        assertNull(repository.findByUsername("b1"));
+    }
+
+    @Test
+    @DisplayName("测试批量插入在后续分片失败时删除已写入的用户并释放查找键")
+    void testInsertAllCompensatesWrittenShards() {
+        // Given
+        User written = user("c1", 1);
+        written.setId(1L);
+        User failing = user("c2", 1);
+        failing.setId(LongStream.rangeClosed(2, 100)
+                .filter(id -> repository.shardOf(id) != repository.shardOf(1L))
+                .findFirst()
+                .orElseThrow());
+        failing.setPassword(null);
+
+        // When
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repository.insertAll(new ArrayList<>(List.of(written, failing))));
+
+        // Then
+        assertNull(repository.shardOf(1L).getUsers().selectById(1L));
+        assertTrue(repository.findExistingUsernames(List.of("c1", "c2")).isEmpty());
+        assertEquals(1, repository.insert(user("c1", 1)));
+    }
+
+    @Test
+    @DisplayName("测试按条件删除跨分片执行并释放查找键")
+    void testDeleteByWrapper() {
+        // Given
+        insertUsers(10);
+
+        // When
+        int deleted = repository.delete(new QueryWrapper<User>().eq("status", 0));
+        int deletedByMap = repository.deleteByMap(Map.of("username", "user1"));
+
+        // Then
+        assertEquals(5, deleted);
+        assertEquals(1, deletedByMap);
+        assertEquals(4L, repository.selectCount(null));
+        assertEquals(List.of("user3"), repository.findExistingUsernames(List.of("user0", "user1", "user3")));
+        assertEquals(1, repository.insert(user("user0", 1)));
+    }
+
+    @Test
+    @DisplayName("测试按条件更新：普通字段更新全部分片，改用户名同步查找表")
+    void testUpdateByWrapper() {
+        // Given
+        insertUsers(10);
+        User disabled = new User();
+        disabled.setStatus(2);
+        User renamed = new User();
+        renamed.setUsername("renamed");
+
+        // When
+        int updated = repository.update(disabled, new QueryWrapper<User>().eq("status", 0));
+        int renamedCount = repository.update(renamed, new QueryWrapper<User>().eq("username", "user1"));
+
+        // Then
+        assertEquals(5, updated);
+        assertEquals(5L, repository.selectCount(new QueryWrapper<User>().eq("status", 2)));
+        assertEquals(1, renamedCount);
+        assertNull(repository.findByUsername("user1"));
+        assertEquals("renamed", repository.findByUsername("renamed").getUsername());
+        assertThrows(DuplicateKeyException.class,
+                () -> repository.update(renamed, new QueryWrapper<User>().eq("username", "user3")));
+        assertThrows(UnsupportedOperationException.class,
+                () -> repository.update(null, new UpdateWrapper<User>().set("username", "x").eq("id", 1L)));
+    }
+
+    @Test
+    @DisplayName("测试分页查询按排序条件归并各分片并统计总数")
+    void testSelectPage() {
+        // Given
+        List<String> expected = insertUsers(20).stream()
+                .filter(user -> user.getStatus() == 1)
+                .map(User::getUsername)
+                .sorted(Comparator.reverseOrder())
+                .collect(Collectors.toList());
+
+        // When
+        Page<User> page = repository.selectPage(new Page<>(2, 3),
+                new QueryWrapper<User>().eq("status", 1).orderByDesc("username"));
+        Page<Map<String, Object>> maps = repository.selectMapsPage(new Page<>(2, 3),
+                new QueryWrapper<User>().select("id", "username").eq("status", 1).orderByDesc("username"));
+
+        // Then
+        assertEquals(10L, page.getTotal());
+        assertEquals(expected.subList(3, 6), page.getRecords().stream().map(User::getUsername).collect(Collectors.toList()));
+        assertEquals(10L, maps.getTotal());
+        assertEquals(expected.subList(3, 6), maps.getRecords().stream()
+                .map(row -> row.entrySet().stream()
+                        .filter(entry -> entry.getKey().equalsIgnoreCase("username"))
+                        .map(entry -> (String) entry.getValue())
+                        .findFirst()
+                        .orElseThrow())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("测试资料写回只修改昵称、手机号和更新时间，不递增版本号")
+    void testUpdateProfilesKeepsVersion() {
+        // Given
+        List<User> users = insertUsers(4);
+        LocalDateTime updateTime = LocalDateTime.of(2026, 1, 1, 12, 0);
+        List<UserProfilePatch> patches = users.stream()
+                .map(user -> new UserProfilePatch(user.getId(), "nick-" + user.getUsername(), null, updateTime))
+                .collect(Collectors.toList());
+
+        // When
+        int updated = repository.updateProfiles(patches);
+
+        // Then
+        assertEquals(4, updated);
+        for (User user : users) {
+            User saved = repository.selectById(user.getId());
+            assertEquals("nick-" + user.getUsername(), saved.getNickname());
+            assertEquals(updateTime, saved.getUpdateTime());
+            assertEquals(0, saved.getVersion());
+        }
+    }
+
+    @Test
+    @DisplayName("测试流式导出按ID归并各分片游标")
+    void testStreamAll() {
+        // Given
+        List<Long> ids = insertUsers(20).stream()
+                .map(User::getId)
+                .sorted()
+                .collect(Collectors.toList());
+        // 游标需要在事务同步内保持SqlSession打开
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database()));
+
+        // When
+        List<Long> streamed = transactionTemplate.execute(status -> {
+            try (Cursor<User> cursor = repository.streamAll()) {
+                List<Long> result = new ArrayList<>();
+                cursor.forEach(user -> result.add(user.getId()));
+                return result;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        // Then
+        assertEquals(ids, streamed);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.service.writebehind;
+
+import com.example.api.vo.UserVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserProfileWriteBehind单元测试
+ */
+@DisplayName("UserProfileWriteBehind测试")
+class UserProfileWriteBehindTest {
+
+    private final List<List<UserProfilePatch>> batches = new CopyOnWriteArrayList<>();
+
+    private UserProfileWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() {
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
+    }
+
+    private static UserWriteBehindProperties enabled() {
+        UserWriteBehindProperties properties = new UserWriteBehindProperties();
+        properties.setEnabled(true);
+        // 测试中手动触发写回
+        properties.setFlushInterval(Duration.ofHours(1));
+        return properties;
+    }
+
+    private static UserProfilePatch patch(long id, String nickname, String phone) {
+        return new UserProfilePatch(id, nickname, phone, LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("测试同一用户的多次更新合并为一条")
+    void testCoalesce() {
+        // Given
+        writeBehind = new UserProfileWriteBehind(enabled(), batches::add);
+
+        // When
+        writeBehind.submit(patch(1L, "a", null));
+        writeBehind.submit(patch(1L, null, "138"));
+        writeBehind.submit(patch(1L, "b", null));
+        writeBehind.submit(patch(2L, "c", null));
+        int flushed = writeBehind.flush();
+
+        // Then
+        assertEquals(2, flushed);
+        assertEquals(1, batches.size());
+        UserProfilePatch merged = batches.get(0).stream()
+                .filter(patch -> patch.getId() == 1L)
+                .findFirst()
+                .orElseThrow();
+        assertEquals("b", merged.getNickname());
+        assertEquals("138", merged.getPhone());
+        assertEquals(0, writeBehind.pendingCount());
+    }
+
+    @Test
+    @DisplayName("测试读取时叠加未写回的变更且不修改原对象")
+    void testOverlay() {
+        // Given
+        writeBehind = new UserProfileWriteBehind(enabled(), batches::add);
+        UserVO userVO = new UserVO();
+        userVO.setId(1L);
+        userVO.setNickname("old");
+        userVO.setPhone("100");
+
+        // When
+        writeBehind.submit(patch(1L, "new", null));
+        UserVO overlaid = writeBehind.overlay(userVO);
+
+        // Then
+        assertEquals("new", overlaid.getNickname());
+        assertEquals("100", overlaid.getPhone());
+        assertEquals("old", userVO.getNickname());
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    @DisplayName("测试未启用时直接写库")
+    void testWriteThroughWhenDisabled() {
+        // Given
+        writeBehind = new UserProfileWriteBehind(new UserWriteBehindProperties(), batches::add);
+
+        // When
+        writeBehind.submit(patch(1L, "a", null));
+
+        // Then
+        assertEquals(1, batches.size());
+        assertEquals(0, writeBehind.pendingCount());
+    }
+
+    @Test
+    @DisplayName("测试写回失败时保留变更")
+    void testFailedFlushKeepsPending() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+        writeBehind = new UserProfileWriteBehind(enabled(), batch -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("database down");
+            }
+            batches.add(batch);
+        });
+        writeBehind.submit(patch(1L, "a", null));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, writeBehind::flush);
+        assertEquals(1, writeBehind.pendingCount());
+        writeBehind.flush();
+        assertEquals(0, writeBehind.pendingCount());
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    @DisplayName("测试按批量大小拆分写回")
+    void testFlushInBatches() {
+        // Given
+        UserWriteBehindProperties properties = enabled();
+        properties.setBatchSize(2);
+        writeBehind = new UserProfileWriteBehind(properties, batches::add);
+        for (long id = 1; id <= 5; id++) {
+            writeBehind.submit(patch(id, "n" + id, null));
+        }
+
+        // When
+        writeBehind.flush();
+
+        // Then
+        List<Integer> sizes = new ArrayList<>();
+        batches.forEach(batch -> sizes.add(batch.size()));
+        assertEquals(List.of(2, 2, 1), sizes);
+    }
+
+    @Test
+    @DisplayName("测试缓冲用户数达到上限时提前写回")
+    void testFlushWhenFull() throws InterruptedException {
+        // Given
+        UserWriteBehindProperties properties = enabled();
+        properties.setMaxPending(3);
+        writeBehind = new UserProfileWriteBehind(properties, batches::add);
+
+        // When
+        for (long id = 1; id <= 3; id++) {
+            writeBehind.submit(patch(id, "n" + id, null));
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writeBehind.pendingCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertEquals(0, writeBehind.pendingCount());
+        assertEquals(3, batches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    @DisplayName("测试单个用户的同步写回")
+    void testFlushSingleUser() {
+        // Given
+        writeBehind = new UserProfileWriteBehind(enabled(), batches::add);
+        writeBehind.submit(patch(1L, "a", null));
+        writeBehind.submit(patch(2L, "b", null));
+
+        // When
+        writeBehind.flush(1L);
+
+        // Then
+        assertEquals(1, batches.size());
+        assertEquals(1L, batches.get(0).get(0).getId());
+        assertNull(writeBehind.getPending(1L));
+        assertNotNull(writeBehind.getPending(2L));
+    }
+
+    @Test
+    @DisplayName("测试关闭时写回剩余变更，之后的提交直接写库")
+    void testCloseDrains() {
+        // Given
+        writeBehind = new UserProfileWriteBehind(enabled(), batches::add);
+        writeBehind.submit(patch(1L, "a", null));
+        writeBehind.submit(patch(2L, "b", null));
+
+        // When
+        writeBehind.close();
+        writeBehind.submit(patch(3L, "c", null));
+
+        // Then
+        assertEquals(0, writeBehind.pendingCount());
+        assertEquals(3, batches.stream().mapToInt(List::size).sum());
+    }
+}
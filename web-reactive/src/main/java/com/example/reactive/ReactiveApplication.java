@@ -0,0 +1,15 @@
+package com.example.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * 响应式Web模块启动类
+ */
+@SpringBootApplication
+public class ReactiveApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveApplication.class, args);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.reactive.config;
+
+import com.example.common.id.Snowflake;
+import com.example.reactive.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import reactor.core.publisher.Mono;
+
+/**
+ * 用户ID生成配置类
+ * <p>
+ * users表的主键不再自增，新用户在插入前由雪花算法分配ID。
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(IdGeneratorProperties.class)
+public class IdGeneratorConfig {
+
+    @Bean
+    public Snowflake userIdGenerator(IdGeneratorProperties properties) {
+        if (properties.getWorkerId() == null) {
+            throw new IllegalStateException("未配置用户ID生成器的工作节点ID，请为每个实例设置不同的 user.id.worker-id 或环境变量 USER_ID_WORKER_ID");
+        }
+        log.info("用户ID生成器工作节点ID: {}", properties.getWorkerId());
+        return new Snowflake(properties.getWorkerId(), properties.getEpoch(), properties.getMaxClockBackward());
+    }
+
+    /**
+     * 保存前为没有ID的用户分配ID；实体是否新建由版本号判断，预先分配ID不会把插入变成更新
+     */
+    @Bean
+    public BeforeConvertCallback<User> userIdAssigner(Snowflake userIdGenerator) {
+        return (user, table) -> {
+            if (user.getId() == null) {
+                user.setId(userIdGenerator.nextId());
+            }
+            return Mono.just(user);
+        };
+    }
+}
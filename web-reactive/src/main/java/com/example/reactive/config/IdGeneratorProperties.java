@@ -0,0 +1,31 @@
+package com.example.reactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 用户ID生成配置，与service模块的同名配置含义相同
+ */
+@Data
+@ConfigurationProperties(prefix = "user.id")
+public class IdGeneratorProperties {
+
+    /**
+     * 工作节点ID，0到1023；与阻塞模块的实例共用同一ID空间，所有实例必须互不相同，通常由环境变量 {@code USER_ID_WORKER_ID} 注入。
+     * 没有默认值，未配置时应用启动失败
+     */
+    private Long workerId;
+
+    /**
+     * 时间戳的起点；必须与阻塞模块一致，上线后不能修改
+     */
+    private Instant epoch = Instant.parse("2024-01-01T00:00:00Z");
+
+    /**
+     * 可容忍的时钟回拨幅度，范围内沿用上次的时间戳，超过时拒绝生成ID
+     */
+    private Duration maxClockBackward = Duration.ofSeconds(1);
+}
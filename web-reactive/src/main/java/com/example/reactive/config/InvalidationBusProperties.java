@@ -0,0 +1,43 @@
+package com.example.reactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.UUID;
+
+/**
+ * 用户变更事件总线配置，与web模块的 {@code user.cache.bus} 取值保持一致
+ */
+@Data
+@ConfigurationProperties(prefix = "user.cache.bus")
+public class InvalidationBusProperties {
+
+    /**
+     * 总线类型：loopback（进程内，不通知web节点）或 redis
+     */
+    private String type = "loopback";
+
+    /**
+     * Redis频道名称
+     */
+    private String channel = "user:changes";
+
+    /**
+     * 当前节点ID，写入事件的来源字段；未配置时每次启动随机生成
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    private Outbox outbox = new Outbox();
+
+    /**
+     * 事务发件箱配置
+     */
+    @Data
+    public static class Outbox {
+
+        /**
+         * 是否启用发件箱；启用后事件随业务事务写入发件箱表，由web节点的中继广播
+         */
+        private boolean enabled = false;
+    }
+}
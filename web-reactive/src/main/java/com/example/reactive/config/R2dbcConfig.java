@@ -0,0 +1,25 @@
+package com.example.reactive.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.r2dbc.config.EnableR2dbcAuditing;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * R2DBC配置
+ * <p>
+ * 由审计回调填充创建时间和更新时间，截断到毫秒以与 DATETIME(3) 列的精度一致。
+ */
+@Configuration
+@EnableR2dbcAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
+public class R2dbcConfig {
+
+    @Bean
+    public DateTimeProvider auditingDateTimeProvider() {
+        return () -> Optional.of(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.reactive.config;
+
+import com.example.reactive.event.UserChangePublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * 用户变更事件配置类
+ */
+@Configuration
+@EnableConfigurationProperties(InvalidationBusProperties.class)
+public class UserChangeEventConfig {
+
+    /**
+     * 用户变更事件发布器；发件箱优先，其次是Redis总线
+     */
+    @Bean
+    public UserChangePublisher userChangePublisher(InvalidationBusProperties properties,
+                                                   ObjectMapper objectMapper,
+                                                   DatabaseClient databaseClient,
+                                                   ObjectProvider<ReactiveStringRedisTemplate> redisTemplate) {
+        if (properties.getOutbox().isEnabled()) {
+            return new UserChangePublisher(properties.getNodeId(), objectMapper, databaseClient, null, null);
+        }
+        if ("redis".equals(properties.getType())) {
+            return new UserChangePublisher(properties.getNodeId(), objectMapper, null,
+                    redisTemplate.getObject(), properties.getChannel());
+        }
+        return new UserChangePublisher(properties.getNodeId(), objectMapper, null, null, null);
+    }
+}
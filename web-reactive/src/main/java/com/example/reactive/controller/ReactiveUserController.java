@@ -0,0 +1,209 @@
+package com.example.reactive.controller;
+
+import com.example.api.dto.UserDTO;
+import com.example.api.vo.CursorPageVO;
+import com.example.api.vo.UserBatchResultVO;
+import com.example.api.vo.UserStatsVO;
+import com.example.api.vo.UserSuggestionVO;
+import com.example.api.vo.UserVO;
+import com.example.common.Result;
+import com.example.reactive.service.ReactiveUserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 响应式用户控制器，路由与 web 模块的 UserController 一致
+ * <p>
+ * 列表、搜索和导出另提供NDJSON流式响应：元素按客户端的消费速度从数据库拉取，
+ * 每次向上游最多请求 {@link #STREAM_PREFETCH} 行，慢客户端不会让服务端积压整表数据。
+ */
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class ReactiveUserController {
+
+    /**
+     * 流式响应向数据库预取的行数
+     */
+    private static final int STREAM_PREFETCH = 256;
+
+    private final ReactiveUserService userService;
+
+    /**
+     * 创建用户
+     */
+    @PostMapping
+    public Mono<Result<UserVO>> createUser(@Valid @RequestBody UserDTO userDTO) {
+        return userService.createUser(userDTO)
+                .map(userVO -> Result.success("用户创建成功", userVO))
+                .onErrorResume(e -> Mono.just(Result.error("操作失败")));
+    }
+
+    /**
+     * 批量创建用户
+     */
+    @PostMapping("/batch")
+    public Mono<Result<UserBatchResultVO>> createUsers(@RequestBody List<UserDTO> userDTOs) {
+        return userService.createUsers(userDTOs)
+                .map(result -> Result.success("批量创建完成", result))
+                .onErrorResume(e -> Mono.just(Result.error("操作失败")));
+    }
+
+    /**
+     * 根据ID获取用户
+     */
+    @GetMapping("/{id}")
+    public Mono<Result<UserVO>> getUserById(@PathVariable Long id) {
+        return userService.getUserById(id)
+                .map(Result::success)
+                .defaultIfEmpty(Result.error(404, "用户不存在"))
+                .onErrorResume(e -> Mono.just(Result.error("操作失败")));
+    }
+
+    /**
+     * 按ID批量获取用户
+     */
+    @PostMapping("/batch-get")
+    public Mono<Result<List<UserVO>>> getUsersByIds(@RequestBody List<Long> ids) {
+        return userService.getUsersByIds(ids)
+                .map(Result::success)
+                .onErrorResume(e -> Mono.just(Result.error("操作失败")));
+    }
+
+    /**
+     * 根据用户名获取用户
+     */
+    @GetMapping("/username/{username}")
+    public Mono<Result<UserVO>> getUserByUsername(@PathVariable String username) {
+        return userService.getUserByUsername(username)
+                .map(Result::success)
+                .defaultIfEmpty(Result.error("用户不存在"))
+                .onErrorResume(e -> Mono.just(Result.error("操作失败")));
+    }
+
+    /**
+     * 游标分页获取用户
+     */
+    @GetMapping
+    public Mono<Result<CursorPageVO<UserVO>>> listUsers(@RequestParam(required = false) Long after,
+                                                        @RequestParam(defaultValue = "20") int limit,
+                                                        @RequestParam(required = false) List<Integer> status) {
+        return userService.listUsers(after, limit, status)
+                .map(Result::success)
+                .onErrorResume(e -> Mono.just(Result.error("操作失败")));
+    }
+
+    /**
+     * 以NDJSON流式返回游标之后的全部用户
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserVO> streamUsers(@RequestParam(required = false) Long after,
+                                    @RequestParam(required = false) List<Integer> status) {
+        return userService.streamUsers(after, status).limitRate(STREAM_PREFETCH);
+    }
+
+    /**
+     * 以NDJSON流式导出全部用户
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserVO> exportUsers() {
+        return userService.exportUsers().limitRate(STREAM_PREFETCH);
+    }
+
+    /**
+     * 更新用户
+     */
+    @PutMapping("/{id}")
+    public Mono<Result<UserVO>> updateUser(@PathVariable Long id, @Valid @RequestBody UserDTO userDTO) {
+        return userService.updateUser(id, userDTO)
+                .map(userVO -> Result.success("用户更新成功", userVO))
+                .onErrorResume(e -> Mono.just(Result.error("操作失败")));
+    }
+
+    /**
+     * 删除用户
+     */
+    @DeleteMapping("/{id}")
+    public Mono<Result<Void>> deleteUser(@PathVariable Long id) {
+        return userService.deleteUser(id)
+                .then(Mono.just(Result.<Void>success("用户删除成功", null)))
+                .onErrorResume(e -> Mono.just(Result.error("操作失败")));
+    }
+
+    /**
+     * 根据用户名搜索用户
+     */
+    @GetMapping("/search")
+    public Mono<Result<List<UserVO>>> searchUsers(@RequestParam String username,
+                                                  @RequestParam(defaultValue = "20") int limit,
+                                                  @RequestParam(required = false) List<Integer> status) {
+        return userService.searchUsersByUsername(username, limit, status)
+                .map(Result::success)
+                .onErrorResume(e -> Mono.just(Result.error("操作失败")));
+    }
+
+    /**
+     * 以NDJSON流式返回用户名包含子串的全部用户
+     */
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserVO> streamSearchUsers(@RequestParam String username,
+                                          @RequestParam(required = false) List<Integer> status) {
+        return userService.streamUsersByUsername(username, status).limitRate(STREAM_PREFETCH);
+    }
+
+    /**
+     * 按状态统计用户数
+     */
+    @GetMapping("/stats")
+    public Mono<Result<UserStatsVO>> getUserStats() {
+        return userService.getUserStats()
+                .map(Result::success)
+                .onErrorResume(e -> Mono.just(Result.error("操作失败")));
+    }
+
+    /**
+     * 按前缀自动补全用户名或邮箱
+     */
+    @GetMapping("/autocomplete")
+    public Mono<Result<List<UserSuggestionVO>>> autocomplete(@RequestParam String prefix,
+                                                             @RequestParam(defaultValue = "10") int limit,
+                                                             @RequestParam(defaultValue = "username") String field) {
+        return userService.autocomplete(prefix, limit, field)
+                .map(Result::success)
+                .onErrorResume(e -> Mono.just(Result.error("操作失败")));
+    }
+
+    /**
+     * 检查用户名是否存在
+     */
+    @GetMapping("/check-username")
+    public Mono<Result<Boolean>> checkUsername(@RequestParam String username) {
+        return userService.existsByUsername(username)
+                .map(Result::success)
+                .onErrorResume(e -> Mono.just(Result.error("操作失败")));
+    }
+
+    /**
+     * 检查邮箱是否存在
+     */
+    @GetMapping("/check-email")
+    public Mono<Result<Boolean>> checkEmail(@RequestParam String email) {
+        return userService.existsByEmail(email)
+                .map(Result::success)
+                .onErrorResume(e -> Mono.just(Result.error("操作失败")));
+    }
+}
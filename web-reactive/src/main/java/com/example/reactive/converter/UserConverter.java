@@ -0,0 +1,43 @@
+package com.example.reactive.converter;
+
+import com.example.api.dto.UserDTO;
+import com.example.api.vo.UserVO;
+import com.example.reactive.entity.User;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * 用户对象转换器
+ */
+@Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface UserConverter {
+
+    UserConverter INSTANCE = Mappers.getMapper(UserConverter.class);
+
+    /**
+     * 实体转换为VO
+     */
+    UserVO toVO(User user);
+
+    /**
+     * DTO转换为新建实体，忽略ID
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    User toNewEntity(UserDTO userDTO);
+
+    /**
+     * 用DTO覆盖已有实体，不修改ID和创建时间；来源字段为null时保留原值，
+     * 与 service 模块中MyBatis-Plus只更新非空字段的行为一致
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createTime", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void updateEntity(UserDTO userDTO, @MappingTarget User user);
+}
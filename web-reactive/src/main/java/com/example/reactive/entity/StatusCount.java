@@ -0,0 +1,14 @@
+package com.example.reactive.entity;
+
+import lombok.Data;
+
+/**
+ * 按状态分组的计数结果
+ */
+@Data
+public class StatusCount {
+
+    private Integer status;
+
+    private Long total;
+}
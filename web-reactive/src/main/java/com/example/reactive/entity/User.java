@@ -0,0 +1,45 @@
+package com.example.reactive.entity;
+
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户实体类，与service模块的实体映射同一张表
+ */
+@Data
+@Table("users")
+public class User {
+
+    @Id
+    private Long id;
+
+    private String username;
+
+    private String password;
+
+    private String email;
+
+    private String nickname;
+
+    private String phone;
+
+    private Integer status = 1; // 1: 正常, 0: 禁用
+
+    @CreatedDate
+    private LocalDateTime createTime;
+
+    @LastModifiedDate
+    private LocalDateTime updateTime;
+
+    /**
+     * 乐观锁版本号，保存时校验并加一
+     */
+    @Version
+    private Integer version;
+}
@@ -0,0 +1,67 @@
+package com.example.reactive.event;
+
+import com.example.reactive.entity.User;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户变更事件
+ * <p>
+ * 与service模块的同名事件JSON格式一致，web模块的节点据此失效缓存并维护索引。删除事件只包含ID。
+ */
+@Data
+@NoArgsConstructor
+public class UserChangeEvent {
+
+    /**
+     * 变更类型
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private Type type;
+
+    private Long id;
+
+    private String username;
+
+    private String email;
+
+    private Integer status;
+
+    /**
+     * 发布事件的节点ID
+     */
+    private String origin;
+
+    /**
+     * 发布时间戳（毫秒）
+     */
+    private long timestamp;
+
+    public static UserChangeEvent created(User user) {
+        return of(Type.CREATED, user);
+    }
+
+    public static UserChangeEvent updated(User user) {
+        return of(Type.UPDATED, user);
+    }
+
+    public static UserChangeEvent deleted(Long id) {
+        UserChangeEvent event = new UserChangeEvent();
+        event.setType(Type.DELETED);
+        event.setId(id);
+        return event;
+    }
+
+    private static UserChangeEvent of(Type type, User user) {
+        UserChangeEvent event = new UserChangeEvent();
+        event.setType(type);
+        event.setId(user.getId());
+        event.setUsername(user.getUsername());
+        event.setEmail(user.getEmail());
+        event.setStatus(user.getStatus());
+        return event;
+    }
+}
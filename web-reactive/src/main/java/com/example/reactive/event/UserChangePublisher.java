@@ -0,0 +1,133 @@
+package com.example.reactive.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 用户变更事件发布器
+ * <p>
+ * 与web模块的 {@code UserChangeDispatcher} 对应：启用发件箱时事件在当前事务内写入发件箱表，由web节点的中继广播；
+ * 否则在事务提交后发布到Redis频道，回滚则丢弃。两者都未配置时（进程内总线）没有可通知的节点，不发布。
+ */
+@Slf4j
+public class UserChangePublisher {
+
+    /**
+     * 发件箱多行INSERT每条语句的行数
+     */
+    private static final int OUTBOX_INSERT_CHUNK = 500;
+
+    private final String nodeId;
+
+    private final ObjectMapper objectMapper;
+
+    private final DatabaseClient outboxClient;
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    private final String channel;
+
+    /**
+     * @param outboxClient  写发件箱的数据库客户端，未启用发件箱时为null
+     * @param redisTemplate 广播用的Redis模板，启用发件箱或不使用Redis时为null
+     */
+    public UserChangePublisher(String nodeId, ObjectMapper objectMapper, DatabaseClient outboxClient,
+                               ReactiveStringRedisTemplate redisTemplate, String channel) {
+        this.nodeId = nodeId;
+        this.objectMapper = objectMapper;
+        this.outboxClient = outboxClient;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public Mono<Void> publish(UserChangeEvent event) {
+        return publishAll(List.of(event));
+    }
+
+    /**
+     * 批量发布变更：发件箱以多行INSERT写入，Redis只注册一次提交回调
+     */
+    public Mono<Void> publishAll(List<UserChangeEvent> events) {
+        if (events.isEmpty() || (outboxClient == null && redisTemplate == null)) {
+            return Mono.empty();
+        }
+        long now = System.currentTimeMillis();
+        for (UserChangeEvent event : events) {
+            event.setOrigin(nodeId);
+            event.setTimestamp(now);
+        }
+        if (outboxClient != null) {
+            return writeOutbox(events);
+        }
+        return afterCommit(Mono.defer(() -> broadcast(events)));
+    }
+
+    private Mono<Void> writeOutbox(List<UserChangeEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        return Flux.fromIterable(events)
+                .map(this::toJson)
+                .buffer(OUTBOX_INSERT_CHUNK)
+                .concatMap(payloads -> {
+                    StringBuilder sql = new StringBuilder("INSERT INTO user_change_outbox (payload, create_time) VALUES ");
+                    for (int i = 0; i < payloads.size(); i++) {
+                        sql.append(i == 0 ? "" : ", ").append("(:payload").append(i).append(", :createTime").append(i).append(')');
+                    }
+                    DatabaseClient.GenericExecuteSpec spec = outboxClient.sql(sql.toString());
+                    for (int i = 0; i < payloads.size(); i++) {
+                        spec = spec.bind("payload" + i, payloads.get(i)).bind("createTime" + i, now);
+                    }
+                    return spec.then();
+                })
+                .then();
+    }
+
+    private Mono<Void> broadcast(List<UserChangeEvent> events) {
+        return Flux.fromIterable(events)
+                .concatMap(event -> redisTemplate.convertAndSend(channel, toJson(event)))
+                .then()
+                // 广播失败只影响其他节点的缓存新鲜度，不影响已提交的业务
+                .onErrorResume(e -> {
+                    log.warn("用户变更事件广播失败: {}条", events.size(), e);
+                    return Mono.empty();
+                });
+    }
+
+    private String toJson(UserChangeEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("用户变更事件序列化失败", e);
+        }
+    }
+
+    /**
+     * 在事务内调用时于提交后执行，无事务时立即执行
+     */
+    private static Mono<Void> afterCommit(Mono<Void> action) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .flatMap(manager -> {
+                    if (!manager.isSynchronizationActive()) {
+                        return action;
+                    }
+                    manager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return action;
+                        }
+                    });
+                    return Mono.<Void>empty();
+                })
+                .onErrorResume(NoTransactionException.class, e -> action);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.reactive.repository;
+
+import com.example.reactive.entity.User;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+/**
+ * 条件可选的用户查询，由 {@link ReactiveUserQueriesImpl} 按参数拼装条件
+ */
+public interface ReactiveUserQueries {
+
+    /**
+     * 按ID游标分页查询，可选按状态过滤（多个状态取并集）
+     *
+     * @param after    游标，为null时从头开始
+     * @param statuses 状态过滤，为null或空时不过滤
+     * @param limit    最大条数，为null时不限制
+     */
+    Flux<User> findPageAfter(Long after, Collection<Integer> statuses, Integer limit);
+
+    /**
+     * 根据用户名模糊查询，可选按状态过滤，按ID升序
+     *
+     * @param limit 最大条数，为null时不限制
+     */
+    Flux<User> findByUsernameContaining(String username, Collection<Integer> statuses, Integer limit);
+}
@@ -0,0 +1,50 @@
+package com.example.reactive.repository;
+
+import com.example.reactive.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+/**
+ * 条件可选的用户查询实现，对应 UserRepository 中的动态SQL
+ */
+@RequiredArgsConstructor
+public class ReactiveUserQueriesImpl implements ReactiveUserQueries {
+
+    private final R2dbcEntityTemplate template;
+
+    @Override
+    public Flux<User> findPageAfter(Long after, Collection<Integer> statuses, Integer limit) {
+        Criteria criteria = Criteria.empty();
+        if (after != null) {
+            criteria = criteria.and("id").greaterThan(after);
+        }
+        return select(withStatuses(criteria, statuses), limit);
+    }
+
+    @Override
+    public Flux<User> findByUsernameContaining(String username, Collection<Integer> statuses, Integer limit) {
+        Criteria criteria = Criteria.where("username").like("%" + username + "%");
+        return select(withStatuses(criteria, statuses), limit);
+    }
+
+    private static Criteria withStatuses(Criteria criteria, Collection<Integer> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return criteria;
+        }
+        return criteria.and("status").in(statuses);
+    }
+
+    private Flux<User> select(Criteria criteria, Integer limit) {
+        Query query = Query.query(criteria).sort(Sort.by("id"));
+        if (limit != null) {
+            query = query.limit(limit);
+        }
+        return template.select(query, User.class);
+    }
+}
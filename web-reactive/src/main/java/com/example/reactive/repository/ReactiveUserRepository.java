@@ -0,0 +1,83 @@
+package com.example.reactive.repository;
+
+import com.example.reactive.entity.StatusCount;
+import com.example.reactive.entity.User;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * 响应式用户数据访问层，查询与 service 模块的 UserRepository 一一对应
+ */
+public interface ReactiveUserRepository extends R2dbcRepository<User, Long>, ReactiveUserQueries {
+
+    /**
+     * 根据用户名查找用户
+     */
+    @Query("SELECT * FROM users WHERE username = :username")
+    Mono<User> findByUsername(@Param("username") String username);
+
+    /**
+     * 根据邮箱查找用户
+     */
+    @Query("SELECT * FROM users WHERE email = :email")
+    Mono<User> findByEmail(@Param("email") String email);
+
+    /**
+     * 根据状态查找用户列表
+     */
+    @Query("SELECT * FROM users WHERE status = :status")
+    Flux<User> findByStatus(@Param("status") Integer status);
+
+    /**
+     * 检查用户名是否存在
+     */
+    @Query("SELECT COUNT(*) FROM users WHERE username = :username")
+    Mono<Long> countByUsername(@Param("username") String username);
+
+    /**
+     * 检查邮箱是否存在
+     */
+    @Query("SELECT COUNT(*) FROM users WHERE email = :email")
+    Mono<Long> countByEmail(@Param("email") String email);
+
+    /**
+     * 按用户名前缀查询ID与用户名，按用户名排序
+     */
+    @Query("SELECT id, username FROM users WHERE username LIKE CONCAT(:prefix, '%') ORDER BY username LIMIT :limit")
+    Flux<User> findUsernamesStartingWith(@Param("prefix") String prefix, @Param("limit") int limit);
+
+    /**
+     * 按邮箱前缀查询ID与邮箱，按邮箱排序
+     */
+    @Query("SELECT id, email FROM users WHERE email LIKE CONCAT(:prefix, '%') ORDER BY email LIMIT :limit")
+    Flux<User> findEmailsStartingWith(@Param("prefix") String prefix, @Param("limit") int limit);
+
+    /**
+     * 按状态分组计数
+     */
+    @Query("SELECT status, COUNT(*) AS total FROM users GROUP BY status")
+    Flux<StatusCount> countGroupByStatus();
+
+    /**
+     * 按ID顺序读取全部用户，行按订阅方的请求量从驱动拉取
+     */
+    @Query("SELECT * FROM users ORDER BY id")
+    Flux<User> streamAll();
+
+    /**
+     * 批量查询已存在的用户名
+     */
+    @Query("SELECT username FROM users WHERE username IN (:usernames)")
+    Flux<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * 批量查询已存在的邮箱
+     */
+    @Query("SELECT email FROM users WHERE email IN (:emails)")
+    Flux<String> findExistingEmails(@Param("emails") Collection<String> emails);
+}
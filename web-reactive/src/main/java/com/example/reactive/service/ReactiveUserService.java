@@ -0,0 +1,102 @@
+package com.example.reactive.service;
+
+import com.example.api.dto.UserDTO;
+import com.example.api.vo.CursorPageVO;
+import com.example.api.vo.UserBatchResultVO;
+import com.example.api.vo.UserStatsVO;
+import com.example.api.vo.UserSuggestionVO;
+import com.example.api.vo.UserVO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 响应式用户服务接口，业务规则与 service 模块的 UserService 一致
+ */
+public interface ReactiveUserService {
+
+    /**
+     * 创建用户
+     */
+    Mono<UserVO> createUser(UserDTO userDTO);
+
+    /**
+     * 批量创建用户，逐条返回校验与创建结果
+     */
+    Mono<UserBatchResultVO> createUsers(List<UserDTO> userDTOs);
+
+    /**
+     * 根据ID获取用户，用户不存在时为空
+     */
+    Mono<UserVO> getUserById(Long id);
+
+    /**
+     * 按ID批量获取用户，结果按请求顺序排列，不存在的ID被忽略
+     */
+    Mono<List<UserVO>> getUsersByIds(List<Long> ids);
+
+    /**
+     * 根据用户名获取用户，用户不存在时为空
+     */
+    Mono<UserVO> getUserByUsername(String username);
+
+    /**
+     * 游标分页获取用户
+     *
+     * @param after    上一页最后一条记录的ID，为null时从头开始
+     * @param limit    每页条数，超出范围时截断到[1, 1000]
+     * @param statuses 用户状态过滤，多个状态取并集，为null或空时不过滤
+     */
+    Mono<CursorPageVO<UserVO>> listUsers(Long after, int limit, List<Integer> statuses);
+
+    /**
+     * 从游标之后按ID顺序流式读取用户，不限条数，由订阅方的请求量控制读取速度
+     */
+    Flux<UserVO> streamUsers(Long after, List<Integer> statuses);
+
+    /**
+     * 按ID顺序流式导出全部用户
+     */
+    Flux<UserVO> exportUsers();
+
+    /**
+     * 更新用户
+     */
+    Mono<UserVO> updateUser(Long id, UserDTO userDTO);
+
+    /**
+     * 删除用户
+     */
+    Mono<Void> deleteUser(Long id);
+
+    /**
+     * 根据用户名子串查询用户，可选按状态过滤（多个状态取并集），按ID升序最多返回limit个
+     */
+    Mono<List<UserVO>> searchUsersByUsername(String username, int limit, List<Integer> statuses);
+
+    /**
+     * 按ID顺序流式返回用户名包含子串的全部用户，由订阅方的请求量控制读取速度
+     */
+    Flux<UserVO> streamUsersByUsername(String username, List<Integer> statuses);
+
+    /**
+     * 按前缀补全用户名或邮箱，field取值为username或email
+     */
+    Mono<List<UserSuggestionVO>> autocomplete(String prefix, int limit, String field);
+
+    /**
+     * 按状态统计用户数
+     */
+    Mono<UserStatsVO> getUserStats();
+
+    /**
+     * 检查用户名是否存在
+     */
+    Mono<Boolean> existsByUsername(String username);
+
+    /**
+     * 检查邮箱是否存在
+     */
+    Mono<Boolean> existsByEmail(String email);
+}
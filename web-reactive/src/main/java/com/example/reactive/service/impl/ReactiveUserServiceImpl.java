@@ -0,0 +1,353 @@
+package com.example.reactive.service.impl;
+
+import com.example.api.dto.UserDTO;
+import com.example.api.vo.CursorPageVO;
+import com.example.api.vo.UserBatchItemVO;
+import com.example.api.vo.UserBatchResultVO;
+import com.example.api.vo.UserStatsVO;
+import com.example.api.vo.UserSuggestionVO;
+import com.example.api.vo.UserVO;
+import com.example.common.exception.BusinessException;
+import com.example.reactive.converter.UserConverter;
+import com.example.reactive.entity.StatusCount;
+import com.example.reactive.entity.User;
+import com.example.reactive.event.UserChangeEvent;
+import com.example.reactive.event.UserChangePublisher;
+import com.example.reactive.repository.ReactiveUserRepository;
+import com.example.reactive.service.ReactiveUserService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 响应式用户服务实现类
+ * <p>
+ * 所有数据库访问都经由R2DBC驱动非阻塞执行，不占用请求线程等待结果。
+ * 写操作与web模块一样发布用户变更事件，使web节点的缓存和索引看到响应式模块的写入。
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    /**
+     * 游标分页每页最大条数
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * 批量创建单次请求最大条数
+     */
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    /**
+     * 批量查询IN列表每条语句的值个数
+     */
+    private static final int BATCH_CHUNK_SIZE = 500;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final ReactiveUserRepository userRepository;
+
+    private final UserChangePublisher changePublisher;
+
+    private final Validator validator;
+
+    @Override
+    @Transactional
+    public Mono<UserVO> createUser(UserDTO userDTO) {
+        // 唯一性由数据库的唯一索引保证，不做先查后写的检查
+        return Mono.fromSupplier(() -> newEntity(userDTO))
+                .flatMap(userRepository::save)
+                .onErrorMap(ReactiveUserServiceImpl::isDuplicateKey, ReactiveUserServiceImpl::duplicateKey)
+                .flatMap(saved -> changePublisher.publish(UserChangeEvent.created(saved)).thenReturn(saved))
+                .map(this::convertToVO);
+    }
+
+    @Override
+    @Transactional
+    public Mono<UserBatchResultVO> createUsers(List<UserDTO> userDTOs) {
+        if (userDTOs.size() > MAX_BATCH_SIZE) {
+            return Mono.error(new BusinessException(400, "单次最多创建" + MAX_BATCH_SIZE + "个用户"));
+        }
+        UserBatchItemVO[] results = new UserBatchItemVO[userDTOs.size()];
+
+        // 逐条校验，并剔除批次内重复的用户名和邮箱
+        List<Integer> candidates = new ArrayList<>();
+        Set<String> batchUsernames = new HashSet<>();
+        Set<String> batchEmails = new HashSet<>();
+        for (int i = 0; i < userDTOs.size(); i++) {
+            UserDTO userDTO = userDTOs.get(i);
+            String error = validate(userDTO);
+            if (error == null && batchUsernames.contains(normalize(userDTO.getUsername()))) {
+                error = "用户名已存在";
+            }
+            if (error == null && batchEmails.contains(normalize(userDTO.getEmail()))) {
+                error = "邮箱已存在";
+            }
+            if (error != null) {
+                results[i] = UserBatchItemVO.failure(i, error);
+                continue;
+            }
+            batchUsernames.add(normalize(userDTO.getUsername()));
+            batchEmails.add(normalize(userDTO.getEmail()));
+            candidates.add(i);
+        }
+
+        return Mono.zip(findExisting(candidates, userDTOs, UserDTO::getUsername, userRepository::findExistingUsernames),
+                        findExisting(candidates, userDTOs, UserDTO::getEmail, userRepository::findExistingEmails))
+                .flatMap(existing -> {
+                    List<Integer> insertIndexes = new ArrayList<>();
+                    List<User> users = new ArrayList<>();
+                    for (Integer i : candidates) {
+                        UserDTO userDTO = userDTOs.get(i);
+                        if (existing.getT1().contains(normalize(userDTO.getUsername()))) {
+                            results[i] = UserBatchItemVO.failure(i, "用户名已存在");
+                        } else if (existing.getT2().contains(normalize(userDTO.getEmail()))) {
+                            results[i] = UserBatchItemVO.failure(i, "邮箱已存在");
+                        } else {
+                            users.add(newEntity(userDTO));
+                            insertIndexes.add(i);
+                        }
+                    }
+                    return userRepository.saveAll(users).collectList()
+                            .onErrorMap(ReactiveUserServiceImpl::isDuplicateKey, ReactiveUserServiceImpl::duplicateKey)
+                            .flatMap(saved -> changePublisher.publishAll(saved.stream()
+                                            .map(UserChangeEvent::created)
+                                            .collect(Collectors.toList()))
+                                    .thenReturn(saved))
+                            .map(saved -> {
+                                for (int k = 0; k < saved.size(); k++) {
+                                    int index = insertIndexes.get(k);
+                                    results[index] = UserBatchItemVO.success(index, convertToVO(saved.get(k)));
+                                }
+                                return new UserBatchResultVO(results.length, saved.size(), results.length - saved.size(),
+                                        Arrays.asList(results));
+                            });
+                });
+    }
+
+    @Override
+    public Mono<UserVO> getUserById(Long id) {
+        return userRepository.findById(id).map(this::convertToVO);
+    }
+
+    @Override
+    public Mono<List<UserVO>> getUsersByIds(List<Long> ids) {
+        if (ids.size() > MAX_PAGE_SIZE) {
+            return Mono.error(new BusinessException(400, "单次最多查询" + MAX_PAGE_SIZE + "个用户"));
+        }
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        return userRepository.findAllById(distinct)
+                .collectMap(User::getId)
+                .map(users -> distinct.stream()
+                        .map(users::get)
+                        .filter(Objects::nonNull)
+                        .map(this::convertToVO)
+                        .collect(Collectors.toList()));
+    }
+
+    @Override
+    public Mono<UserVO> getUserByUsername(String username) {
+        return userRepository.findByUsername(username).map(this::convertToVO);
+    }
+
+    @Override
+    public Mono<CursorPageVO<UserVO>> listUsers(Long after, int limit, List<Integer> statuses) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        // 多取一条用于判断是否还有下一页
+        return userRepository.findPageAfter(after, statuses, pageSize + 1)
+                .collectList()
+                .map(users -> {
+                    boolean hasMore = users.size() > pageSize;
+                    List<User> page = hasMore ? users.subList(0, pageSize) : users;
+                    List<UserVO> items = page.stream()
+                            .map(this::convertToVO)
+                            .collect(Collectors.toList());
+                    Long nextCursor = hasMore ? page.get(page.size() - 1).getId() : null;
+                    return new CursorPageVO<>(items, nextCursor, hasMore);
+                });
+    }
+
+    @Override
+    public Flux<UserVO> streamUsers(Long after, List<Integer> statuses) {
+        return userRepository.findPageAfter(after, statuses, null).map(this::convertToVO);
+    }
+
+    @Override
+    public Flux<UserVO> exportUsers() {
+        return userRepository.streamAll().map(this::convertToVO);
+    }
+
+    @Override
+    @Transactional
+    public Mono<UserVO> updateUser(Long id, UserDTO userDTO) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(new BusinessException("用户不存在")))
+                .filter(user -> userDTO.getVersion() == null || userDTO.getVersion().equals(user.getVersion()))
+                .switchIfEmpty(Mono.error(new BusinessException(409, "用户已被修改，请刷新后重试")))
+                .map(user -> {
+                    UserConverter.INSTANCE.updateEntity(userDTO, user);
+                    return user;
+                })
+                .flatMap(userRepository::save)
+                .onErrorMap(ReactiveUserServiceImpl::isDuplicateKey, ReactiveUserServiceImpl::duplicateKey)
+                .flatMap(saved -> changePublisher.publish(UserChangeEvent.updated(saved)).thenReturn(saved))
+                .map(this::convertToVO);
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> deleteUser(Long id) {
+        return userRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? userRepository.deleteById(id).then(changePublisher.publish(UserChangeEvent.deleted(id)))
+                        : Mono.error(new BusinessException("用户不存在")));
+    }
+
+    @Override
+    public Mono<List<UserVO>> searchUsersByUsername(String username, int limit, List<Integer> statuses) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return userRepository.findByUsernameContaining(username, statuses, size)
+                .map(this::convertToVO)
+                .collectList();
+    }
+
+    @Override
+    public Flux<UserVO> streamUsersByUsername(String username, List<Integer> statuses) {
+        return userRepository.findByUsernameContaining(username, statuses, null).map(this::convertToVO);
+    }
+
+    @Override
+    public Mono<List<UserSuggestionVO>> autocomplete(String prefix, int limit, String field) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        switch (field.toLowerCase(Locale.ROOT)) {
+            case "username":
+                return userRepository.findUsernamesStartingWith(prefix, size)
+                        .map(user -> new UserSuggestionVO(user.getId(), user.getUsername()))
+                        .collectList();
+            case "email":
+                return userRepository.findEmailsStartingWith(prefix, size)
+                        .map(user -> new UserSuggestionVO(user.getId(), user.getEmail()))
+                        .collectList();
+            default:
+                return Mono.error(new BusinessException(400, "不支持的补全字段: " + field));
+        }
+    }
+
+    @Override
+    public Mono<UserStatsVO> getUserStats() {
+        return userRepository.countGroupByStatus()
+                .collectMap(StatusCount::getStatus, StatusCount::getTotal, TreeMap::new)
+                .map(byStatus -> {
+                    long total = byStatus.values().stream().mapToLong(Long::longValue).sum();
+                    return new UserStatsVO(total, byStatus);
+                });
+    }
+
+    @Override
+    public Mono<Boolean> existsByUsername(String username) {
+        return userRepository.countByUsername(username).map(count -> count > 0);
+    }
+
+    @Override
+    public Mono<Boolean> existsByEmail(String email) {
+        return userRepository.countByEmail(email).map(count -> count > 0);
+    }
+
+    private static boolean isDuplicateKey(Throwable e) {
+        return e instanceof DuplicateKeyException || e instanceof R2dbcDataIntegrityViolationException;
+    }
+
+    /**
+     * 按冲突的唯一索引转换为与阻塞实现相同的提示
+     */
+    private static BusinessException duplicateKey(Throwable e) {
+        String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains("uk_users_username")) {
+            return new BusinessException(409, "用户名已存在");
+        }
+        if (message.contains("uk_users_email")) {
+            return new BusinessException(409, "邮箱已存在");
+        }
+        return new BusinessException(409, "数据冲突，请重试", e);
+    }
+
+    /**
+     * DTO转换为新建实体，未指定状态时取默认值
+     */
+    private static User newEntity(UserDTO userDTO) {
+        User user = UserConverter.INSTANCE.toNewEntity(userDTO);
+        if (user.getStatus() == null) {
+            user.setStatus(1);
+        }
+        return user;
+    }
+
+    /**
+     * 校验单条数据，返回错误信息；通过时返回null
+     */
+    private String validate(UserDTO userDTO) {
+        if (userDTO == null) {
+            return "用户数据不能为空";
+        }
+        Set<ConstraintViolation<UserDTO>> violations = validator.validate(userDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * 分块IN查询候选值中已存在的部分，返回归一化后的值
+     */
+    private static Mono<Set<String>> findExisting(List<Integer> candidates, List<UserDTO> userDTOs,
+                                                  Function<UserDTO, String> field,
+                                                  Function<List<String>, Flux<String>> query) {
+        return Flux.fromIterable(candidates)
+                .map(i -> field.apply(userDTOs.get(i)))
+                .buffer(BATCH_CHUNK_SIZE)
+                .concatMap(query)
+                .map(ReactiveUserServiceImpl::normalize)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 与MySQL默认排序规则对齐：去除尾部空格、重音符号并转小写
+     */
+    private static String normalize(String value) {
+        String stripped = value.stripTrailing();
+        String decomposed = Normalizer.normalize(stripped, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 将实体转换为VO
+     */
+    private UserVO convertToVO(User user) {
+        return UserConverter.INSTANCE.toVO(user);
+    }
+}
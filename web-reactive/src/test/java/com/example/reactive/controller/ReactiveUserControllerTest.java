@@ -0,0 +1,377 @@
+package com.example.reactive.controller;
+
+import com.example.api.dto.UserDTO;
+import com.example.api.vo.UserVO;
+import com.example.common.Result;
+import com.example.common.exception.BusinessException;
+import com.example.common.id.Snowflake;
+import com.example.reactive.service.ReactiveUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ReactiveUserController集成测试，基于H2的R2DBC驱动
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+@DisplayName("ReactiveUserController测试")
+class ReactiveUserControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveUserController userController;
+
+    @Autowired
+    private ReactiveUserService userService;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM users").then().block();
+        databaseClient.sql("DELETE FROM user_change_outbox").then().block();
+    }
+
+    @Test
+    @DisplayName("测试创建用户并按ID与用户名查询")
+    void testCreateAndGetUser() {
+        // Given
+        Long id = createUser("alice", "alice@example.com");
+
+        // When & Then
+        webTestClient.get().uri("/api/users/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo(200)
+                .jsonPath("$.data.username").isEqualTo("alice")
+                .jsonPath("$.data.status").isEqualTo(1)
+                .jsonPath("$.data.createTime").isNotEmpty();
+        webTestClient.get().uri("/api/users/username/{username}", "alice")
+                .exchange()
+                .expectBody()
+                .jsonPath("$.data.id").isEqualTo(id.toString());
+        // ID由雪花算法分配，而不是数据库自增
+        assertTrue(id >>> Snowflake.TIMESTAMP_SHIFT > 0);
+        assertEquals(0, Snowflake.workerIdOf(id));
+    }
+
+    @Test
+    @DisplayName("测试查询不存在的用户")
+    void testGetUserNotFound() {
+        webTestClient.get().uri("/api/users/{id}", 999)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("用户不存在");
+    }
+
+    @Test
+    @DisplayName("测试创建用户 - 用户名已存在")
+    void testCreateUserDuplicateUsername() {
+        // Given
+        createUser("alice", "alice@example.com");
+
+        // When & Then
+        webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDTO("alice", "other@example.com"))
+                .exchange()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo(500)
+                .jsonPath("$.message").isEqualTo("操作失败");
+    }
+
+    @Test
+    @DisplayName("测试唯一索引冲突转换为409及对应提示")
+    void testDuplicateKeyTranslated() {
+        // Given
+        createUser("alice", "alice@example.com");
+        Long bob = createUser("bob", "bob@example.com");
+
+        // When & Then
+        StepVerifier.create(userService.createUser(userDTO("alice", "other@example.com")))
+                .expectErrorSatisfies(e -> assertConflict(e, "用户名已存在"))
+                .verify();
+        StepVerifier.create(userService.createUser(userDTO("carol", "alice@example.com")))
+                .expectErrorSatisfies(e -> assertConflict(e, "邮箱已存在"))
+                .verify();
+        StepVerifier.create(userService.updateUser(bob, userDTO("alice", "bob@example.com")))
+                .expectErrorSatisfies(e -> assertConflict(e, "用户名已存在"))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("测试创建用户 - 参数验证失败")
+    void testCreateUserValidationError() {
+        webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDTO("ab", "not-an-email"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("测试批量创建用户 - 部分失败")
+    void testCreateUsersPartialFailure() {
+        // Given
+        createUser("alice", "alice@example.com");
+        List<UserDTO> batch = List.of(
+                userDTO("bob", "bob@example.com"),
+                userDTO("alice", "alice2@example.com"),
+                userDTO("x", "carol@example.com"));
+
+        // When & Then
+        webTestClient.post().uri("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(batch)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.data.succeeded").isEqualTo(1)
+                .jsonPath("$.data.failed").isEqualTo(2)
+                .jsonPath("$.data.items[0].user.username").isEqualTo("bob")
+                .jsonPath("$.data.items[1].message").isEqualTo("用户名已存在");
+    }
+
+    @Test
+    @DisplayName("测试游标分页与状态过滤")
+    void testListUsersWithCursor() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            createUser("user" + i, "user" + i + "@example.com");
+        }
+
+        // When & Then
+        webTestClient.get().uri("/api/users?limit=3")
+                .exchange()
+                .expectBody()
+                .jsonPath("$.data.items.length()").isEqualTo(3)
+                .jsonPath("$.data.hasMore").isEqualTo(true)
+                .jsonPath("$.data.nextCursor").isNotEmpty();
+        webTestClient.get().uri("/api/users?status=0")
+                .exchange()
+                .expectBody()
+                .jsonPath("$.data.items.length()").isEqualTo(0)
+                .jsonPath("$.data.hasMore").isEqualTo(false);
+    }
+
+    @Test
+    @DisplayName("测试NDJSON流式列表与搜索")
+    void testStreamUsers() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            createUser("stream" + i, "stream" + i + "@example.com");
+        }
+
+        // When
+        List<UserVO> all = webTestClient.get().uri("/api/users")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(UserVO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        List<UserVO> matched = webTestClient.get().uri("/api/users/search?username=stream3")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .returnResult(UserVO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        // Then
+        assertEquals(5, all.size());
+        assertEquals(1, matched.size());
+        assertEquals("stream3", matched.get(0).getUsername());
+    }
+
+    @Test
+    @DisplayName("测试流式列表按订阅方请求量拉取")
+    void testStreamUsersBackpressure() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            createUser("press" + i, "press" + i + "@example.com");
+        }
+
+        // When
+        Flux<UserVO> stream = userController.streamUsers(null, null);
+
+        // Then
+        StepVerifier.create(stream, 2)
+                .expectNextCount(2)
+                .thenRequest(3)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("测试更新用户 - 未指定状态时保留原值")
+    void testUpdateUser() {
+        // Given
+        Long id = createUser("alice", "alice@example.com");
+        UserDTO update = userDTO("alice2", "alice@example.com");
+        update.setNickname("爱丽丝");
+
+        // When & Then
+        webTestClient.put().uri("/api/users/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(update)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("用户更新成功")
+                .jsonPath("$.data.username").isEqualTo("alice2")
+                .jsonPath("$.data.nickname").isEqualTo("爱丽丝")
+                .jsonPath("$.data.status").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("测试删除用户")
+    void testDeleteUser() {
+        // Given
+        Long id = createUser("alice", "alice@example.com");
+
+        // When & Then
+        webTestClient.delete().uri("/api/users/{id}", id)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("用户删除成功");
+        webTestClient.delete().uri("/api/users/{id}", id)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("操作失败");
+    }
+
+    @Test
+    @DisplayName("测试写操作随事务写入变更事件发件箱，失败的写入不产生事件")
+    void testChangeEventsWrittenToOutbox() {
+        // Given
+        Long id = createUser("alice", "alice@example.com");
+        webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDTO("alice", "other@example.com"))
+                .exchange();
+
+        // When
+        webTestClient.put().uri("/api/users/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDTO("alice2", "alice@example.com"))
+                .exchange();
+        webTestClient.delete().uri("/api/users/{id}", id).exchange();
+
+        // Then
+        List<String> payloads = databaseClient.sql("SELECT payload FROM user_change_outbox ORDER BY id")
+                .map(row -> row.get("payload", String.class))
+                .all()
+                .collectList()
+                .block();
+        assertEquals(3, payloads.size());
+        assertTrue(payloads.get(0).contains("\"type\":\"CREATED\"") && payloads.get(0).contains("\"id\":" + id));
+        assertTrue(payloads.get(1).contains("\"type\":\"UPDATED\"") && payloads.get(1).contains("\"username\":\"alice2\""));
+        assertTrue(payloads.get(2).contains("\"type\":\"DELETED\"") && payloads.get(2).contains("\"id\":" + id));
+    }
+
+    @Test
+    @DisplayName("测试统计、补全与存在性检查")
+    void testStatsAutocompleteAndChecks() {
+        // Given
+        createUser("bob", "bob@example.com");
+        createUser("bobby", "bobby@example.com");
+
+        // When & Then
+        webTestClient.get().uri("/api/users/stats")
+                .exchange()
+                .expectBody()
+                .jsonPath("$.data.total").isEqualTo(2)
+                .jsonPath("$.data.byStatus.1").isEqualTo(2);
+        webTestClient.get().uri("/api/users/autocomplete?prefix=bob&field=email")
+                .exchange()
+                .expectBody()
+                .jsonPath("$.data.length()").isEqualTo(2)
+                .jsonPath("$.data[0].value").isEqualTo("bob@example.com");
+        webTestClient.get().uri("/api/users/autocomplete?prefix=bob&field=phone")
+                .exchange()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("操作失败");
+        webTestClient.get().uri("/api/users/check-username?username=bobby")
+                .exchange()
+                .expectBody()
+                .jsonPath("$.data").isEqualTo(true);
+        webTestClient.get().uri("/api/users/check-email?email=none@example.com")
+                .exchange()
+                .expectBody()
+                .jsonPath("$.data").isEqualTo(false);
+    }
+
+    @Test
+    @DisplayName("测试按ID批量获取用户 - 保持请求顺序")
+    void testGetUsersByIds() {
+        // Given
+        List<Long> ids = IntStream.range(0, 3)
+                .mapToObj(i -> createUser("batch" + i, "batch" + i + "@example.com"))
+                .collect(Collectors.toList());
+
+        // When & Then
+        webTestClient.post().uri("/api/users/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(ids.get(2), 999L, ids.get(0)))
+                .exchange()
+                .expectBody()
+                .jsonPath("$.data.length()").isEqualTo(2)
+                .jsonPath("$.data[0].id").isEqualTo(ids.get(2).toString())
+                .jsonPath("$.data[1].id").isEqualTo(ids.get(0).toString());
+    }
+
+    private Long createUser(String username, String email) {
+        Result<UserVO> result = webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDTO(username, email))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<Result<UserVO>>() {
+                })
+                .returnResult()
+                .getResponseBody();
+        return result.getData().getId();
+    }
+
+    private static void assertConflict(Throwable e, String message) {
+        BusinessException businessException = assertInstanceOf(BusinessException.class, e);
+        assertEquals(409, businessException.getCode());
+        assertEquals(message, businessException.getMessage());
+    }
+
+    private static UserDTO userDTO(String username, String email) {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setUsername(username);
+        userDTO.setPassword("password123");
+        userDTO.setEmail(email);
+        return userDTO;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.web.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注控制器方法的请求类别，未标注的方法按 {@link RequestClass#NORMAL} 调度
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdmissionClass {
+
+    RequestClass value();
+}
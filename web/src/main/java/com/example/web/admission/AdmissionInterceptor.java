@@ -0,0 +1,90 @@
+package com.example.web.admission;
+
+import com.example.common.Result;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 请求准入拦截器
+ * <p>
+ * 按控制器方法上的 {@link AdmissionClass} 确定请求类别，请求头只能把类别调低，不能抬高；
+ * 经 {@link WeightedFairAdmissionScheduler}
+ * 获得处理名额后才进入控制器，排队失败返回429。名额在请求完成时释放；异步请求（如NDJSON导出）
+ * 在异步分派完成时释放，异步处理期间一直占用名额。
+ */
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".PERMIT";
+
+    private final WeightedFairAdmissionScheduler scheduler;
+
+    private final String header;
+
+    private final byte[] rejectedBody;
+
+    public AdmissionInterceptor(WeightedFairAdmissionScheduler scheduler, String header, ObjectMapper objectMapper) {
+        this.scheduler = scheduler;
+        this.header = header;
+        try {
+            this.rejectedBody = objectMapper.writeValueAsBytes(
+                    Result.error(HttpStatus.TOO_MANY_REQUESTS.value(), "服务繁忙，请稍后重试"));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        WeightedFairAdmissionScheduler.Permit permit;
+        try {
+            permit = scheduler.acquire(classify(request, handlerMethod));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permit = null;
+        }
+        if (permit == null) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(rejectedBody.length);
+            response.getOutputStream().write(rejectedBody);
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            ((WeightedFairAdmissionScheduler.Permit) permit).release();
+        }
+    }
+
+    /**
+     * 请求头由客户端控制，只在它比接口本身的类别更低时生效，批量调用方无法借此冒充关键请求
+     */
+    RequestClass classify(HttpServletRequest request, HandlerMethod handlerMethod) {
+        AdmissionClass annotation = handlerMethod.getMethodAnnotation(AdmissionClass.class);
+        RequestClass routeClass = annotation != null ? annotation.value() : RequestClass.NORMAL;
+        RequestClass fromHeader = RequestClass.parse(request.getHeader(header));
+        return fromHeader != null && fromHeader.ordinal() > routeClass.ordinal() ? fromHeader : routeClass;
+    }
+}
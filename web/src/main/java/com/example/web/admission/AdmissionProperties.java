@@ -0,0 +1,77 @@
+package com.example.web.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 按优先级的请求准入配置
+ */
+@Data
+@ConfigurationProperties(prefix = "user.admission")
+public class AdmissionProperties {
+
+    /**
+     * 是否启用，默认关闭
+     */
+    private boolean enabled = false;
+
+    /**
+     * 同时处理的请求数上限，不大于0时取数据库连接池大小
+     */
+    private int maxConcurrency = 0;
+
+    /**
+     * 所有类别合计的排队请求数上限，不大于0时取Tomcat工作线程数的一半；
+     * 排队请求会占用工作线程，上限始终小于线程数，保证处理中的请求和其他端点仍有线程可用
+     */
+    private int maxQueued = 0;
+
+    /**
+     * 调低请求类别的请求头，取值 critical、normal、bulk；只在低于控制器方法上标注的类别时生效
+     */
+    private String header = "X-Request-Class";
+
+    private ClassPolicy critical = new ClassPolicy(8, 1.0, 200, Duration.ofSeconds(1));
+
+    private ClassPolicy normal = new ClassPolicy(4, 0.75, 200, Duration.ofSeconds(2));
+
+    private ClassPolicy bulk = new ClassPolicy(1, 0.25, 50, Duration.ofSeconds(5));
+
+    public ClassPolicy policy(RequestClass requestClass) {
+        return switch (requestClass) {
+            case CRITICAL -> critical;
+            case NORMAL -> normal;
+            case BULK -> bulk;
+        };
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ClassPolicy {
+
+        /**
+         * 加权公平排队的权重，同时排队时按权重比例获得处理名额
+         */
+        private int weight;
+
+        /**
+         * 该类别最多占用的名额比例
+         */
+        private double share;
+
+        /**
+         * 排队请求数上限，超过时直接拒绝
+         */
+        private int queueCapacity;
+
+        /**
+         * 最长排队时间，超时拒绝
+         */
+        private Duration maxWait;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.web.admission;
+
+import java.util.Locale;
+
+/**
+ * 请求优先级类别，按优先级从高到低声明
+ */
+public enum RequestClass {
+
+    /**
+     * 延迟敏感的单用户查询、注册及注册前的唯一性检查
+     */
+    CRITICAL,
+
+    /**
+     * 普通读写
+     */
+    NORMAL,
+
+    /**
+     * 列表、搜索、导出、统计等批量请求
+     */
+    BULK;
+
+    /**
+     * 解析请求头中的类别，忽略大小写，无法识别时返回null
+     */
+    public static RequestClass parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.web.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 加权公平排队的请求准入调度器
+ * <p>
+ * 同时处理的请求数不超过 {@code maxConcurrency}，每个类别另有按 {@code share} 计算的名额上限，
+ * 批量请求占满自己的份额后不会再挤占关键请求。名额不足时请求进入所属类别的FIFO队列，
+ * 入队时按自计时公平排队（SCFQ）打上完成标签 {@code max(虚拟时间, 该类别上一个标签) + 1/权重}，
+ * 名额释放时在未达上限的类别队首中选择标签最小的请求放行，并把虚拟时间推进到该标签。
+ * 持续竞争时各类别按权重比例获得名额，低权重类别也会按比例得到处理而不会饿死。
+ * 所属类别的队列已满、所有类别的排队总数超过 {@code maxQueued} 或排队超时的请求被拒绝；
+ * 排队的请求占用着Servlet工作线程，{@code maxQueued} 应小于工作线程数。
+ */
+public class WeightedFairAdmissionScheduler implements MeterBinder {
+
+    private final int maxConcurrency;
+
+    private final int maxQueued;
+
+    private final ClassState[] states;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double virtualTime;
+
+    private int running;
+
+    public WeightedFairAdmissionScheduler(AdmissionProperties properties, int maxConcurrency, int maxQueued) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxQueued = Math.max(0, maxQueued);
+        RequestClass[] classes = RequestClass.values();
+        this.states = new ClassState[classes.length];
+        for (RequestClass requestClass : classes) {
+            states[requestClass.ordinal()] = new ClassState(requestClass, properties.policy(requestClass), this.maxConcurrency);
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    /**
+     * 申请处理名额，必要时排队等待
+     *
+     * @return 名额，处理结束后必须释放；队列已满或等待超时返回null
+     */
+    public Permit acquire(RequestClass requestClass) throws InterruptedException {
+        ClassState state = states[requestClass.ordinal()];
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            double previousFinish = state.lastFinish;
+            state.lastFinish = Math.max(virtualTime, previousFinish) + 1.0 / state.weight;
+            Waiter waiter = new Waiter(state, state.lastFinish, lock.newCondition());
+            state.queue.add(waiter);
+            state.queued = state.queue.size();
+            dispatch();
+            long remaining = state.maxWaitNanos;
+            try {
+                if (!waiter.admitted && (state.queue.size() > state.queueCapacity || totalQueued() > maxQueued)) {
+                    // 入队后立即移除，锁内没有其他请求入队，标签可以回退
+                    state.lastFinish = previousFinish;
+                    state.rejected.incrementAndGet();
+                    return null;
+                }
+                while (!waiter.admitted) {
+                    if (remaining <= 0) {
+                        state.rejected.incrementAndGet();
+                        return null;
+                    }
+                    remaining = waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                // 放行与中断同时发生时归还名额
+                if (waiter.admitted) {
+                    state.running--;
+                    running--;
+                    dispatch();
+                }
+                throw e;
+            } finally {
+                if (!waiter.admitted) {
+                    state.queue.remove(waiter);
+                    state.queued = state.queue.size();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        state.admitted.incrementAndGet();
+        state.waitNanos.addAndGet(System.nanoTime() - start);
+        return new Permit(state);
+    }
+
+    public int getQueued(RequestClass requestClass) {
+        return states[requestClass.ordinal()].queued;
+    }
+
+    public int getRunning(RequestClass requestClass) {
+        return states[requestClass.ordinal()].running;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ClassState state : states) {
+            String tag = state.requestClass.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("http.admission.queue.depth", state, s -> s.queued)
+                    .tag("class", tag)
+                    .description("排队等待处理名额的请求数")
+                    .register(registry);
+            Gauge.builder("http.admission.running", state, s -> s.running)
+                    .tag("class", tag)
+                    .description("占用处理名额的请求数")
+                    .register(registry);
+            FunctionTimer.builder("http.admission.wait", state,
+                            s -> s.admitted.get(), s -> s.waitNanos.get(), TimeUnit.NANOSECONDS)
+                    .tag("class", tag)
+                    .description("获得处理名额前的排队时间")
+                    .register(registry);
+            FunctionCounter.builder("http.admission.rejected", state, s -> s.rejected.get())
+                    .tag("class", tag)
+                    .description("队列已满、排队总数超限或排队超时被拒绝的请求数")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 所有类别的排队请求数；调用方持有锁
+     */
+    private int totalQueued() {
+        int total = 0;
+        for (ClassState state : states) {
+            total += state.queue.size();
+        }
+        return total;
+    }
+
+    /**
+     * 在未达上限的类别队首中按完成标签从小到大放行，直到名额用尽；调用方持有锁
+     */
+    private void dispatch() {
+        while (running < maxConcurrency) {
+            Waiter next = null;
+            for (ClassState state : states) {
+                Waiter head = state.queue.peek();
+                if (head != null && state.running < state.maxRunning && (next == null || head.finish < next.finish)) {
+                    next = head;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            ClassState state = next.state;
+            state.queue.poll();
+            state.queued = state.queue.size();
+            state.running++;
+            running++;
+            virtualTime = next.finish;
+            next.admitted = true;
+            next.condition.signal();
+        }
+    }
+
+    private void release(ClassState state) {
+        lock.lock();
+        try {
+            state.running--;
+            running--;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 处理名额，重复释放无副作用
+     */
+    public final class Permit {
+
+        private final ClassState state;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(ClassState state) {
+            this.state = state;
+        }
+
+        public RequestClass getRequestClass() {
+            return state.requestClass;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                WeightedFairAdmissionScheduler.this.release(state);
+            }
+        }
+    }
+
+    private static final class ClassState {
+
+        private final RequestClass requestClass;
+
+        private final int weight;
+
+        private final int maxRunning;
+
+        private final int queueCapacity;
+
+        private final long maxWaitNanos;
+
+        private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+
+        private double lastFinish;
+
+        private volatile int queued;
+
+        private volatile int running;
+
+        private final AtomicLong admitted = new AtomicLong();
+
+        private final AtomicLong waitNanos = new AtomicLong();
+
+        private final AtomicLong rejected = new AtomicLong();
+
+        private ClassState(RequestClass requestClass, AdmissionProperties.ClassPolicy policy, int maxConcurrency) {
+            this.requestClass = requestClass;
+            this.weight = Math.max(1, policy.getWeight());
+            this.maxRunning = Math.max(1, (int) Math.ceil(policy.getShare() * maxConcurrency));
+            this.queueCapacity = policy.getQueueCapacity();
+            this.maxWaitNanos = policy.getMaxWait().toNanos();
+        }
+    }
+
+    private static final class Waiter {
+
+        private final ClassState state;
+
+        private final double finish;
+
+        private final Condition condition;
+
+        private boolean admitted;
+
+        private Waiter(ClassState state, double finish, Condition condition) {
+            this.state = state;
+            this.finish = finish;
+            this.condition = condition;
+        }
+    }
+}
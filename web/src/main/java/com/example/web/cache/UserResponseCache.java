@@ -0,0 +1,183 @@
+package com.example.web.cache;
+
+import com.example.common.Result;
+import com.example.service.event.UserChangeEvent;
+import com.example.service.event.UserChangeListener;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.DigestUtils;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 用户接口响应字节缓存
+ * <p>
+ * 缓存 {@link Result} 按JSON编码后的完整字节，命中时由控制器直接写入响应流，
+ * 省去结果对象的构建和Jackson序列化。单个用户的响应按ID缓存，变更时按ID失效；
+ * 列表响应按请求参数缓存，任何用户变更都会递增全局版本号并清空全部列表响应。
+ * 只缓存code为200的结果；加载期间版本号发生变化的结果不写入缓存。
+ * 列表响应的弱ETag是JSON字节的摘要，只取决于数据本身，nginx后的各节点对相同数据给出相同的ETag。
+ * 响应由 {@code UserCache} 和内存索引的数据编码而来，变更回调排在所有监听器之后，
+ * 版本号递增时底层数据已经失效，并发请求不会把旧数据编码到新版本下。
+ */
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class UserResponseCache implements UserChangeListener, MeterBinder {
+
+    private final boolean enabled;
+
+    private final ObjectMapper objectMapper;
+
+    private final Cache<Long, byte[]> byId;
+
+    private final Cache<String, Encoded> lists;
+
+    /**
+     * 全局版本号，每次用户变更递增
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 编码后的列表响应及由内容生成的弱ETag；结果不是200时ETag为null
+     */
+    public record Encoded(byte[] body, String eTag) {
+    }
+
+    public UserResponseCache(UserResponseCacheProperties properties, ObjectMapper objectMapper) {
+        this.enabled = properties.isEnabled();
+        this.objectMapper = objectMapper;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.lists = Caffeine.newBuilder()
+                .maximumSize(properties.getListMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 读取单个用户的响应字节，未命中时调用loader生成结果并编码
+     */
+    public byte[] getUser(Long id, Supplier<? extends Result<?>> loader) {
+        if (!enabled || id == null) {
+            return encode(loader.get());
+        }
+        byte[] body = byId.getIfPresent(id);
+        if (body != null) {
+            return body;
+        }
+        long expected = version.get();
+        Result<?> result = loader.get();
+        body = encode(result);
+        if (isCacheable(result) && version.get() == expected) {
+            byId.put(id, body);
+        }
+        return body;
+    }
+
+    /**
+     * 读取列表接口的响应字节及弱ETag，key由调用方根据请求参数生成；命中时不重新计算摘要
+     */
+    public Encoded getList(String key, Supplier<? extends Result<?>> loader) {
+        if (!enabled) {
+            return encodeList(loader.get());
+        }
+        Encoded encoded = lists.getIfPresent(key);
+        if (encoded != null) {
+            return encoded;
+        }
+        long expected = version.get();
+        Result<?> result = loader.get();
+        encoded = encodeList(result);
+        if (isCacheable(result) && version.get() == expected) {
+            lists.put(key, encoded);
+        }
+        return encoded;
+    }
+
+    /**
+     * 当前全局版本号
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * 列表类接口的弱ETag，由结果的JSON编码生成并附加格式后缀，用于不经过字节缓存的响应；结果不是200时返回null
+     */
+    public String weakETag(Result<?> result, String variant) {
+        return isCacheable(result) ? weakETag(encode(result), variant) : null;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        version.incrementAndGet();
+        byId.invalidateAll();
+        lists.invalidateAll();
+    }
+
+    /**
+     * 使单个用户及全部列表的缓存失效
+     */
+    public void invalidate(Long id) {
+        // 先递增版本号，使正在加载的旧结果不再写入
+        version.incrementAndGet();
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        lists.invalidateAll();
+    }
+
+    @Override
+    public void onUserChange(UserChangeEvent event) {
+        invalidate(event.getId());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "users.response.id");
+        CaffeineCacheMetrics.monitor(registry, lists, "users.response.list");
+        FunctionCounter.builder("users.response.version", version, AtomicLong::get)
+                .description("响应缓存的全局版本号")
+                .register(registry);
+    }
+
+    private static boolean isCacheable(Result<?> result) {
+        return result != null && Integer.valueOf(200).equals(result.getCode());
+    }
+
+    private Encoded encodeList(Result<?> result) {
+        byte[] body = encode(result);
+        return new Encoded(body, isCacheable(result) ? weakETag(body, "") : null);
+    }
+
+    private static String weakETag(byte[] body, String variant) {
+        return "W/\"" + DigestUtils.md5DigestAsHex(body) + variant + "\"";
+    }
+
+    private byte[] encode(Result<?> result) {
+        try {
+            return objectMapper.writeValueAsBytes(result);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.web.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户响应字节缓存配置
+ */
+@Data
+@ConfigurationProperties(prefix = "user.response-cache")
+public class UserResponseCacheProperties {
+
+    /**
+     * 是否启用响应缓存，默认关闭
+     */
+    private boolean enabled = false;
+
+    /**
+     * 按ID缓存的最大响应数
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * 列表接口缓存的最大响应数
+     */
+    private long listMaximumSize = 1_000;
+
+    /**
+     * 写入后过期时间
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
@@ -0,0 +1,59 @@
+package com.example.web.config;
+
+import com.example.web.admission.AdmissionInterceptor;
+import com.example.web.admission.AdmissionProperties;
+import com.example.web.admission.WeightedFairAdmissionScheduler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 按优先级的请求准入配置类
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(prefix = "user.admission", name = "enabled", havingValue = "true")
+public class AdmissionConfig {
+
+    /**
+     * 准入调度器，默认名额与数据库连接池大小一致，使各类别按份额分享连接；
+     * 排队等待的请求阻塞着Tomcat工作线程，排队总数限制在线程数扣除处理名额之后的范围内
+     */
+    @Bean
+    public WeightedFairAdmissionScheduler admissionScheduler(AdmissionProperties properties,
+                                                             @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                                             @Value("${server.tomcat.threads.max:200}") int maxThreads) {
+        int maxConcurrency = properties.getMaxConcurrency() > 0 ? properties.getMaxConcurrency() : poolSize;
+        int maxQueued = properties.getMaxQueued() > 0 ? properties.getMaxQueued() : maxThreads / 2;
+        maxQueued = Math.min(maxQueued, Math.max(1, maxThreads - maxConcurrency));
+        return new WeightedFairAdmissionScheduler(properties, maxConcurrency, maxQueued);
+    }
+
+    /**
+     * 准入拦截器，请求头只能调低控制器方法上标注的类别
+     */
+    @Bean
+    public AdmissionInterceptor admissionInterceptor(WeightedFairAdmissionScheduler scheduler,
+                                                     AdmissionProperties properties,
+                                                     ObjectMapper objectMapper) {
+        return new AdmissionInterceptor(scheduler, properties.getHeader(), objectMapper);
+    }
+
+    /**
+     * 只拦截 /api/** 下的接口，健康检查等端点不参与排队
+     */
+    @Bean
+    public WebMvcConfigurer admissionWebMvcConfigurer(AdmissionInterceptor admissionInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(admissionInterceptor).addPathPatterns("/api/**");
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.web.config;
+
+import com.example.web.filter.ConcurrencyLimitFilter;
+import com.example.web.limit.ConcurrencyLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 自适应并发限制配置类
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(prefix = "user.concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    /**
+     * 并发限制过滤器，同时作为MeterBinder注册限制、在途与拒绝数指标
+     */
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper) {
+        return new ConcurrencyLimitFilter(properties, objectMapper);
+    }
+
+    /**
+     * 排在读己之写过滤器之前，被拒绝的请求不做任何其他处理
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(ConcurrencyLimitFilter filter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
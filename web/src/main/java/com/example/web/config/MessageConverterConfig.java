@@ -0,0 +1,39 @@
+package com.example.web.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * 二进制响应格式配置类
+ * <p>
+ * 客户端通过Accept请求 application/x-jackson-smile 或 application/cbor 时使用对应的转换器，
+ * 未指定时仍返回JSON。ObjectMapper由Spring Boot的构建器创建，spring.jackson配置对所有格式生效。
+ */
+@Configuration
+public class MessageConverterConfig {
+
+    /**
+     * Smile转换器
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder
+                .factory(new SmileFactory())
+                .build());
+    }
+
+    /**
+     * CBOR转换器
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder
+                .factory(new CBORFactory())
+                .build());
+    }
+}
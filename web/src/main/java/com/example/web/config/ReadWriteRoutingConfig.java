@@ -0,0 +1,29 @@
+package com.example.web.config;
+
+import com.example.service.datasource.DataSourceRoutingProperties;
+import com.example.web.filter.ReadYourWritesFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 读写分离的Web层配置类
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "user.datasource.routing", name = "enabled", havingValue = "true")
+public class ReadWriteRoutingConfig {
+
+    /**
+     * 读己之写过滤器，排在其他过滤器之前，使整个请求处于同一路由作用域
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(DataSourceRoutingProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getStickyWindow()));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.web.config;
+
+import com.example.web.cache.UserResponseCache;
+import com.example.web.cache.UserResponseCacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 用户响应缓存配置类
+ */
+@Configuration
+@EnableConfigurationProperties(UserResponseCacheProperties.class)
+public class UserResponseCacheConfig {
+
+    /**
+     * 用户接口响应字节缓存，使用与消息转换器相同的ObjectMapper保证输出一致
+     */
+    @Bean
+    public UserResponseCache userResponseCache(UserResponseCacheProperties properties, ObjectMapper objectMapper) {
+        return new UserResponseCache(properties, objectMapper);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.web.config;
+
+import com.example.service.concurrent.VirtualThreads;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * 虚拟线程配置类
+ * <p>
+ * spring.threads.virtual.enabled=true 时，Tomcat请求处理和Spring MVC异步任务（如流式导出）
+ * 都在虚拟线程中执行，阻塞在JDBC上的请求不再占用平台线程。属性名与Spring Boot 3.2一致，
+ * 升级后可直接由框架接管。需要Java 21运行，否则启动失败。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.threads.virtual", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * Tomcat请求处理执行器
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newExecutor("tomcat-handler-"));
+    }
+
+    /**
+     * 应用任务执行器，替代默认的平台线程池
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(VirtualThreads.newExecutor("task-"));
+    }
+}
@@ -1,13 +1,39 @@
 package com.example.web.controller;
 
 import com.example.api.dto.UserDTO;
+import com.example.api.dto.UserProfileDTO;
+import com.example.api.vo.CursorPageVO;
+import com.example.api.vo.UserBatchResultVO;
+import com.example.api.vo.UserStatsVO;
+import com.example.api.vo.UserSuggestionVO;
 import com.example.api.vo.UserVO;
 import com.example.common.Result;
+import com.example.common.exception.BusinessException;
 import com.example.service.service.UserService;
+import com.example.web.admission.AdmissionClass;
+import com.example.web.admission.RequestClass;
+import com.example.web.cache.UserResponseCache;
+import com.example.web.filter.ConcurrencyLimitFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 
 /**
@@ -18,26 +44,63 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
     
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    
     private final UserService userService;
     
+    private final ObjectMapper objectMapper;
+    
+    private final UserResponseCache responseCache;
+    
     /**
      * 创建用户
      */
+    @AdmissionClass(RequestClass.CRITICAL)
     @PostMapping
     public Result<UserVO> createUser(@Valid @RequestBody UserDTO userDTO) {
         try {
             UserVO userVO = userService.createUser(userDTO);
             return Result.success("用户创建成功", userVO);
         } catch (Exception e) {
-            return Result.error("操作失败");
+            return operationFailed(e);
+        }
+    }
+    
+    /**
+     * 批量创建用户
+     */
+    @AdmissionClass(RequestClass.BULK)
+    @PostMapping("/batch")
+    public Result<UserBatchResultVO> createUsers(@RequestBody List<UserDTO> userDTOs) {
+        try {
+            UserBatchResultVO result = userService.createUsers(userDTOs);
+            return Result.success("批量创建完成", result);
+        } catch (Exception e) {
+            return operationFailed(e);
         }
     }
     
     /**
      * 根据ID获取用户
      */
+    @AdmissionClass(RequestClass.CRITICAL)
     @GetMapping("/{id}")
-    public Result<UserVO> getUserById(@PathVariable Long id) {
+    public Result<UserVO> getUserById(@PathVariable Long id, WebRequest request,
+                                      HttpServletResponse response) throws IOException {
+        // 先用更新时间比较ETag，未变化时不加载整行
+        String variant = variant(request, response);
+        LocalDateTime updateTime = userService.getUserUpdateTime(id);
+        if (updateTime != null && request.checkNotModified(strongETag(id, updateTime, variant))) {
+            return null;
+        }
+        if (responseCache.isEnabled() && variant.isEmpty()) {
+            writeJson(response, responseCache.getUser(id, () -> loadUser(id)));
+            return null;
+        }
+        return loadUser(id);
+    }
+    
+    private Result<UserVO> loadUser(Long id) {
         try {
             UserVO userVO = userService.getUserById(id);
             if (userVO == null) {
@@ -45,13 +108,27 @@ public class UserController {
             }
             return Result.success(userVO);
         } catch (Exception e) {
-            return Result.error("操作失败");
+            return operationFailed(e);
+        }
+    }
+    
+    /**
+     * 按ID批量获取用户
+     */
+    @PostMapping("/batch-get")
+    public Result<List<UserVO>> getUsersByIds(@RequestBody List<Long> ids) {
+        try {
+            List<UserVO> users = userService.getUsersByIds(ids);
+            return Result.success(users);
+        } catch (Exception e) {
+            return operationFailed(e);
         }
     }
     
     /**
      * 根据用户名获取用户
      */
+    @AdmissionClass(RequestClass.CRITICAL)
     @GetMapping("/username/{username}")
     public Result<UserVO> getUserByUsername(@PathVariable String username) {
         try {
@@ -61,23 +138,64 @@ public class UserController {
             }
             return Result.success(userVO);
         } catch (Exception e) {
-            return Result.error("操作失败");
+            return operationFailed(e);
         }
     }
     
     /**
-     * 获取所有用户
+     * 游标分页获取用户
      */
+    @AdmissionClass(RequestClass.BULK)
     @GetMapping
-    public Result<List<UserVO>> getAllUsers() {
+    public Result<CursorPageVO<UserVO>> listUsers(@RequestParam(required = false) Long after,
+                                                  @RequestParam(defaultValue = "20") int limit,
+                                                  @RequestParam(required = false) List<Integer> status,
+                                                  WebRequest request,
+                                                  HttpServletResponse response) throws IOException {
+        String variant = variant(request, response);
+        if (responseCache.isEnabled() && variant.isEmpty()) {
+            String key = "list:" + after + ":" + limit + ":" + status;
+            writeList(request, response, responseCache.getList(key, () -> loadPage(after, limit, status)));
+            return null;
+        }
+        return notModified(request, loadPage(after, limit, status), variant);
+    }
+    
+    private Result<CursorPageVO<UserVO>> loadPage(Long after, int limit, List<Integer> status) {
         try {
-            List<UserVO> users = userService.getAllUsers();
-            return Result.success(users);
+            CursorPageVO<UserVO> page = userService.listUsers(after, limit, status);
+            return Result.success(page);
         } catch (Exception e) {
-            return Result.error("操作失败");
+            return operationFailed(e);
         }
     }
     
+    /**
+     * 以NDJSON流式导出全部用户
+     */
+    @AdmissionClass(RequestClass.BULK)
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        // 逐行序列化并写入响应流，由生成器缓冲分块输出，避免每行flush
+        ObjectWriter writer = objectMapper.writerFor(UserVO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                userService.exportUsers(userVO -> {
+                    try {
+                        writer.writeValue(generator, userVO);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+    
     /**
      * 更新用户
      */
@@ -87,7 +205,22 @@ public class UserController {
             UserVO userVO = userService.updateUser(id, userDTO);
             return Result.success("用户更新成功", userVO);
         } catch (Exception e) {
-            return Result.error("操作失败");
+            return operationFailed(e);
+        }
+    }
+    
+    /**
+     * 部分更新昵称和手机号
+     */
+    @PatchMapping("/{id}/profile")
+    public Result<UserVO> updateProfile(@PathVariable Long id, @Valid @RequestBody UserProfileDTO profileDTO) {
+        try {
+            UserVO userVO = userService.updateProfile(id, profileDTO);
+            // 写回缓冲中的变更尚未发布事件，已编码的响应需立即失效
+            responseCache.invalidate(id);
+            return Result.success("用户更新成功", userVO);
+        } catch (Exception e) {
+            return operationFailed(e);
         }
     }
     
@@ -100,46 +233,164 @@ public class UserController {
             userService.deleteUser(id);
             return Result.success("用户删除成功", null);
         } catch (Exception e) {
-            return Result.error("操作失败");
+            return operationFailed(e);
         }
     }
     
     /**
      * 根据用户名搜索用户
      */
+    @AdmissionClass(RequestClass.BULK)
     @GetMapping("/search")
-    public Result<List<UserVO>> searchUsers(@RequestParam String username) {
+    public Result<List<UserVO>> searchUsers(@RequestParam String username,
+                                            @RequestParam(defaultValue = "20") int limit,
+                                            @RequestParam(required = false) List<Integer> status,
+                                            WebRequest request,
+                                            HttpServletResponse response) throws IOException {
+        String variant = variant(request, response);
+        if (responseCache.isEnabled() && variant.isEmpty()) {
+            String key = "search:" + username + ":" + limit + ":" + status;
+            writeList(request, response, responseCache.getList(key, () -> search(username, limit, status)));
+            return null;
+        }
+        return notModified(request, search(username, limit, status), variant);
+    }
+    
+    private Result<List<UserVO>> search(String username, int limit, List<Integer> status) {
         try {
-            List<UserVO> users = userService.searchUsersByUsername(username);
+            List<UserVO> users = userService.searchUsersByUsername(username, limit, status);
             return Result.success(users);
         } catch (Exception e) {
-            return Result.error("操作失败");
+            return operationFailed(e);
+        }
+    }
+    
+    /**
+     * 按状态统计用户数
+     */
+    @AdmissionClass(RequestClass.BULK)
+    @GetMapping("/stats")
+    public Result<UserStatsVO> getUserStats() {
+        try {
+            UserStatsVO stats = userService.getUserStats();
+            return Result.success(stats);
+        } catch (Exception e) {
+            return operationFailed(e);
+        }
+    }
+    
+    /**
+     * 按前缀自动补全用户名或邮箱
+     */
+    @GetMapping("/autocomplete")
+    public Result<List<UserSuggestionVO>> autocomplete(@RequestParam String prefix,
+                                                       @RequestParam(defaultValue = "10") int limit,
+                                                       @RequestParam(defaultValue = "username") String field) {
+        try {
+            List<UserSuggestionVO> suggestions = userService.autocomplete(prefix, limit, field);
+            return Result.success(suggestions);
+        } catch (Exception e) {
+            return operationFailed(e);
         }
     }
     
     /**
      * 检查用户名是否存在
      */
+    @AdmissionClass(RequestClass.CRITICAL)
     @GetMapping("/check-username")
     public Result<Boolean> checkUsername(@RequestParam String username) {
         try {
             boolean exists = userService.existsByUsername(username);
             return Result.success(exists);
         } catch (Exception e) {
-            return Result.error("操作失败");
+            return operationFailed(e);
         }
     }
     
     /**
      * 检查邮箱是否存在
      */
+    @AdmissionClass(RequestClass.CRITICAL)
     @GetMapping("/check-email")
     public Result<Boolean> checkEmail(@RequestParam String email) {
         try {
             boolean exists = userService.existsByEmail(email);
             return Result.success(exists);
         } catch (Exception e) {
-            return Result.error("操作失败");
+            return operationFailed(e);
         }
     }
+    
+    /**
+     * 单个用户的强ETag，由ID、毫秒精度的更新时间和响应格式组成
+     */
+    private static String strongETag(Long id, LocalDateTime updateTime, String variant) {
+        long millis = updateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return "\"" + id + "-" + Long.toHexString(millis) + variant + "\"";
+    }
+    
+    /**
+     * 按Accept确定响应格式：请求Smile或CBOR时返回对应后缀，JSON或未指定时返回空串。
+     * 同时声明响应随Accept变化，已编码的JSON缓存只用于JSON响应
+     */
+    private static String variant(WebRequest request, HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return "";
+        }
+        for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+            if (mediaType.equalsTypeAndSubtype(SMILE)) {
+                return "-smile";
+            }
+            if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                return "-cbor";
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+        }
+        return "";
+    }
+    
+    /**
+     * 处理失败时的统一返回；业务校验以外的异常标记到请求属性上，
+     * 使并发限制把这类以HTTP 200返回的失败计为丢弃，而不是一次低延迟的成功
+     */
+    private static <T> Result<T> operationFailed(Exception e) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(e instanceof BusinessException) && attributes != null) {
+            attributes.setAttribute(ConcurrencyLimitFilter.FAILED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+        return Result.error("操作失败");
+    }
+    
+    /**
+     * 把已编码的JSON响应直接写入响应流
+     */
+    /**
+     * 以内容生成的弱ETag比较条件请求，匹配时只返回304
+     */
+    private static void writeList(WebRequest request, HttpServletResponse response,
+                                  UserResponseCache.Encoded encoded) throws IOException {
+        if (encoded.eTag() != null && request.checkNotModified(encoded.eTag())) {
+            return;
+        }
+        writeJson(response, encoded.body());
+    }
+
+    /**
+     * 未经字节缓存的列表结果：弱ETag匹配时返回null，由框架响应304
+     */
+    private <T> Result<T> notModified(WebRequest request, Result<T> result, String variant) {
+        String eTag = responseCache.weakETag(result, variant);
+        return eTag != null && request.checkNotModified(eTag) ? null : result;
+    }
+
+    private static void writeJson(HttpServletResponse response, byte[] body) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,224 @@
+package com.example.web.filter;
+
+import com.example.common.Result;
+import com.example.web.limit.AdaptiveConcurrencyLimiter;
+import com.example.web.limit.ConcurrencyLimitProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 自适应并发限制过滤器
+ * <p>
+ * 请求按路径和方法归入接口分组，每个分组由独立的 {@link AdaptiveConcurrencyLimiter} 限制在途请求数。
+ * 达到限制的请求直接返回429，不进入控制器和连接池排队，下游变慢时快速失败而不是拖垮全部请求。
+ * 异步请求（如NDJSON导出）在异步处理结束时才释放名额。
+ * 控制器把异常转换为HTTP 200的 {@link Result} 返回时，需设置 {@link #FAILED_ATTRIBUTE} 请求属性，
+ * 否则这类快速失败会被当作低延迟的成功，使限制在下游故障时反而上升。
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    /**
+     * 标记请求处理失败的请求属性，值不为null即视为失败
+     */
+    public static final String FAILED_ATTRIBUTE = ConcurrencyLimitFilter.class.getName() + ".FAILED";
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    private final List<Group> groups = new ArrayList<>();
+
+    private final byte[] rejectedBody;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper) {
+        List<ConcurrencyLimitProperties.Group> configured = properties.getGroups();
+        if (configured.isEmpty()) {
+            ConcurrencyLimitProperties.Group api = new ConcurrencyLimitProperties.Group();
+            api.setName("api");
+            api.setPatterns(List.of("/api/**"));
+            configured = List.of(api);
+        }
+        for (ConcurrencyLimitProperties.Group group : configured) {
+            Set<String> methods = group.getMethods().stream()
+                    .map(method -> method.toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toSet());
+            groups.add(new Group(methods, group.getPatterns(), new AdaptiveConcurrencyLimiter(group.getName(), properties)));
+        }
+        try {
+            this.rejectedBody = objectMapper.writeValueAsBytes(
+                    Result.error(HttpStatus.TOO_MANY_REQUESTS.value(), "请求过多，请稍后重试"));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public List<AdaptiveConcurrencyLimiter> getLimiters() {
+        return groups.stream().map(group -> group.limiter).collect(Collectors.toList());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = match(request);
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            reject(response);
+            return;
+        }
+        Permit permit = new Permit(limiter, System.nanoTime());
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(permit);
+            } else {
+                permit.release(failed || isFailed(request, response));
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Group group : groups) {
+            AdaptiveConcurrencyLimiter limiter = group.limiter;
+            Gauge.builder("http.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("group", limiter.getName())
+                    .description("接口分组当前的并发限制")
+                    .register(registry);
+            Gauge.builder("http.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("group", limiter.getName())
+                    .description("接口分组的在途请求数")
+                    .register(registry);
+            FunctionCounter.builder("http.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .tag("group", limiter.getName())
+                    .description("超过并发限制被拒绝的请求数")
+                    .register(registry);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter match(HttpServletRequest request) {
+        String path = URL_PATH_HELPER.getPathWithinApplication(request);
+        for (Group group : groups) {
+            if (group.matches(request.getMethod(), path)) {
+                return group.limiter;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isFailed(ServletRequest request, ServletResponse response) {
+        return request.getAttribute(FAILED_ATTRIBUTE) != null
+                || response instanceof HttpServletResponse http && http.getStatus() >= 500;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(rejectedBody.length);
+        response.getOutputStream().write(rejectedBody);
+    }
+
+    private static final class Group {
+
+        private final Set<String> methods;
+
+        private final List<String> patterns;
+
+        private final AdaptiveConcurrencyLimiter limiter;
+
+        private Group(Set<String> methods, List<String> patterns, AdaptiveConcurrencyLimiter limiter) {
+            this.methods = methods;
+            this.patterns = patterns;
+            this.limiter = limiter;
+        }
+
+        private boolean matches(String method, String path) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return false;
+            }
+            for (String pattern : patterns) {
+                if (PATH_MATCHER.match(pattern, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 占用的名额，同步请求在过滤器返回时释放，异步请求在异步处理结束时释放
+     */
+    private static final class Permit implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+
+        private final long startNanos;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(AdaptiveConcurrencyLimiter limiter, long startNanos) {
+            this.limiter = limiter;
+            this.startNanos = startNanos;
+        }
+
+        private void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(startNanos, failed);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(event.getSuppliedRequest() != null && event.getSuppliedResponse() != null
+                    && isFailed(event.getSuppliedRequest(), event.getSuppliedResponse()));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.web.filter;
+
+import com.example.service.datasource.ReadWriteContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * 读己之写过滤器
+ * <p>
+ * 写请求在响应中下发短期的粘滞Cookie，携带该Cookie的后续请求在有效期内读取都走主库，
+ * 避免客户端刚写入就从尚未同步的副本读到旧数据。每个请求都开启 {@link ReadWriteContext} 作用域，
+ * 同一请求内写事务之后的读取也走主库。Cookie在处理前写入，响应提前提交时依然生效。
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "RW_STICKY";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Duration stickyWindow;
+
+    public ReadYourWritesFilter(Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, "1")
+                    .path("/")
+                    .maxAge(stickyWindow)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+        try (ReadWriteContext.Scope ignored = ReadWriteContext.open(hasStickyCookie(request))) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private static boolean hasStickyCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.web.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于延迟梯度的自适应并发限制器
+ * <p>
+ * 参照Gradient算法：每个采样窗口计算平均响应时间（短期RTT），并以指数移动平均维护长期RTT作为基线。
+ * 短期RTT不超过基线的 {@code rttTolerance} 倍时限制按 {@code sqrt(limit)} 增长，超过时按比例收缩，
+ * 下游（通常是数据库）变慢时在途请求数随之下降，而不是让线程堆积在连接池上。
+ * 窗口内出现失败时限制乘以0.9；在途请求数不到限制一半时没有排队信号，保持不变。
+ * 新限制与旧限制按 {@code smoothing} 平滑，结果限定在 [minLimit, maxLimit]。
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * 长期RTT的平滑窗口数，按100ms窗口约为10秒
+     */
+    private static final int LONG_WINDOW = 100;
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double rttTolerance;
+
+    private final double smoothing;
+
+    private final long windowNanos;
+
+    private final int minWindowSamples;
+
+    private volatile double limit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final LongAdder rttSum = new LongAdder();
+
+    private final LongAdder samples = new LongAdder();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private volatile boolean dropped;
+
+    private final ReentrantLock windowLock = new ReentrantLock();
+
+    private volatile long windowStart;
+
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(String name, ConcurrencyLimitProperties properties) {
+        this.name = name;
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.rttTolerance = properties.getRttTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.windowNanos = properties.getWindow().toNanos();
+        this.minWindowSamples = properties.getMinWindowSamples();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+        this.windowStart = System.nanoTime();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 当前并发限制
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * 在途请求数未达到限制时占用一个名额
+     *
+     * @return false表示已达到限制，请求应被拒绝
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 释放名额并记录本次请求的响应时间
+     *
+     * @param startNanos 占用名额时的 {@link System#nanoTime()}
+     * @param failed     请求是否失败，失败时下个窗口收缩限制
+     */
+    public void release(long startNanos, boolean failed) {
+        long now = System.nanoTime();
+        int current = inFlight.getAndDecrement();
+        onSample(now, now - startNanos, current, failed);
+    }
+
+    void onSample(long now, long rttNanos, int inFlightAtRelease, boolean failed) {
+        if (failed) {
+            dropped = true;
+        } else {
+            rttSum.add(rttNanos);
+            samples.increment();
+        }
+        maxInFlight.accumulateAndGet(inFlightAtRelease, Math::max);
+        // 只有一个线程结束窗口，其余线程不等待
+        if (now - windowStart >= windowNanos && windowLock.tryLock()) {
+            try {
+                if (now - windowStart >= windowNanos) {
+                    endWindow(now);
+                }
+            } finally {
+                windowLock.unlock();
+            }
+        }
+    }
+
+    private void endWindow(long now) {
+        long count = samples.sum();
+        if (count < minWindowSamples && !dropped) {
+            return;
+        }
+        double shortRtt = count == 0 ? 0 : (double) rttSum.sumThenReset() / count;
+        samples.reset();
+        int peak = maxInFlight.getAndSet(0);
+        boolean failed = dropped;
+        dropped = false;
+        windowStart = now;
+
+        double current = limit;
+        double next;
+        if (failed) {
+            next = current * BACKOFF_RATIO;
+        } else {
+            if (longRtt == 0) {
+                longRtt = shortRtt;
+            } else {
+                longRtt += (shortRtt - longRtt) / LONG_WINDOW;
+                // 负载下降后基线明显偏高时加速回落，避免长时间高估可接受的延迟
+                if (longRtt / shortRtt > 2) {
+                    longRtt *= 0.95;
+                }
+            }
+            if (peak < current / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+            next = current * gradient + Math.sqrt(current);
+        }
+        next = current * (1 - smoothing) + next * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.web.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 自适应并发限制配置
+ */
+@Data
+@ConfigurationProperties(prefix = "user.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * 是否启用，默认关闭
+     */
+    private boolean enabled = false;
+
+    /**
+     * 每个接口分组的初始并发限制
+     */
+    private int initialLimit = 20;
+
+    /**
+     * 并发限制下限
+     */
+    private int minLimit = 4;
+
+    /**
+     * 并发限制上限，不应超过Servlet容器的工作线程数
+     */
+    private int maxLimit = 200;
+
+    /**
+     * 短期平均响应时间超过长期基线的倍数后开始收缩限制
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * 新限制的平滑系数，越大调整越快
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * 采样窗口时长
+     */
+    private Duration window = Duration.ofMillis(100);
+
+    /**
+     * 窗口内至少多少个样本才调整限制
+     */
+    private int minWindowSamples = 10;
+
+    /**
+     * 接口分组，按顺序匹配第一个；未匹配的请求不受限制。为空时 /api/** 作为一个分组
+     */
+    private List<Group> groups = new ArrayList<>();
+
+    @Data
+    public static class Group {
+
+        /**
+         * 分组名称，作为指标的group标签
+         */
+        private String name;
+
+        /**
+         * 匹配的HTTP方法，为空时匹配全部
+         */
+        private List<String> methods = new ArrayList<>();
+
+        /**
+         * 匹配的路径模式（Ant风格）
+         */
+        private List<String> patterns = new ArrayList<>();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.web.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AdmissionInterceptor单元测试
+ */
+@DisplayName("AdmissionInterceptor测试")
+class AdmissionInterceptorTest {
+
+    private WeightedFairAdmissionScheduler scheduler;
+
+    private AdmissionInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getBulk().setMaxWait(Duration.ZERO);
+        scheduler = new WeightedFairAdmissionScheduler(properties, 4, 100);
+        interceptor = new AdmissionInterceptor(scheduler, properties.getHeader(), new ObjectMapper());
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Routes(), Routes.class.getMethod(name));
+    }
+
+    @Test
+    @DisplayName("测试按标注确定类别，请求头只能调低类别")
+    void testClassify() throws Exception {
+        // Given
+        MockHttpServletRequest plain = new MockHttpServletRequest("GET", "/api/users/1");
+        MockHttpServletRequest lower = new MockHttpServletRequest("GET", "/api/users/1");
+        lower.addHeader("X-Request-Class", "Bulk");
+        MockHttpServletRequest higher = new MockHttpServletRequest("GET", "/api/users");
+        higher.addHeader("X-Request-Class", "critical");
+
+        // When & Then
+        assertEquals(RequestClass.CRITICAL, interceptor.classify(plain, handler("lookup")));
+        assertEquals(RequestClass.NORMAL, interceptor.classify(plain, handler("unannotated")));
+        assertEquals(RequestClass.BULK, interceptor.classify(lower, handler("lookup")));
+        assertEquals(RequestClass.BULK, interceptor.classify(higher, handler("list")));
+        assertEquals(RequestClass.NORMAL, interceptor.classify(higher, handler("unannotated")));
+    }
+
+    @Test
+    @DisplayName("测试请求完成后释放名额")
+    void testReleaseAfterCompletion() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HandlerMethod handler = handler("lookup");
+
+        // When
+        boolean proceed = interceptor.preHandle(request, response, handler);
+        int running = scheduler.getRunning(RequestClass.CRITICAL);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        // Then
+        assertTrue(proceed);
+        assertEquals(1, running);
+        assertEquals(0, scheduler.getRunning(RequestClass.CRITICAL));
+    }
+
+    @Test
+    @DisplayName("测试无法获得名额时返回429")
+    void testRejected() throws Exception {
+        // Given
+        WeightedFairAdmissionScheduler.Permit held = scheduler.acquire(RequestClass.BULK);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = interceptor.preHandle(request, response, handler("list"));
+
+        // Then
+        assertFalse(proceed);
+        assertEquals(429, response.getStatus());
+        assertTrue(response.getContentAsString().contains("\"code\":429"));
+        held.release();
+    }
+
+    static class Routes {
+
+        @AdmissionClass(RequestClass.CRITICAL)
+        public void lookup() {
+        }
+
+        @AdmissionClass(RequestClass.BULK)
+        public void list() {
+        }
+
+        public void unannotated() {
+        }
+    }
+}
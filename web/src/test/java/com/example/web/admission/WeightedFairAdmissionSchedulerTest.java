@@ -0,0 +1,143 @@
+package com.example.web.admission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WeightedFairAdmissionScheduler单元测试
+ */
+@DisplayName("WeightedFairAdmissionScheduler测试")
+class WeightedFairAdmissionSchedulerTest {
+
+    private static WeightedFairAdmissionScheduler scheduler(AdmissionProperties properties, int maxConcurrency) {
+        return new WeightedFairAdmissionScheduler(properties, maxConcurrency, 100);
+    }
+
+    /**
+     * 启动一个申请名额的线程，等到它进入队列后返回；获得名额后记录名称并立即释放
+     */
+    private static Thread enqueue(WeightedFairAdmissionScheduler scheduler, RequestClass requestClass, String name,
+                                  Queue<String> order) throws InterruptedException {
+        int queued = scheduler.getQueued(requestClass);
+        Thread thread = new Thread(() -> {
+            try {
+                WeightedFairAdmissionScheduler.Permit permit = scheduler.acquire(requestClass);
+                order.add(permit == null ? name + "-rejected" : name);
+                if (permit != null) {
+                    permit.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        while (scheduler.getQueued(requestClass) == queued) {
+            Thread.sleep(1);
+        }
+        return thread;
+    }
+
+    @Test
+    @DisplayName("测试批量请求占满份额后排队，关键请求仍可获得名额")
+    void testShareCap() throws Exception {
+        // Given
+        WeightedFairAdmissionScheduler scheduler = scheduler(new AdmissionProperties(), 4);
+        WeightedFairAdmissionScheduler.Permit bulk = scheduler.acquire(RequestClass.BULK);
+        Queue<String> order = new ConcurrentLinkedQueue<>();
+
+        // When
+        Thread waiting = enqueue(scheduler, RequestClass.BULK, "bulk-2", order);
+        WeightedFairAdmissionScheduler.Permit critical = scheduler.acquire(RequestClass.CRITICAL);
+
+        // Then
+        assertNotNull(critical);
+        assertEquals(1, scheduler.getRunning(RequestClass.BULK));
+        assertEquals(1, scheduler.getQueued(RequestClass.BULK));
+        bulk.release();
+        waiting.join(5000);
+        assertEquals(List.of("bulk-2"), new ArrayList<>(order));
+        critical.release();
+        assertEquals(0, scheduler.getRunning(RequestClass.CRITICAL));
+    }
+
+    @Test
+    @DisplayName("测试按权重放行：关键请求越过先到的批量请求，批量请求按比例得到处理")
+    void testWeightedFairOrder() throws Exception {
+        // Given
+        WeightedFairAdmissionScheduler scheduler = scheduler(new AdmissionProperties(), 1);
+        WeightedFairAdmissionScheduler.Permit holder = scheduler.acquire(RequestClass.CRITICAL);
+        Queue<String> order = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            threads.add(enqueue(scheduler, RequestClass.BULK, "b" + i, order));
+        }
+        for (int i = 1; i <= 12; i++) {
+            threads.add(enqueue(scheduler, RequestClass.CRITICAL, "c" + i, order));
+        }
+
+        // When
+        holder.release();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        // Then
+        List<String> admitted = new ArrayList<>(order);
+        assertEquals(14, admitted.size());
+        // 权重8:1，第一个批量请求排在第8个关键请求之后，第二个排在全部关键请求之后
+        assertEquals(List.of("c1", "c2", "c3", "c4", "c5", "c6", "c7", "c8", "b1"), admitted.subList(0, 9));
+        assertEquals("b2", admitted.get(13));
+    }
+
+    @Test
+    @DisplayName("测试队列已满与排队超时时拒绝")
+    void testRejection() throws Exception {
+        // Given
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getBulk().setQueueCapacity(0);
+        properties.getCritical().setMaxWait(Duration.ofMillis(50));
+        WeightedFairAdmissionScheduler scheduler = scheduler(properties, 1);
+        WeightedFairAdmissionScheduler.Permit holder = scheduler.acquire(RequestClass.NORMAL);
+
+        // When
+        WeightedFairAdmissionScheduler.Permit bulk = scheduler.acquire(RequestClass.BULK);
+        long start = System.nanoTime();
+        WeightedFairAdmissionScheduler.Permit critical = scheduler.acquire(RequestClass.CRITICAL);
+        long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertNull(bulk);
+        assertNull(critical);
+        assertTrue(waitedMillis >= 40, "应排队到超时: " + waitedMillis);
+        assertEquals(0, scheduler.getQueued(RequestClass.CRITICAL));
+        holder.release();
+        assertNotNull(scheduler.acquire(RequestClass.BULK));
+    }
+    @Test
+    @DisplayName("测试排队总数达到上限时拒绝，即使所属类别的队列未满")
+    void testTotalQueueCap() throws Exception {
+        // Given
+        WeightedFairAdmissionScheduler scheduler = new WeightedFairAdmissionScheduler(new AdmissionProperties(), 1, 1);
+        WeightedFairAdmissionScheduler.Permit holder = scheduler.acquire(RequestClass.NORMAL);
+        Queue<String> order = new ConcurrentLinkedQueue<>();
+        Thread waiting = enqueue(scheduler, RequestClass.CRITICAL, "critical", order);
+
+        // When
+        WeightedFairAdmissionScheduler.Permit normal = scheduler.acquire(RequestClass.NORMAL);
+        holder.release();
+        waiting.join();
+
+        // Then
+        assertNull(normal);
+        assertEquals(0, scheduler.getQueued(RequestClass.NORMAL));
+        assertEquals(List.of("critical"), new ArrayList<>(order));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.web.cache;
+
+import com.example.api.vo.UserVO;
+import com.example.common.Result;
+import com.example.service.event.UserChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * UserResponseCache单元测试
+ */
+@DisplayName("UserResponseCache测试")
+class UserResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private UserResponseCache cache;
+
+    private UserVO userVO;
+
+    @BeforeEach
+    void setUp() {
+        UserResponseCacheProperties properties = new UserResponseCacheProperties();
+        properties.setEnabled(true);
+        cache = new UserResponseCache(properties, objectMapper);
+        userVO = new UserVO();
+        userVO.setId(1L);
+        userVO.setUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("测试命中时返回同一份字节")
+    void testGetUserHit() throws Exception {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        byte[] first = cache.getUser(1L, () -> {
+            loads.incrementAndGet();
+            return Result.success(userVO);
+        });
+        byte[] second = cache.getUser(1L, () -> {
+            loads.incrementAndGet();
+            return Result.success(userVO);
+        });
+
+        // Then
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertArrayEquals(objectMapper.writeValueAsBytes(Result.success(userVO)), first);
+    }
+
+    @Test
+    @DisplayName("测试加载期间发生变更时不写入缓存")
+    void testConcurrentChangeNotCached() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        cache.getUser(1L, () -> {
+            loads.incrementAndGet();
+            cache.onUserChange(UserChangeEvent.deleted(1L));
+            return Result.success(userVO);
+        });
+        cache.getUser(1L, () -> {
+            loads.incrementAndGet();
+            return Result.success(userVO);
+        });
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("测试任意变更清空列表响应并递增版本号")
+    void testChangeInvalidatesLists() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        cache.getList("list", () -> {
+            loads.incrementAndGet();
+            return Result.success("first");
+        });
+        long version = cache.version();
+
+        // When
+        cache.onUserChange(UserChangeEvent.deleted(2L));
+        byte[] body = cache.getList("list", () -> {
+            loads.incrementAndGet();
+            return Result.success("second");
+        }).body();
+
+        // Then
+        assertEquals(2, loads.get());
+        assertEquals(version + 1, cache.version());
+        assertTrue(new String(body, StandardCharsets.UTF_8).contains("second"));
+    }
+
+    @Test
+    @DisplayName("测试列表弱ETag由内容生成，不同实例对相同数据一致")
+    void testListETagDerivedFromContent() {
+        // Given
+        UserResponseCacheProperties properties = new UserResponseCacheProperties();
+        properties.setEnabled(true);
+        UserResponseCache otherNode = new UserResponseCache(properties, objectMapper);
+
+        // When
+        String eTag = cache.getList("list", () -> Result.success(userVO)).eTag();
+        String sameData = otherNode.getList("list", () -> Result.success(userVO)).eTag();
+        cache.onUserChange(UserChangeEvent.deleted(2L));
+        String afterUnrelatedChange = cache.getList("list", () -> Result.success(userVO)).eTag();
+        String otherData = otherNode.getList("other", () -> Result.success("other")).eTag();
+
+        // Then
+        assertTrue(eTag.startsWith("W/\""));
+        assertEquals(eTag, sameData);
+        assertEquals(eTag, afterUnrelatedChange);
+        assertNotEquals(eTag, otherData);
+        assertEquals(eTag, otherNode.weakETag(Result.success(userVO), ""));
+        assertNull(cache.getList("error", () -> Result.error(500, "操作失败")).eTag());
+    }
+
+    @Test
+    @DisplayName("测试关闭时每次都重新编码")
+    void testDisabled() {
+        // Given
+        UserResponseCache disabled = new UserResponseCache(new UserResponseCacheProperties(), objectMapper);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            disabled.getUser(1L, () -> {
+                loads.incrementAndGet();
+                return Result.success(userVO);
+            });
+        }
+
+        // Then
+        assertEquals(3, loads.get());
+    }
+}
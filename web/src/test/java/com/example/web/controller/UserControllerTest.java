@@ -1,26 +1,52 @@
 package com.example.web.controller;
 
 import com.example.api.dto.UserDTO;
+import com.example.api.dto.UserProfileDTO;
 import com.example.common.Result;
+import com.example.common.exception.BusinessException;
+import com.example.service.entity.User;
+import com.example.service.event.UserChangeEvent;
 import com.example.service.service.UserService;
+import com.example.web.cache.UserResponseCache;
+import com.example.web.cache.UserResponseCacheProperties;
+import com.example.web.filter.ConcurrencyLimitFilter;
+import com.example.web.limit.AdaptiveConcurrencyLimiter;
+import com.example.web.limit.ConcurrencyLimitProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.function.Consumer;
+import com.example.api.vo.CursorPageVO;
+import com.example.api.vo.UserBatchItemVO;
+import com.example.api.vo.UserBatchResultVO;
+import com.example.api.vo.UserStatsVO;
+import com.example.api.vo.UserSuggestionVO;
 import com.example.api.vo.UserVO;
 
 /**
@@ -33,6 +59,12 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private ObjectMapper jsonMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private UserResponseCache responseCache = new UserResponseCache(new UserResponseCacheProperties(), jsonMapper);
+
     @InjectMocks
     private UserController userController;
 
@@ -75,6 +107,23 @@ class UserControllerTest {
         verify(userService, times(1)).createUser(any(UserDTO.class));
     }
 
+    @Test
+    @DisplayName("测试按ID批量获取用户")
+    void testGetUsersByIds() throws Exception {
+        // Given
+        when(userService.getUsersByIds(anyList())).thenReturn(Arrays.asList(userVO));
+        
+        // When & Then
+        mockMvc.perform(post("/api/users/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data[0].id").value("1"));
+        
+        verify(userService, times(1)).getUsersByIds(Arrays.asList(1L, 2L));
+    }
+
     @Test
     @DisplayName("测试创建用户 - 失败")
     void testCreateUserFailure() throws Exception {
@@ -97,6 +146,31 @@ class UserControllerTest {
         verify(userService, times(1)).createUser(any(UserDTO.class));
     }
 
+    @Test
+    @DisplayName("测试批量创建用户")
+    void testCreateUsers() throws Exception {
+        // Given
+        UserDTO userDTO = new UserDTO();
+        userDTO.setUsername("testuser");
+        userDTO.setPassword("password123");
+        userDTO.setEmail("test@example.com");
+        UserBatchResultVO result = new UserBatchResultVO(2, 1, 1, Arrays.asList(
+                UserBatchItemVO.success(0, userVO), UserBatchItemVO.failure(1, "用户名已存在")));
+        
+        when(userService.createUsers(anyList())).thenReturn(result);
+        
+        // When & Then
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(userDTO, userDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("批量创建完成"))
+                .andExpect(jsonPath("$.data.succeeded").value(1))
+                .andExpect(jsonPath("$.data.items[1].message").value("用户名已存在"));
+        
+        verify(userService, times(1)).createUsers(anyList());
+    }
+
     @Test
     @DisplayName("测试根据ID获取用户 - 成功")
     void testGetUserByIdSuccess() throws Exception {
@@ -134,8 +208,8 @@ class UserControllerTest {
     }
 
     @Test
-    @DisplayName("测试获取所有用户")
-    void testGetAllUsers() throws Exception {
+    @DisplayName("测试游标分页获取用户")
+    void testListUsers() throws Exception {
         // Given
         UserVO userVO1 = new UserVO();
         userVO1.setId(1L);
@@ -147,18 +221,70 @@ class UserControllerTest {
         userVO2.setUsername("user2");
         userVO2.setEmail("user2@example.com");
         
-        when(userService.getAllUsers()).thenReturn(Arrays.asList(userVO1, userVO2));
+        when(userService.listUsers(null, 20, null))
+                .thenReturn(new CursorPageVO<>(Arrays.asList(userVO1, userVO2), 2L, true));
         
         // When & Then
         mockMvc.perform(get("/api/users"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.code").value(200))
-                .andExpect(jsonPath("$.data").isArray())
-                .andExpect(jsonPath("$.data.length()").value(2))
-                .andExpect(jsonPath("$.data[0].username").value("user1"))
-                .andExpect(jsonPath("$.data[1].username").value("user2"));
+                .andExpect(jsonPath("$.data.items").isArray())
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andExpect(jsonPath("$.data.items[0].username").value("user1"))
+                .andExpect(jsonPath("$.data.items[1].username").value("user2"))
+                .andExpect(jsonPath("$.data.nextCursor").value("2"))
+                .andExpect(jsonPath("$.data.hasMore").value(true));
+        
+        verify(userService, times(1)).listUsers(null, 20, null);
+    }
+
+    @Test
+    @DisplayName("测试游标分页获取用户 - 游标与状态过滤")
+    void testListUsersWithCursorAndStatus() throws Exception {
+        // Given
+        when(userService.listUsers(100L, 50, Arrays.asList(1)))
+                .thenReturn(new CursorPageVO<>(Arrays.asList(userVO), null, false));
+        
+        // When & Then
+        mockMvc.perform(get("/api/users")
+                .param("after", "100")
+                .param("limit", "50")
+                .param("status", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(1))
+                .andExpect(jsonPath("$.data.hasMore").value(false));
         
-        verify(userService, times(1)).getAllUsers();
+        verify(userService, times(1)).listUsers(100L, 50, Arrays.asList(1));
+    }
+
+    @Test
+    @DisplayName("测试NDJSON流式导出用户")
+    void testExportUsers() throws Exception {
+        // Given
+        UserVO userVO2 = new UserVO();
+        userVO2.setId(2L);
+        userVO2.setUsername("user2");
+        doAnswer(invocation -> {
+            Consumer<UserVO> consumer = invocation.getArgument(0);
+            consumer.accept(userVO);
+            consumer.accept(userVO2);
+            return null;
+        }).when(userService).exportUsers(any());
+        
+        // When
+        MvcResult mvcResult = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        // Then
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("testuser", jsonMapper.readTree(lines[0]).get("username").asText());
+        assertEquals(2L, jsonMapper.readTree(lines[1]).get("id").asLong());
     }
 
     @Test
@@ -184,6 +310,81 @@ class UserControllerTest {
         verify(userService, times(1)).updateUser(anyLong(), any(UserDTO.class));
     }
 
+    @Test
+    @DisplayName("测试部分更新资料并使响应缓存失效")
+    void testUpdateProfile() throws Exception {
+        // Given
+        when(userService.updateProfile(eq(1L), any(UserProfileDTO.class))).thenReturn(userVO);
+        
+        // When & Then
+        mockMvc.perform(patch("/api/users/1/profile")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nickname\":\"新昵称\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.message").value("用户更新成功"));
+        
+        verify(userService, times(1)).updateProfile(eq(1L), argThat(dto -> "新昵称".equals(dto.getNickname())));
+        verify(responseCache, times(1)).invalidate(1L);
+    }
+
+    @Test
+    @DisplayName("测试服务异常以HTTP 200返回时计为失败并收缩并发限制")
+    void testServiceFailureShrinksConcurrencyLimit() throws Exception {
+        // Given
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setWindow(Duration.ZERO);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, jsonMapper);
+        AdaptiveConcurrencyLimiter limiter = filter.getLimiters().get(0);
+        int initialLimit = limiter.getLimit();
+        MockMvc limited = MockMvcBuilders.standaloneSetup(userController).addFilters(filter).build();
+        UserDTO userDTO = new UserDTO();
+        userDTO.setUsername("testuser");
+        userDTO.setPassword("password123");
+        userDTO.setEmail("test@example.com");
+        
+        when(userService.createUser(any(UserDTO.class))).thenThrow(new RuntimeException("数据库不可用"));
+        
+        // When
+        limited.perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(500));
+        
+        // Then
+        assertTrue(limiter.getLimit() < initialLimit);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("测试业务校验失败不收缩并发限制")
+    void testBusinessFailureKeepsConcurrencyLimit() throws Exception {
+        // Given
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setWindow(Duration.ZERO);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, jsonMapper);
+        AdaptiveConcurrencyLimiter limiter = filter.getLimiters().get(0);
+        int initialLimit = limiter.getLimit();
+        MockMvc limited = MockMvcBuilders.standaloneSetup(userController).addFilters(filter).build();
+        UserDTO userDTO = new UserDTO();
+        userDTO.setUsername("testuser");
+        userDTO.setPassword("password123");
+        userDTO.setEmail("test@example.com");
+        
+        when(userService.createUser(any(UserDTO.class))).thenThrow(new BusinessException("用户名已存在"));
+        
+        // When
+        limited.perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(500));
+        
+        // Then
+        assertEquals(initialLimit, limiter.getLimit());
+    }
+
     @Test
     @DisplayName("测试更新用户 - 失败")
     void testUpdateUserFailure() throws Exception {
@@ -324,4 +525,245 @@ class UserControllerTest {
                 .content(objectMapper.writeValueAsString(userDTO)))
                 .andExpect(status().isBadRequest());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("测试搜索用户 - 默认数量")
+    void testSearchUsers() throws Exception {
+        // Given
+        when(userService.searchUsersByUsername("test", 20, null)).thenReturn(Arrays.asList(userVO));
+        
+        // When & Then
+        mockMvc.perform(get("/api/users/search").param("username", "test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data[0].username").value("testuser"));
+        
+        verify(userService, times(1)).searchUsersByUsername("test", 20, null);
+    }
+
+    @Test
+    @DisplayName("测试自动补全 - 默认字段与数量")
+    void testAutocomplete() throws Exception {
+        // Given
+        when(userService.autocomplete("te", 10, "username"))
+                .thenReturn(Arrays.asList(new UserSuggestionVO(1L, "testuser")));
+        
+        // When & Then
+        mockMvc.perform(get("/api/users/autocomplete").param("prefix", "te"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value("1"))
+                .andExpect(jsonPath("$.data[0].value").value("testuser"));
+        
+        verify(userService, times(1)).autocomplete("te", 10, "username");
+    }
+
+    @Test
+    @DisplayName("测试按状态统计用户数")
+    void testGetUserStats() throws Exception {
+        // Given
+        when(userService.getUserStats()).thenReturn(new UserStatsVO(3L, java.util.Map.of(0, 1L, 1, 2L)));
+        
+        // When & Then
+        mockMvc.perform(get("/api/users/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.total").value(3))
+                .andExpect(jsonPath("$.data.byStatus.1").value(2));
+        
+        verify(userService, times(1)).getUserStats();
+    }
+
+    @Test
+    @DisplayName("测试响应缓存 - 命中时直接返回已编码的字节")
+    void testGetUserByIdWithResponseCache() throws Exception {
+        // Given
+        MockMvc cachedMvc = cachedMockMvc();
+        when(userService.getUserById(1L)).thenReturn(userVO);
+        
+        // When
+        for (int i = 0; i < 3; i++) {
+            cachedMvc.perform(get("/api/users/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.code").value(200))
+                    .andExpect(jsonPath("$.data.username").value("testuser"));
+        }
+        
+        // Then
+        verify(userService, times(1)).getUserById(1L);
+    }
+
+    @Test
+    @DisplayName("测试响应缓存 - 用户变更后重新加载")
+    void testResponseCacheInvalidatedOnChange() throws Exception {
+        // Given
+        UserResponseCacheProperties properties = new UserResponseCacheProperties();
+        properties.setEnabled(true);
+        UserResponseCache cache = new UserResponseCache(properties, jsonMapper);
+        MockMvc cachedMvc = MockMvcBuilders.standaloneSetup(new UserController(userService, jsonMapper, cache)).build();
+        when(userService.getUserById(1L)).thenReturn(userVO);
+        when(userService.listUsers(null, 20, null)).thenReturn(new CursorPageVO<>(Arrays.asList(userVO), null, false));
+        cachedMvc.perform(get("/api/users/1"));
+        cachedMvc.perform(get("/api/users"));
+        
+        // When
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("renamed");
+        cache.onUserChange(UserChangeEvent.updated(user));
+        cachedMvc.perform(get("/api/users/1"));
+        cachedMvc.perform(get("/api/users"));
+        
+        // Then
+        verify(userService, times(2)).getUserById(1L);
+        verify(userService, times(2)).listUsers(null, 20, null);
+    }
+
+    @Test
+    @DisplayName("测试响应缓存 - 不缓存失败结果")
+    void testResponseCacheSkipsErrors() throws Exception {
+        // Given
+        MockMvc cachedMvc = cachedMockMvc();
+        when(userService.getUserById(999L)).thenReturn(null);
+        
+        // When
+        cachedMvc.perform(get("/api/users/999"))
+                .andExpect(jsonPath("$.code").value(404));
+        cachedMvc.perform(get("/api/users/999"))
+                .andExpect(jsonPath("$.code").value(404));
+        
+        // Then
+        verify(userService, times(2)).getUserById(999L);
+    }
+
+    @Test
+    @DisplayName("测试ETag - 用户未变化时返回304且不加载整行")
+    void testGetUserByIdNotModified() throws Exception {
+        // Given
+        LocalDateTime updateTime = LocalDateTime.of(2024, 1, 1, 12, 0);
+        userVO.setUpdateTime(updateTime);
+        when(userService.getUserUpdateTime(1L)).thenReturn(updateTime);
+        when(userService.getUserById(1L)).thenReturn(userVO);
+        String etag = mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+        
+        // When & Then
+        mockMvc.perform(get("/api/users/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        
+        verify(userService, times(1)).getUserById(1L);
+    }
+
+    @Test
+    @DisplayName("测试ETag - 用户更新后返回新内容")
+    void testGetUserByIdModified() throws Exception {
+        // Given
+        LocalDateTime updateTime = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(userService.getUserUpdateTime(1L)).thenReturn(updateTime, updateTime.plusNanos(1_000_000));
+        when(userService.getUserById(1L)).thenReturn(userVO);
+        String etag = mockMvc.perform(get("/api/users/1"))
+                .andReturn().getResponse().getHeader("ETag");
+        
+        // When
+        String newEtag = mockMvc.perform(get("/api/users/1").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.username").value("testuser"))
+                .andReturn().getResponse().getHeader("ETag");
+        
+        // Then
+        assertNotEquals(etag, newEtag);
+    }
+
+    @Test
+    @DisplayName("测试弱ETag - 列表内容不变时返回304，内容变化后返回新内容")
+    void testListUsersWeakETag() throws Exception {
+        // Given
+        UserVO renamed = new UserVO();
+        renamed.setId(1L);
+        renamed.setUsername("renamed");
+        when(userService.listUsers(null, 20, null)).thenReturn(
+                new CursorPageVO<>(Arrays.asList(userVO), null, false),
+                new CursorPageVO<>(Arrays.asList(userVO), null, false),
+                new CursorPageVO<>(Arrays.asList(renamed), null, false));
+        String etag = mockMvc.perform(get("/api/users"))
+                .andExpect(header().string("ETag", startsWith("W/")))
+                .andReturn().getResponse().getHeader("ETag");
+        
+        // When & Then
+        mockMvc.perform(get("/api/users").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/users").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[0].username").value("renamed"));
+        
+        verify(userService, times(3)).listUsers(null, 20, null);
+    }
+
+    @Test
+    @DisplayName("测试内容协商 - 按Accept返回Smile")
+    void testGetUserByIdSmile() throws Exception {
+        // Given
+        when(userService.getUserById(1L)).thenReturn(userVO);
+        
+        // When
+        byte[] body = mockMvc.perform(get("/api/users/1").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andReturn().getResponse().getContentAsByteArray();
+        
+        // Then
+        Result<?> result = new ObjectMapper(new SmileFactory()).findAndRegisterModules().readValue(body, Result.class);
+        assertEquals(200, result.getCode());
+        assertEquals("testuser", ((java.util.Map<?, ?>) result.getData()).get("username"));
+    }
+
+    @Test
+    @DisplayName("测试内容协商 - CBOR列表不使用JSON响应缓存")
+    void testListUsersCborBypassesResponseCache() throws Exception {
+        // Given
+        MockMvc cachedMvc = cachedMockMvc();
+        when(userService.listUsers(null, 20, null)).thenReturn(new CursorPageVO<>(Arrays.asList(userVO), null, false));
+        
+        // When
+        cachedMvc.perform(get("/api/users"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        byte[] body = cachedMvc.perform(get("/api/users").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        
+        // Then
+        Result<?> result = new ObjectMapper(new CBORFactory()).readValue(body, Result.class);
+        assertEquals(200, result.getCode());
+        verify(userService, times(2)).listUsers(null, 20, null);
+    }
+
+    @Test
+    @DisplayName("测试内容协商 - 不同格式的强ETag不同")
+    void testStrongETagPerFormat() throws Exception {
+        // Given
+        when(userService.getUserUpdateTime(1L)).thenReturn(LocalDateTime.of(2024, 1, 1, 12, 0));
+        when(userService.getUserById(1L)).thenReturn(userVO);
+        
+        // When
+        String json = mockMvc.perform(get("/api/users/1"))
+                .andReturn().getResponse().getHeader("ETag");
+        String smile = mockMvc.perform(get("/api/users/1").accept("application/x-jackson-smile"))
+                .andReturn().getResponse().getHeader("ETag");
+        
+        // Then
+        assertNotEquals(json, smile);
+        mockMvc.perform(get("/api/users/1").accept("application/x-jackson-smile").header("If-None-Match", json))
+                .andExpect(status().isOk());
+    }
+
+    private MockMvc cachedMockMvc() {
+        UserResponseCacheProperties properties = new UserResponseCacheProperties();
+        properties.setEnabled(true);
+        UserResponseCache cache = new UserResponseCache(properties, jsonMapper);
+        return MockMvcBuilders.standaloneSetup(new UserController(userService, jsonMapper, cache)).build();
+    }
+}
\ No newline at end of file
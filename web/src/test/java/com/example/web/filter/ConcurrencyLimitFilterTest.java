@@ -0,0 +1,136 @@
+package com.example.web.filter;
+
+import com.example.web.limit.AdaptiveConcurrencyLimiter;
+import com.example.web.limit.ConcurrencyLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ConcurrencyLimitFilter单元测试
+ */
+@DisplayName("ConcurrencyLimitFilter测试")
+class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyLimitFilter filter;
+
+    private AdaptiveConcurrencyLimiter writes;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(2);
+        properties.setMinLimit(1);
+        ConcurrencyLimitProperties.Group group = new ConcurrencyLimitProperties.Group();
+        group.setName("write");
+        group.setMethods(List.of("post", "put"));
+        group.setPatterns(List.of("/api/users/**"));
+        properties.setGroups(List.of(group));
+        filter = new ConcurrencyLimitFilter(properties, new ObjectMapper());
+        writes = filter.getLimiters().get(0);
+    }
+
+    @Test
+    @DisplayName("测试达到并发限制时返回429")
+    void testRejectsOverLimit() throws Exception {
+        // Given
+        assertTrue(writes.tryAcquire());
+        assertTrue(writes.tryAcquire());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/users"), response, chain);
+
+        // Then
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("\"code\":429"));
+        assertNull(chain.getRequest());
+        assertEquals(1, writes.getRejected());
+    }
+
+    @Test
+    @DisplayName("测试请求结束后释放名额，未匹配分组的请求不受限制")
+    void testReleaseAndUnmatched() throws Exception {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/users/1"), response, new MockFilterChain());
+        assertTrue(writes.tryAcquire());
+        assertTrue(writes.tryAcquire());
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users/1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals(2, writes.getInFlight());
+        assertEquals(0, writes.getRejected());
+    }
+
+    @Test
+    @DisplayName("测试带失败标记的200响应计为失败并收缩限制")
+    void testFailedAttributeShrinksLimit() throws Exception {
+        // Given
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(10);
+        properties.setWindow(Duration.ZERO);
+        ConcurrencyLimitFilter limited = new ConcurrencyLimitFilter(properties, new ObjectMapper());
+        AdaptiveConcurrencyLimiter api = limited.getLimiters().get(0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                req.setAttribute(ConcurrencyLimitFilter.FAILED_ATTRIBUTE, Boolean.TRUE);
+            }
+        });
+
+        // When
+        limited.doFilter(new MockHttpServletRequest("GET", "/api/users/1"), response, chain);
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertTrue(api.getLimit() < 10);
+        assertEquals(0, api.getInFlight());
+    }
+
+    @Test
+    @DisplayName("测试异步请求在异步处理完成时释放名额")
+    void testAsyncRelease() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users/batch");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                req.startAsync(req, res);
+            }
+        };
+
+        // When
+        filter.doFilter(request, response, chain);
+        int inFlightDuringAsync = writes.getInFlight();
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        // Then
+        assertEquals(1, inFlightDuringAsync);
+        assertEquals(0, writes.getInFlight());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.web.filter;
+
+import com.example.service.datasource.ReadWriteContext;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ReadYourWritesFilter单元测试
+ */
+@DisplayName("ReadYourWritesFilter测试")
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+
+    private boolean primaryRequiredDuring(MockHttpServletRequest request, MockHttpServletResponse response)
+            throws Exception {
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                primaryRequired.set(ReadWriteContext.isPrimaryRequired());
+            }
+        };
+        filter.doFilter(request, response, chain);
+        return primaryRequired.get();
+    }
+
+    @Test
+    @DisplayName("测试写请求下发粘滞Cookie")
+    void testMutatingRequestSetsCookie() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        primaryRequiredDuring(request, response);
+
+        // Then
+        String setCookie = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertNotNull(setCookie);
+        assertTrue(setCookie.startsWith(ReadYourWritesFilter.COOKIE_NAME + "=1"));
+        assertTrue(setCookie.contains("Max-Age=5"));
+    }
+
+    @Test
+    @DisplayName("测试携带粘滞Cookie的读请求走主库")
+    void testStickyRequestUsesPrimary() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, "1"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean primaryRequired = primaryRequiredDuring(request, response);
+
+        // Then
+        assertTrue(primaryRequired);
+        assertNull(response.getHeader(HttpHeaders.SET_COOKIE));
+        assertFalse(ReadWriteContext.isPrimaryRequired());
+    }
+
+    @Test
+    @DisplayName("测试普通读请求可走副本")
+    void testPlainReadUsesReplica() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean primaryRequired = primaryRequiredDuring(request, response);
+
+        // Then
+        assertFalse(primaryRequired);
+        assertNull(response.getHeader(HttpHeaders.SET_COOKIE));
+    }
+}
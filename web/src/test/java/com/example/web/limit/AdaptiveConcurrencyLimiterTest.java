@@ -0,0 +1,105 @@
+package com.example.web.limit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AdaptiveConcurrencyLimiter单元测试，以合成的时间与响应时间驱动采样窗口
+ */
+@DisplayName("AdaptiveConcurrencyLimiter测试")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(100);
+        properties.setWindow(Duration.ofNanos(WINDOW));
+        limiter = new AdaptiveConcurrencyLimiter("test", properties);
+        now = System.nanoTime();
+    }
+
+    /**
+     * 模拟若干个窗口，每个窗口10个样本，在途请求数等于当前限制
+     */
+    private void run(int windows, long rttMillis, boolean failed) {
+        for (int w = 0; w < windows; w++) {
+            now += WINDOW;
+            for (int i = 0; i < 10; i++) {
+                limiter.onSample(now, TimeUnit.MILLISECONDS.toNanos(rttMillis), limiter.getLimit(), failed);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("测试达到限制后拒绝，释放后可再次占用")
+    void testAcquireAndReject() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        boolean rejected = !limiter.tryAcquire();
+        limiter.release(System.nanoTime(), false);
+
+        // Then
+        assertTrue(rejected);
+        assertEquals(1, limiter.getRejected());
+        assertEquals(9, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("测试延迟稳定时限制增长，延迟升高后收缩")
+    void testGradient() {
+        // When
+        run(20, 10, false);
+        int grown = limiter.getLimit();
+        run(20, 50, false);
+        int shrunk = limiter.getLimit();
+
+        // Then
+        assertTrue(grown > 10, "延迟稳定时限制应增长: " + grown);
+        assertTrue(shrunk < grown, "延迟升高后限制应收缩: " + grown + " -> " + shrunk);
+    }
+
+    @Test
+    @DisplayName("测试失败时收缩限制且不低于下限")
+    void testBackoffOnFailure() {
+        // When
+        run(1, 10, true);
+        int afterOne = limiter.getLimit();
+        run(200, 10, true);
+
+        // Then
+        assertTrue(afterOne < 10);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("测试在途请求远低于限制时不调整")
+    void testAppLimited() {
+        // When
+        for (int w = 0; w < 20; w++) {
+            now += WINDOW;
+            for (int i = 0; i < 10; i++) {
+                limiter.onSample(now, TimeUnit.MILLISECONDS.toNanos(10), 1, false);
+            }
+        }
+
+        // Then
+        assertEquals(10, limiter.getLimit());
+    }
+}